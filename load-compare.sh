@@ -0,0 +1,41 @@
+#!/bin/bash
+
+# Compares /discount throughput and p99 latency between Tomcat's platform-thread
+# pool and virtual threads (spring.threads.virtual.enabled) at 1k-10k connections.
+# Starts a local instance for each mode, runs the load harness, then stops it.
+set -e
+
+PORT=${PORT:-18080}
+LEVELS=${LEVELS:-1000,2500,5000,10000}
+SECONDS_PER_LEVEL=${SECONDS_PER_LEVEL:-30}
+
+echo "🔨 Building application and load harness..."
+./gradlew bootJar loadTestClasses --no-daemon -q
+JAR=$(ls build/libs/*.jar | grep -v plain | head -1)
+
+# 10k client connections + 10k server connections need plenty of file descriptors
+ulimit -n 65536 2>/dev/null || echo "⚠️  Could not raise open file limit (ulimit -n $(ulimit -n))"
+
+for VIRTUAL in false true; do
+  MODE=$([ "$VIRTUAL" = "true" ] && echo "virtual" || echo "platform")
+  echo ""
+  echo "🚀 Starting instance with ${MODE} threads on port ${PORT}..."
+  java -Xmx512m -Xms256m -jar "$JAR" \
+    --server.port=${PORT} \
+    --spring.threads.virtual.enabled=${VIRTUAL} \
+    --server.tomcat.max-connections=20000 \
+    --server.tomcat.accept-count=2000 \
+    > build/load-${MODE}.log 2>&1 &
+  PID=$!
+
+  for i in $(seq 1 60); do
+    if curl -sf http://localhost:${PORT}/api/hello >/dev/null; then break; fi
+    sleep 1
+  done
+
+  ./gradlew loadHarness --no-daemon -q \
+    -PloadArgs="http://localhost:${PORT} ${MODE} ${LEVELS} ${SECONDS_PER_LEVEL}"
+
+  kill ${PID}
+  wait ${PID} 2>/dev/null || true
+done
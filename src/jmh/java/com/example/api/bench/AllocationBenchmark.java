@@ -0,0 +1,50 @@
+package com.example.api.bench;
+
+import com.example.api.DiscountEngine;
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-basket latency of optimal allocation on convenience-store baskets where
+// several promotions compete for the same units. budgetNodes=0 stops at the
+// greedy allocation, so it is the baseline the full search is paid against.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AllocationBenchmark {
+    private static final int BASKETS = 64;
+
+    @Param({"1", "5", "10", "25"})
+    public int basketSize;
+
+    @Param({"0", "10000"})
+    public long budgetNodes;
+
+    private DiscountEngine engine;
+    private Basket[] baskets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Production promotions plus overlapping ones on the same categories
+        List<DiscountRule> rules = new ArrayList<>(RuleSets.production());
+        rules.add(new MixAndMatchEnergyDrinks());
+        rules.add(new PercentOff(15, "BEVERAGE"));
+        rules.add(new PercentOff(10, "FOOD", "BEVERAGE"));
+        rules.add(new BuyXGetY(1, 1, "MONSTER"));
+        engine = new DiscountEngine(rules, 0, new AllocationSolver(budgetNodes));
+
+        List<DiscountRequest> requests = new BasketGenerator(7, BasketGenerator.Mix.MIXED).next(BASKETS, basketSize);
+        baskets = requests.stream().map(r -> Basket.of(r.getItems())).toArray(Basket[]::new);
+    }
+
+    @Benchmark
+    public DiscountResponse calculate() {
+        next = (next + 1) % BASKETS;
+        return engine.calculate(baskets[next]);
+    }
+}
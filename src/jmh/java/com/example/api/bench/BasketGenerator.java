@@ -0,0 +1,84 @@
+package com.example.api.bench;
+
+import com.example.api.model.*;
+import java.util.*;
+
+// Deterministic basket source for benchmarks: the same seed, size and mix
+// always produce the same baskets, so runs are comparable across commits.
+public final class BasketGenerator {
+
+    // Representative convenience-store lines: upc, description, price, category
+    private static final BasketItem[] BEVERAGES = {
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 1, "BEVERAGE"),
+            new BasketItem("611269991000", "RED BULL 12OZ", 3.49, 1, "BEVERAGE"),
+            new BasketItem("818094005777", "ROCKSTAR PUNCHED", 2.99, 1, "BEVERAGE"),
+            new BasketItem("889392000252", "CELSIUS ORANGE", 2.79, 1, "BEVERAGE"),
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 1, "BEVERAGE"),
+            new BasketItem("999999937568", "Large Polar Pop", 1.09, 1, "BEVERAGE"),
+            new BasketItem("049000050103", "COCA COLA 20OZ", 2.29, 1, "BEVERAGE"),
+            new BasketItem("052000338775", "GATORADE COOL BLUE", 2.49, 1, "BEVERAGE"),
+    };
+    private static final BasketItem[] FOOD = {
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "FOOD"),
+            new BasketItem("999999955685", "TAQUITO CHKN", 1.99, 1, "FOOD"),
+            new BasketItem("049000000443", "URCHOICE DONUT", 2.49, 1, "FOOD"),
+            new BasketItem("028400090896", "DORITOS NACHO", 2.19, 1, "FOOD"),
+            new BasketItem("040000424314", "SNICKERS KING", 2.59, 1, "FOOD"),
+    };
+    private static final BasketItem[] OTHER = {
+            new BasketItem("028200003843", "MARLB GOLD", 8.47, 1, "TOBACCO"),
+            new BasketItem("012546011099", "TROJAN 3PK", 6.99, 1, "HEALTH"),
+            new BasketItem("036000291452", "KLEENEX POCKET", 1.49, 1, "GENERAL"),
+    };
+
+    public enum Mix {
+        MIXED(0.45, 0.40),
+        BEVERAGE(0.85, 0.10),
+        FOOD(0.10, 0.85);
+
+        final double beverageShare;
+        final double foodShare;
+
+        Mix(double beverageShare, double foodShare) {
+            this.beverageShare = beverageShare;
+            this.foodShare = foodShare;
+        }
+    }
+
+    private final Random random;
+    private final Mix mix;
+
+    public BasketGenerator(long seed, Mix mix) {
+        this.random = new Random(seed);
+        this.mix = mix;
+    }
+
+    public DiscountRequest next(int lines) {
+        List<BasketItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            BasketItem template = pick();
+            // Vary quantity and make UPCs unique past the catalog size, so large
+            // baskets behave like real catering orders rather than one repeated line
+            String upc = i < 16 ? template.getUpc() : template.getUpc().substring(0, 8) + String.format("%04d", i);
+            items.add(new BasketItem(upc, template.getDescription(), template.getPrice(),
+                    1 + random.nextInt(4), template.getCategory()));
+        }
+        return new DiscountRequest(items);
+    }
+
+    public List<DiscountRequest> next(int baskets, int lines) {
+        List<DiscountRequest> requests = new ArrayList<>(baskets);
+        for (int i = 0; i < baskets; i++) {
+            requests.add(next(lines));
+        }
+        return requests;
+    }
+
+    private BasketItem pick() {
+        double roll = random.nextDouble();
+        BasketItem[] pool = roll < mix.beverageShare ? BEVERAGES
+                : roll < mix.beverageShare + mix.foodShare ? FOOD
+                : OTHER;
+        return pool[random.nextInt(pool.length)];
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.api.bench;
+
+import com.example.api.DiscountEngine;
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DSL-compiled promotions against the hand-written rule classes they mirror,
+// on the same baskets: the two should price at about the same speed
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompiledRuleBenchmark {
+    private static final int BASKETS = 64;
+
+    public enum Source { HAND_WRITTEN, COMPILED }
+
+    @Param({"HAND_WRITTEN", "COMPILED"})
+    public Source source;
+
+    @Param({"3", "50", "500"})
+    public int ruleCount;
+
+    @Param({"10", "100"})
+    public int basketSize;
+
+    private DiscountEngine engine;
+    private Basket[] baskets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        engine = new DiscountEngine(source == Source.COMPILED
+                ? RuleSets.compiledOfSize(ruleCount, 42)
+                : RuleSets.ofSize(ruleCount, 42));
+        List<DiscountRequest> requests = new BasketGenerator(7, BasketGenerator.Mix.MIXED).next(BASKETS, basketSize);
+        baskets = requests.stream().map(r -> Basket.of(r.getItems())).toArray(Basket[]::new);
+    }
+
+    @Benchmark
+    public DiscountResponse calculate() {
+        next = (next + 1) % BASKETS;
+        return engine.calculate(baskets[next]);
+    }
+}
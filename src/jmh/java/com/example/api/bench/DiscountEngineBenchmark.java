@@ -0,0 +1,51 @@
+package com.example.api.bench;
+
+import com.example.api.DiscountEngine;
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end engine cost per basket, across basket sizes, rule counts and category mixes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DiscountEngineBenchmark {
+    private static final int BASKETS = 64;
+
+    @Param({"1", "10", "100", "1000"})
+    public int basketSize;
+
+    @Param({"3", "50", "500"})
+    public int ruleCount;
+
+    @Param({"MIXED", "BEVERAGE", "FOOD"})
+    public BasketGenerator.Mix categoryMix;
+
+    private DiscountEngine engine;
+    private List<DiscountRequest> requests;
+    private Basket[] baskets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        engine = new DiscountEngine(RuleSets.ofSize(ruleCount, 42));
+        requests = new BasketGenerator(7, categoryMix).next(BASKETS, basketSize);
+        baskets = requests.stream().map(r -> Basket.of(r.getItems())).toArray(Basket[]::new);
+    }
+
+    // Includes building the internal basket from request items
+    @Benchmark
+    public DiscountResponse calculate() {
+        next = (next + 1) % BASKETS;
+        return engine.calculate(requests.get(next));
+    }
+
+    // Rule evaluation and winner selection only
+    @Benchmark
+    public DiscountResponse calculatePrebuiltBasket() {
+        next = (next + 1) % BASKETS;
+        return engine.calculate(baskets[next]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.api.bench;
+
+import com.example.api.rules.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Cost of a single rule evaluated against every line of a basket
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DiscountRuleBenchmark {
+    private static final int BASKETS = 64;
+
+    @Param({"BOGO", "BUY_X_GET_Y", "PERCENT_OFF", "MIX_MATCH"})
+    public String rule;
+
+    @Param({"1", "10", "100", "1000"})
+    public int basketSize;
+
+    @Param({"MIXED", "BEVERAGE", "FOOD"})
+    public BasketGenerator.Mix categoryMix;
+
+    private DiscountRule discountRule;
+    private Basket[] baskets;
+    private int[][] lines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        discountRule = switch (rule) {
+            case "BOGO" -> new BuyOneGetOne("BEVERAGE");
+            case "BUY_X_GET_Y" -> new BuyXGetY(2, 1, "POLAR POP");
+            case "PERCENT_OFF" -> new PercentOff(20, "FOOD");
+            case "MIX_MATCH" -> new MixAndMatchEnergyDrinks();
+            default -> throw new IllegalArgumentException("Unknown rule: " + rule);
+        };
+        BasketGenerator generator = new BasketGenerator(7, categoryMix);
+        baskets = new Basket[BASKETS];
+        lines = new int[BASKETS][];
+        for (int i = 0; i < BASKETS; i++) {
+            baskets[i] = Basket.of(generator.next(basketSize).getItems());
+            lines[i] = baskets[i].allLines();
+        }
+    }
+
+    @Benchmark
+    public DiscountResult apply() {
+        next = (next + 1) % BASKETS;
+        return discountRule.apply(baskets[next], lines[next]);
+    }
+}
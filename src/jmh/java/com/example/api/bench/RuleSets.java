@@ -0,0 +1,67 @@
+package com.example.api.bench;
+
+import com.example.api.rules.*;
+import com.example.api.rules.dsl.RuleCompiler;
+import java.util.*;
+
+// Rule sets of a given size for benchmarks. The first rules are the production
+// promotions; the rest are synthetic promos, mostly on categories and brands
+// that generated baskets never contain, like a large promo calendar would be.
+public final class RuleSets {
+    private RuleSets() {}
+
+    public static List<DiscountRule> production() {
+        return List.of(
+                new BuyXGetY(2, 1, "POLAR POP"),
+                new PercentOff(5, "FOOD"),
+                new BuyOneGetOne("BEVERAGE")
+        );
+    }
+
+    public static List<DiscountRule> ofSize(int count, long seed) {
+        Random random = new Random(seed);
+        List<DiscountRule> rules = new ArrayList<>(production());
+        if (count > rules.size()) {
+            rules.add(new MixAndMatchEnergyDrinks());
+        }
+
+        int n = 0;
+        while (rules.size() < count) {
+            // Roughly one synthetic rule in ten targets something real
+            boolean live = random.nextInt(10) == 0;
+            switch (n++ % 3) {
+                case 0 -> rules.add(new BuyOneGetOne(live ? "FOOD" : "CATEGORY_" + n));
+                case 1 -> rules.add(new PercentOff(5 + random.nextInt(20), live ? "BEVERAGE" : "CATEGORY_" + n));
+                default -> rules.add(new BuyXGetY(1 + random.nextInt(3), 1, live ? "MONSTER" : "BRAND " + n));
+            }
+        }
+        return rules.subList(0, count);
+    }
+
+    // Same promotions as ofSize(count, seed), written in the rule DSL and compiled
+    public static List<DiscountRule> compiledOfSize(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> rules = new ArrayList<>(List.of(
+                "buy 2 POLAR POP get 1 free",
+                "5% off category FOOD",
+                "buy 1 category BEVERAGE get 1 free"));
+        if (count > rules.size()) {
+            rules.add("mix any 2 of group ENERGY for $6.00");
+        }
+
+        int n = 0;
+        while (rules.size() < count) {
+            boolean live = random.nextInt(10) == 0;
+            switch (n++ % 3) {
+                case 0 -> rules.add("buy 1 category " + (live ? "FOOD" : "CATEGORY_" + n) + " get 1 free");
+                case 1 -> rules.add((5 + random.nextInt(20)) + "% off category " + (live ? "BEVERAGE" : "CATEGORY_" + n));
+                default -> rules.add("buy " + (1 + random.nextInt(3)) + " \"" + (live ? "MONSTER" : "BRAND " + n) + "\" get 1 free");
+            }
+        }
+
+        String program = "group ENERGY = \"MONSTER\", \"RED BULL\", \"ROCKSTAR\", \"NOS\", \"REIGN\", "
+                + "\"CELSIUS\", \"BANG\", \"5 HR\", \"GHOST ERGY\"\n"
+                + String.join("\n", rules.subList(0, count));
+        return RuleCompiler.compile(program);
+    }
+}
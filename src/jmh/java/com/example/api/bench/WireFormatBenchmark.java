@@ -0,0 +1,79 @@
+package com.example.api.bench;
+
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.codec.BinaryCodec;
+import com.example.api.DiscountEngine;
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of getting a basket off the wire and a priced response back on, JSON
+// (the /discount default, request -> DiscountRequest -> Basket) against
+// BinaryCodec (request -> Basket). Pricing itself is left out. Message sizes
+// for each basket size are printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+    private static final int BASKETS = 64;
+
+    @Param({"1", "10", "100"})
+    public int basketSize;
+
+    private final JsonMapper json = JsonMapper.builder().build();
+    private final BinaryCodec codec = new BinaryCodec(ProductCatalog.empty());
+    private byte[][] jsonRequests;
+    private byte[][] binaryRequests;
+    private DiscountResponse[] responses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<DiscountRequest> requests = new BasketGenerator(7, BasketGenerator.Mix.MIXED).next(BASKETS, basketSize);
+        DiscountEngine engine = new DiscountEngine(RuleSets.ofSize(50, 42));
+        jsonRequests = new byte[BASKETS][];
+        binaryRequests = new byte[BASKETS][];
+        responses = new DiscountResponse[BASKETS];
+
+        long jsonRequestBytes = 0, binaryRequestBytes = 0, jsonResponseBytes = 0, binaryResponseBytes = 0;
+        for (int i = 0; i < BASKETS; i++) {
+            jsonRequests[i] = json.writeValueAsBytes(requests.get(i));
+            binaryRequests[i] = BinaryCodec.encodeRequest(requests.get(i));
+            responses[i] = engine.calculate(requests.get(i));
+            jsonRequestBytes += jsonRequests[i].length;
+            binaryRequestBytes += binaryRequests[i].length;
+            jsonResponseBytes += json.writeValueAsBytes(responses[i]).length;
+            binaryResponseBytes += codec.encodeResponse(responses[i]).length;
+        }
+        System.out.printf("%n[basketSize=%d] average bytes: request json=%d binary=%d, response json=%d binary=%d%n",
+                basketSize, jsonRequestBytes / BASKETS, binaryRequestBytes / BASKETS,
+                jsonResponseBytes / BASKETS, binaryResponseBytes / BASKETS);
+    }
+
+    @Benchmark
+    public Basket decodeJson() {
+        next = (next + 1) % BASKETS;
+        return Basket.of(json.readValue(jsonRequests[next], DiscountRequest.class).getItems());
+    }
+
+    @Benchmark
+    public Basket decodeBinary() {
+        next = (next + 1) % BASKETS;
+        return codec.decodeBasket(binaryRequests[next]);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        next = (next + 1) % BASKETS;
+        return json.writeValueAsBytes(responses[next]);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        next = (next + 1) % BASKETS;
+        return codec.encodeResponse(responses[next]);
+    }
+}
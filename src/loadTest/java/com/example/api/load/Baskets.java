@@ -0,0 +1,57 @@
+package com.example.api.load;
+
+import java.util.*;
+
+// Seeded JSON basket bodies shaped like lane traffic: mostly one to three
+// lines (fountain drink, hot dog + drink, two energy drinks), with a tail of
+// larger baskets
+public final class Baskets {
+    private static final String[][] CATALOG = {
+            // upc, description, price, category
+            {"999999937551", "Medium Polar Pop", "0.89", "BEVERAGE"},
+            {"999999937568", "Large Polar Pop", "1.09", "BEVERAGE"},
+            {"070847811169", "MONSTER ENERGY", "3.29", "BEVERAGE"},
+            {"611269991000", "RED BULL 12OZ", "3.49", "BEVERAGE"},
+            {"049000050103", "COCA COLA 20OZ", "2.29", "BEVERAGE"},
+            {"999999955678", "HOT DOG / SSG PREMIUM", "2.69", "FOOD"},
+            {"999999955685", "TAQUITO CHKN", "1.99", "FOOD"},
+            {"049000000443", "URCHOICE DONUT", "2.49", "FOOD"},
+            {"028400090896", "DORITOS NACHO", "2.19", "FOOD"},
+            {"028200003843", "MARLB GOLD", "8.47", "TOBACCO"},
+    };
+
+    private Baskets() {}
+
+    public static List<String> jsonBodies(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> bodies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bodies.add(json(random, lineCount(random)));
+        }
+        return bodies;
+    }
+
+    private static int lineCount(Random random) {
+        double roll = random.nextDouble();
+        if (roll < 0.50) return 1;
+        if (roll < 0.80) return 2;
+        if (roll < 0.95) return 3 + random.nextInt(3);
+        return 6 + random.nextInt(20);
+    }
+
+    private static String json(Random random, int lines) {
+        StringBuilder body = new StringBuilder("{\"items\":[");
+        for (int line = 0; line < lines; line++) {
+            String[] item = CATALOG[random.nextInt(CATALOG.length)];
+            if (line > 0) {
+                body.append(',');
+            }
+            body.append("{\"upc\":\"").append(item[0])
+                    .append("\",\"description\":\"").append(item[1])
+                    .append("\",\"price\":").append(item[2])
+                    .append(",\"quantity\":").append(1 + random.nextInt(3))
+                    .append(",\"category\":\"").append(item[3]).append("\"}");
+        }
+        return body.append("]}").toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.api.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Open-loop load: requests are scheduled at a fixed rate whatever the server is
+// doing, and each latency is measured from when its request was due, not from
+// when it was actually sent (wrk2-style coordinated-omission correction). A
+// stalled server therefore shows up as a queue of late requests in the
+// percentiles, instead of the client quietly sending less.
+// At most maxInFlight requests are outstanding; when they are all taken, the
+// schedule keeps running and the wait counts towards the next requests' latency.
+// Only successful (200) responses are recorded as latency and count as
+// throughput; failures are only counted, so fast errors can't flatter either.
+final class ConstantRateDriver {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final HttpClient client;
+    private final URI target;
+    private final List<String> bodies;
+    private final int maxInFlight;
+
+    ConstantRateDriver(HttpClient client, URI target, List<String> bodies, int maxInFlight) {
+        this.client = client;
+        this.target = target;
+        this.bodies = bodies;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // Sends `rate` requests per second for `duration`. Every `interval` (and once at
+    // the end) the latencies recorded since the last report go to onInterval.
+    // Returns once every request has completed or timed out.
+    Run run(double rate, Duration duration, Duration interval, Consumer<Interval> onInterval)
+            throws InterruptedException {
+        Recorder corrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        AtomicLong errors = new AtomicLong();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Run run = new Run();
+
+        long periodNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long nextReport = start + interval.toNanos();
+        long intervalErrors = 0;
+        long sent = 0;
+
+        for (long due = start; due < end; due = start + ++sent * periodNanos) {
+            long now = System.nanoTime();
+            if (due > now) {
+                LockSupport.parkNanos(due - now);
+            }
+            if (System.nanoTime() >= nextReport) {
+                intervalErrors = report(run, corrected, uncorrected, errors, intervalErrors, onInterval);
+                nextReport += interval.toNanos();
+            }
+            inFlight.acquire();
+            long intended = due;
+            long actual = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(target)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(bodies.get((int) (sent % bodies.size()))))
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long done = System.nanoTime();
+                if (failure != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                } else {
+                    corrected.recordValue(Math.min(done - intended, HIGHEST_TRACKABLE_NANOS));
+                    uncorrected.recordValue(Math.min(done - actual, HIGHEST_TRACKABLE_NANOS));
+                }
+                inFlight.release();
+            });
+        }
+
+        // Wait for the stragglers, so the last interval has every response
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        report(run, corrected, uncorrected, errors, intervalErrors, onInterval);
+        run.elapsedNanos = System.nanoTime() - start;
+        return run;
+    }
+
+    private static long report(Run run, Recorder corrected, Recorder uncorrected, AtomicLong errors,
+                               long reportedErrors, Consumer<Interval> onInterval) {
+        Interval interval = new Interval(corrected.getIntervalHistogram(), uncorrected.getIntervalHistogram());
+        long totalErrors = errors.get();
+        interval.errors = totalErrors - reportedErrors;
+        run.latency.add(interval.latency);
+        run.uncorrected.add(interval.uncorrected);
+        run.errors += interval.errors;
+        if (interval.latency.getTotalCount() > 0 || interval.errors > 0) {
+            onInterval.accept(interval);
+        }
+        return totalErrors;
+    }
+
+    // Latencies of successful requests in nanoseconds, from the request's due time
+    // and from its send time
+    static final class Interval {
+        final Histogram latency;
+        final Histogram uncorrected;
+        long errors;
+
+        Interval(Histogram latency, Histogram uncorrected) {
+            this.latency = latency;
+            this.uncorrected = uncorrected;
+        }
+    }
+
+    // Totals over a whole run
+    static final class Run {
+        final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final Histogram uncorrected = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long errors;
+        long elapsedNanos;
+
+        // Successful responses per second
+        double throughput() {
+            return latency.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        double errorRate() {
+            long requests = latency.getTotalCount() + errors;
+            return requests == 0 ? 1 : errors / (double) requests;
+        }
+    }
+}
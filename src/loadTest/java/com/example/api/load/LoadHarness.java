@@ -0,0 +1,101 @@
+package com.example.api.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Closed-loop load generator for POST /discount. Each simulated connection is a
+// client-side virtual thread that sends a basket, waits for the answer and sends
+// the next one, so the client itself never becomes the bottleneck at 10k connections.
+// Latency percentiles and req/s count successful (200) responses only; failures
+// are timed in a histogram of their own, so fast errors can't flatter either.
+//
+// Usage: LoadHarness <baseUrl> [label] [concurrency,...] [secondsPerLevel]
+public final class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        URI target = URI.create(args[0] + "/discount");
+        String label = args.length > 1 ? args[1] : "run";
+        int[] levels = args.length > 2
+                ? Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1_000, 2_500, 5_000, 10_000};
+        Duration perLevel = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        List<String> bodies = Baskets.jsonBodies(512, 42);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // Warm up the server's JIT and connection handling before measuring
+        run(client, target, bodies, 64, Duration.ofSeconds(10));
+
+        System.out.printf("%-10s %8s %10s %8s %10s %9s %9s %9s %9s %12s%n",
+                "mode", "conns", "ok", "errors", "ok/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "err p99 ms");
+        for (int concurrency : levels) {
+            Result result = run(client, target, bodies, concurrency, perLevel);
+            Histogram latency = result.latency;
+            System.out.printf("%-10s %8d %10d %8d %10.0f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    label, concurrency, latency.getTotalCount(), result.errors.getTotalCount(),
+                    latency.getTotalCount() / (result.elapsedNanos / 1e9),
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()),
+                    millis(result.errors.getValueAtPercentile(99)));
+        }
+    }
+
+    private static Result run(HttpClient client, URI target, List<String> bodies,
+                              int concurrency, Duration duration) throws InterruptedException {
+        Recorder successes = new Recorder(3);
+        Recorder errors = new Recorder(3);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+
+        try (ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int offset = c;
+                connections.submit(() -> {
+                    int next = offset;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(target)
+                                .header("Content-Type", "application/json")
+                                .timeout(Duration.ofSeconds(30))
+                                .POST(HttpRequest.BodyPublishers.ofString(bodies.get(next++ % bodies.size())))
+                                .build();
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        (ok ? successes : errors).recordValue(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        // Closing the executor waits for every connection to finish its last request,
+        // so the elapsed time covers every response counted
+        long elapsed = System.nanoTime() - started;
+
+        return new Result(successes.getIntervalHistogram(), errors.getIntervalHistogram(), elapsed);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Result(Histogram latency, Histogram errors, long elapsedNanos) {}
+}
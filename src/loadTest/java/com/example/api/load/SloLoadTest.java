@@ -0,0 +1,196 @@
+package com.example.api.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Starts the packaged application on a free port, drives /discount at a constant
+// arrival rate (see ConstantRateDriver) and exits non-zero when a latency, error
+// or throughput SLO is missed, so `./gradlew loadTest` can gate a deploy.
+// Settings come from slo.properties, overridden by system properties of the same
+// name (the Gradle tasks pass -Pload.* and -Pslo.* through).
+// In a soak run (load.interval below load.duration) every interval must meet the
+// p99 SLO on its own, so a leak or GC drift that only shows after a while fails too.
+//
+// Usage: SloLoadTest <application jar>
+public final class SloLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Properties settings = settings();
+        File jar = new File(args[0]);
+        double rate = Double.parseDouble(settings.getProperty("load.rate"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(settings.getProperty("load.duration-seconds")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(settings.getProperty("load.warmup-seconds")));
+        long intervalSeconds = Long.parseLong(settings.getProperty("load.interval-seconds"));
+        Duration interval = intervalSeconds > 0 ? Duration.ofSeconds(intervalSeconds) : duration;
+        int maxInFlight = Integer.parseInt(settings.getProperty("load.max-in-flight"));
+        List<String> bodies = Baskets.jsonBodies(Integer.parseInt(settings.getProperty("load.baskets")),
+                Long.parseLong(settings.getProperty("load.seed")));
+
+        double p50 = Double.parseDouble(settings.getProperty("slo.p50-ms"));
+        double p99 = Double.parseDouble(settings.getProperty("slo.p99-ms"));
+        double p999 = Double.parseDouble(settings.getProperty("slo.p99.9-ms"));
+        double maxErrorRate = Double.parseDouble(settings.getProperty("slo.max-error-rate"));
+        double minThroughput = rate * Double.parseDouble(settings.getProperty("slo.min-throughput-ratio"));
+        boolean soak = interval.compareTo(duration) < 0;
+
+        int port = freePort();
+        Process app = start(jar, port, settings.getProperty("load.app-jvm-args"));
+        Runtime.getRuntime().addShutdownHook(new Thread(app::destroyForcibly));
+        List<String> failures = new ArrayList<>();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            awaitReady(client, base.resolve("/api/hello"), app, Duration.ofSeconds(120));
+
+            ConstantRateDriver driver = new ConstantRateDriver(client, base.resolve("/discount"), bodies, maxInFlight);
+            System.out.printf("Warming up for %ds at %.0f req/s%n", warmup.toSeconds(), rate);
+            driver.run(rate, warmup, warmup, ignored -> {});
+
+            System.out.printf("Measuring for %ds at %.0f req/s%n", duration.toSeconds(), rate);
+            System.out.printf("%-10s %10s %8s %9s %9s %9s %9s%n",
+                    "interval", "ok", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            int[] index = {0};
+            ConstantRateDriver.Run run = driver.run(rate, duration, interval, slice -> {
+                index[0]++;
+                print(String.valueOf(index[0]), slice.latency, slice.errors);
+                double sliceP99 = millis(slice.latency.getValueAtPercentile(99));
+                if (soak && sliceP99 > p99) {
+                    failures.add(String.format("interval %d p99 %.2f ms > %.2f ms", index[0], sliceP99, p99));
+                }
+            });
+
+            print("total", run.latency, run.errors);
+            System.out.printf("%-10s %10s %8s %9.2f %9.2f %9.2f %9.2f   (not corrected for coordinated omission)%n",
+                    "sent-time", "", "",
+                    millis(run.uncorrected.getValueAtPercentile(50)),
+                    millis(run.uncorrected.getValueAtPercentile(99)),
+                    millis(run.uncorrected.getValueAtPercentile(99.9)),
+                    millis(run.uncorrected.getMaxValue()));
+            System.out.printf("throughput %.0f req/s (target %.0f)%n", run.throughput(), rate);
+
+            check(failures, "p50", millis(run.latency.getValueAtPercentile(50)), p50);
+            check(failures, "p99", millis(run.latency.getValueAtPercentile(99)), p99);
+            check(failures, "p99.9", millis(run.latency.getValueAtPercentile(99.9)), p999);
+            double errorRate = run.errorRate();
+            if (errorRate > maxErrorRate) {
+                failures.add(String.format("error rate %.4f > %.4f", errorRate, maxErrorRate));
+            }
+            if (run.throughput() < minThroughput) {
+                failures.add(String.format("throughput %.0f req/s < %.0f req/s", run.throughput(), minThroughput));
+            }
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.println("SLO missed:");
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("All SLOs met");
+    }
+
+    private static Properties settings() throws IOException {
+        Properties settings = new Properties();
+        try (InputStream in = SloLoadTest.class.getResourceAsStream("/slo.properties")) {
+            settings.load(in);
+        }
+        for (String name : settings.stringPropertyNames()) {
+            String override = System.getProperty(name);
+            if (override != null) {
+                settings.setProperty(name, override);
+            }
+        }
+        return settings;
+    }
+
+    // Picked here rather than with server.port=0, so nothing has to be read back
+    // from the application's log
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Process start(File jar, int port, String jvmArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : jvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.getPath());
+        command.add("--server.port=" + port);
+        // build/libs/app.jar logs to build/load/app.log
+        Path log = Files.createDirectories(jar.getAbsoluteFile().toPath().getParent().resolveSibling("load"))
+                .resolve("app.log");
+        System.out.println("Starting " + jar.getName() + " on port " + port + " (log: " + log + ")");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitReady(HttpClient client, URI probe, Process app, Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(probe).timeout(Duration.ofSeconds(2)).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + app.exitValue() + " during startup");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notYet) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("Application not ready after " + timeout.toSeconds() + "s");
+    }
+
+    private static void check(List<String> failures, String percentile, double actual, double limit) {
+        if (actual > limit) {
+            failures.add(String.format("%s %.2f ms > %.2f ms", percentile, actual, limit));
+        }
+    }
+
+    private static void print(String label, Histogram latency, long errors) {
+        System.out.printf("%-10s %10d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                label, latency.getTotalCount(), errors,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.api.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Starts the discount service in each available mode and measures time from
+// process start to the first successful /discount response, and resident memory
+// right after it and after a short burst of traffic. Modes whose artifacts have
+// not been built are skipped:
+//   jar      the boot jar as deployed today
+//   cds-aot  the extracted jar with Spring AOT and the AppCDS archive (cdsArchive)
+//   native   the GraalVM executable (nativeCompile)
+//
+// Usage: StartupBenchmark <boot jar> <fast-start dir> <native executable> [runs]
+public final class StartupBenchmark {
+    private static final int WARM_REQUESTS = 2_000;
+    private static final String JVM_HEAP = "-Xms256m -Xmx512m";
+
+    public static void main(String[] args) throws Exception {
+        File jar = new File(args[0]);
+        File fastStart = new File(args[1]);
+        File nativeImage = new File(args[2]);
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        List<Mode> modes = new ArrayList<>();
+        modes.add(new Mode("jar", jar.getParentFile(),
+                command(javaExecutable(), JVM_HEAP, "-jar", jar.getAbsolutePath())));
+        File extracted = new File(fastStart, jar.getName());
+        if (extracted.isFile() && new File(fastStart, "application.jsa").isFile()) {
+            modes.add(new Mode("cds-aot", fastStart, command(javaExecutable(), JVM_HEAP,
+                    "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                    "-jar", extracted.getName(), "--spring.profiles.active=fast-start")));
+        }
+        if (nativeImage.canExecute()) {
+            modes.add(new Mode("native", nativeImage.getParentFile(), command(nativeImage.getAbsolutePath(),
+                    "-Xmx512m", "--spring.profiles.active=fast-start")));
+        }
+
+        List<String> bodies = Baskets.jsonBodies(WARM_REQUESTS, 7);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        System.out.printf("%-8s %5s %14s %14s %16s %14s%n",
+                "mode", "runs", "first ms p50", "first ms min", "RSS first MB", "RSS warm MB");
+        for (Mode mode : modes) {
+            long[] firstMillis = new long[runs];
+            long[] rssFirst = new long[runs];
+            long[] rssWarm = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Sample sample = measure(mode, client, bodies);
+                firstMillis[run] = sample.firstResponseMillis;
+                rssFirst[run] = sample.rssFirstKb;
+                rssWarm[run] = sample.rssWarmKb;
+            }
+            System.out.printf("%-8s %5d %14d %14d %16s %14s%n", mode.name, runs,
+                    median(firstMillis), Arrays.stream(firstMillis).min().orElse(0),
+                    megabytes(median(rssFirst)), megabytes(median(rssWarm)));
+        }
+    }
+
+    private static Sample measure(Mode mode, HttpClient client, List<String> bodies) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(mode.command);
+        command.add("--server.port=" + port);
+        URI target = URI.create("http://localhost:" + port + "/discount");
+
+        long started = System.nanoTime();
+        Process app = new ProcessBuilder(command)
+                .directory(mode.directory)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            Sample sample = new Sample();
+            awaitFirstResponse(client, target, bodies.get(0), app);
+            sample.firstResponseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            sample.rssFirstKb = rssKb(app.pid());
+            for (String body : bodies) {
+                client.send(post(target, body), HttpResponse.BodyHandlers.discarding());
+            }
+            sample.rssWarmKb = rssKb(app.pid());
+            return sample;
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+    }
+
+    private static void awaitFirstResponse(HttpClient client, URI target, String body, Process app) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + app.exitValue() + " during startup");
+            }
+            try {
+                if (client.send(post(target, body), HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notYet) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No /discount response within 2 minutes");
+    }
+
+    private static HttpRequest post(URI target, String body) {
+        return HttpRequest.newBuilder(target)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // Resident set size from /proc; -1 where there is none (macOS, Windows)
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> command(String executable, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(executable);
+        for (String arg : args) {
+            command.addAll(Arrays.asList(arg.split(" ")));
+        }
+        return command;
+    }
+
+    private static String javaExecutable() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String megabytes(long kb) {
+        return kb < 0 ? "n/a" : String.format("%.1f", kb / 1024.0);
+    }
+
+    private static final class Mode {
+        final String name;
+        final File directory;
+        final List<String> command;
+
+        Mode(String name, File directory, List<String> command) {
+            this.name = name;
+            this.directory = directory;
+            this.command = command;
+        }
+    }
+
+    private static final class Sample {
+        long firstResponseMillis;
+        long rssFirstKb;
+        long rssWarmKb;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Bounded cache of priced baskets in front of DiscountEngine.calculate.
+// Caffeine evicts with W-TinyLFU, which keeps the few hundred baskets that make
+// up most lane traffic resident. Keys include the engine's rule set, and the
+// cache is also cleared on every publish, so a rule change never serves stale prices.
+// A miss prices the caller's own basket; the key (see BasketFingerprint) holds
+// everything that response depends on, so a hit returns exactly what pricing
+// would have. Cached responses are shared between callers and must be treated as
+// read-only.
+public class BasketCache {
+    private final Cache<BasketFingerprint, DiscountResponse> cache;
+
+    public BasketCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    private BasketCache() {
+        this.cache = null;
+    }
+
+    // Pass-through used when caching is turned off
+    public static BasketCache disabled() {
+        return new BasketCache();
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public DiscountResponse price(DiscountEngine engine, DiscountRequest request) {
+        if (cache == null) {
+            return engine.calculate(request);
+        }
+        BasketFingerprint key = BasketFingerprint.of(engine, request);
+        return cache.get(key, k -> engine.calculate(request));
+    }
+
+    // Binary lanes: keyed like the equivalent request
+    public DiscountResponse price(DiscountEngine engine, Basket basket) {
+        if (cache == null) {
+            return engine.calculate(basket);
+        }
+        BasketFingerprint key = BasketFingerprint.of(engine, basket);
+        return cache.get(key, k -> engine.calculate(basket));
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import com.example.api.rules.DiscountRule;
+import com.example.api.rules.Money;
+import java.util.Arrays;
+import java.util.List;
+
+// Identity of a basket for result caching: the engine's rule set plus every
+// line's UPC, description, category, price (cents) and quantity, in scan order.
+// That is everything a response depends on. The rule set is the snapshot version
+// (publish and time slice) and the rules the engine runs within it, since every
+// tenant engine of a snapshot shares the version. Line order decides tie-breaks
+// and the order of affected items, so a reordered basket is a different key.
+// Descriptions are part of the key because keyword rules match on them.
+public final class BasketFingerprint {
+    private final long version;
+    private final List<DiscountRule> rules;
+    private final String[] upcs;
+    private final String[] descriptions;
+    private final String[] categories;
+    private final long[] priceCents;
+    private final int[] quantities;
+    private final int hash;
+
+    // Takes ownership of the column arrays
+    private BasketFingerprint(DiscountEngine engine, String[] upcs, String[] descriptions, String[] categories,
+                              long[] priceCents, int[] quantities) {
+        this.version = engine.getVersion();
+        this.rules = engine.getRules();
+        this.upcs = upcs;
+        this.descriptions = descriptions;
+        this.categories = categories;
+        this.priceCents = priceCents;
+        this.quantities = quantities;
+
+        int h = 31 * Long.hashCode(version) + engine.ruleSetHash();
+        h = 31 * h + Arrays.hashCode(upcs);
+        h = 31 * h + Arrays.hashCode(descriptions);
+        h = 31 * h + Arrays.hashCode(categories);
+        h = 31 * h + Arrays.hashCode(priceCents);
+        h = 31 * h + Arrays.hashCode(quantities);
+        this.hash = h;
+    }
+
+    public static BasketFingerprint of(DiscountEngine engine, DiscountRequest request) {
+        List<BasketItem> items = request.getItems();
+        int n = items.size();
+        String[] upcs = new String[n];
+        String[] descriptions = new String[n];
+        String[] categories = new String[n];
+        long[] priceCents = new long[n];
+        int[] quantities = new int[n];
+        for (int line = 0; line < n; line++) {
+            BasketItem item = items.get(line);
+            upcs[line] = item.getUpc();
+            descriptions[line] = item.getDescription();
+            categories[line] = item.getCategory();
+            priceCents[line] = Money.toCents(item.getPrice());
+            quantities[line] = item.getQuantity();
+        }
+        return new BasketFingerprint(engine, upcs, descriptions, categories, priceCents, quantities);
+    }
+
+    // Same key as the equivalent request, so binary and JSON lanes share cache entries
+    public static BasketFingerprint of(DiscountEngine engine, Basket basket) {
+        int n = basket.size();
+        String[] upcs = new String[n];
+        String[] descriptions = new String[n];
+        String[] categories = new String[n];
+        long[] priceCents = new long[n];
+        int[] quantities = new int[n];
+        for (int line = 0; line < n; line++) {
+            upcs[line] = basket.upc(line);
+            descriptions[line] = basket.description(line);
+            categories[line] = basket.category(line);
+            priceCents[line] = basket.priceCents(line);
+            quantities[line] = basket.quantity(line);
+        }
+        return new BasketFingerprint(engine, upcs, descriptions, categories, priceCents, quantities);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BasketFingerprint that)) return false;
+        return version == that.version
+                && hash == that.hash
+                // Rules compare by identity, and engines are shared per rule set,
+                // so this is usually the same list
+                && (rules == that.rules || rules.equals(that.rules))
+                && Arrays.equals(upcs, that.upcs)
+                && Arrays.equals(priceCents, that.priceCents)
+                && Arrays.equals(quantities, that.quantities)
+                && Arrays.equals(categories, that.categories)
+                && Arrays.equals(descriptions, that.descriptions);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Service
+public class BatchPricingService {
+    private final int poolSize;
+    private final ThreadPoolExecutor executor;
+
+    public BatchPricingService(@Value("${discount.batch.threads:0}") int threads,
+                               @Value("${discount.batch.queue-capacity:1024}") int queueCapacity) {
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "batch-pricing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // Bounded queue: when workers fall behind, the submitting thread prices
+        // the chunk itself instead of piling up more work
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    public int getParallelism() {
+        return poolSize;
+    }
+
+    // Prices every request against the same engine; responses keep request order
+    public List<DiscountResponse> priceAll(DiscountEngine engine, List<DiscountRequest> requests) {
+        return priceAll(engine::calculate, requests);
+    }
+
+    public List<DiscountResponse> priceAll(Function<DiscountRequest, DiscountResponse> pricer,
+                                           List<DiscountRequest> requests) {
+        int n = requests.size();
+        if (n == 0) {
+            return List.of();
+        }
+
+        DiscountResponse[] responses = new DiscountResponse[n];
+
+        // A few chunks per worker keeps cores busy when basket sizes vary,
+        // without paying task overhead for every single basket
+        int chunks = Math.min(n, poolSize * 4);
+        int chunkSize = (n + chunks - 1) / chunks;
+
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int start = 0; start < n; start += chunkSize) {
+            int from = start;
+            int to = Math.min(n, start + chunkSize);
+            futures.add(executor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    responses[i] = pricer.apply(requests.get(i));
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            await(future);
+        }
+
+        return Arrays.asList(responses);
+    }
+
+    // Prices the requests in order as a single task on the pool. Streaming keeps
+    // several of these in flight to overlap pricing with reading and writing.
+    public Future<List<DiscountResponse>> submit(Function<DiscountRequest, DiscountResponse> pricer,
+                                                 List<DiscountRequest> requests) {
+        return executor.submit(() -> {
+            List<DiscountResponse> responses = new ArrayList<>(requests.size());
+            for (DiscountRequest request : requests) {
+                responses.add(pricer.apply(request));
+            }
+            return responses;
+        });
+    }
+
+    // Waits for a pricing task, rethrowing its failure as-is when unchecked
+    static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch pricing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Batch pricing failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.api;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/cache")
+public class CacheAdminController {
+
+    private final BasketCache cache;
+
+    public CacheAdminController(BasketCache cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("enabled", cache.isEnabled());
+        response.put("size", cache.size());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        return response;
+    }
+
+    @DeleteMapping
+    public Map<String, Object> clear() {
+        cache.invalidateAll();
+        return stats();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.codec.BinaryCodec;
+import com.example.api.metrics.MicrometerPricingMetrics;
+import com.example.api.metrics.PricingMetrics;
+import com.example.api.metrics.PromotionsEndpoint;
+import com.example.api.promotions.PromotionLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+
+@Configuration
+@EnableScheduling
+public class DiscountConfig {
+
+    // First snapshot is compiled at startup from the rule store; later ones are
+    // published by the admin endpoint or the rule file watcher.
+    // Rule compilation and the catalog mapping are the slow parts of startup and
+    // need nothing from each other or the web server, so both are built in the
+    // background (on the application task executor, which Boot also registers as
+    // the bootstrap executor). The context still waits for them before it finishes
+    // refreshing, so the port never opens without rules.
+    @Bean(bootstrap = Bean.Bootstrap.BACKGROUND)
+    public RuleSnapshots ruleSnapshots(PromotionLoader loader, PricingMetrics metrics,
+                                       @Value("${discount.allocation.budget-nodes:10000}") long budgetNodes,
+                                       @Value("${discount.schedule.zone:}") String zone,
+                                       @Value("${discount.schedule.history-size:16}") int historySize) {
+        Clock clock = zone.isBlank() ? Clock.systemDefaultZone() : Clock.system(ZoneId.of(zone));
+        return new RuleSnapshots(loader.loadRules(), new AllocationSolver(budgetNodes), metrics, clock, historySize);
+    }
+
+    @Bean
+    public PricingMetrics pricingMetrics(MeterRegistry registry,
+                                         @Value("${discount.metrics.enabled:true}") boolean enabled) {
+        return enabled ? new MicrometerPricingMetrics(registry) : PricingMetrics.NONE;
+    }
+
+    @Bean
+    public PromotionsEndpoint promotionsEndpoint(MeterRegistry registry, RuleSnapshots snapshots) {
+        return new PromotionsEndpoint(registry, snapshots);
+    }
+
+    @Bean
+    public BasketCache basketCache(RuleSnapshots snapshots,
+                                   @Value("${discount.cache.enabled:false}") boolean enabled,
+                                   @Value("${discount.cache.maximum-size:10000}") long maximumSize) {
+        BasketCache cache = enabled ? new BasketCache(maximumSize) : BasketCache.disabled();
+        // Versioned keys already miss after a swap; clearing frees the old entries at once
+        snapshots.onPublish(engine -> cache.invalidateAll());
+        return cache;
+    }
+
+    // Without a catalog file, lane prices and categories are used as sent
+    @Bean(bootstrap = Bean.Bootstrap.BACKGROUND)
+    public ProductCatalog productCatalog(@Value("${discount.catalog.file:}") String file) throws IOException {
+        return file.isBlank() ? ProductCatalog.empty() : ProductCatalog.open(Path.of(file));
+    }
+
+    @Bean
+    public RequestNormalizer requestNormalizer(ProductCatalog catalog) {
+        return new RequestNormalizer(catalog);
+    }
+
+    @Bean
+    public BinaryCodec binaryCodec(ProductCatalog catalog) {
+        return new BinaryCodec(catalog);
+    }
+
+    @Bean
+    public PricingSessions pricingSessions(RuleSnapshots snapshots, RequestNormalizer normalizer,
+                                           @Value("${discount.sessions.maximum-lines:200000}") long maximumLines,
+                                           @Value("${discount.sessions.max-lines-per-session:500}") int maxLinesPerSession,
+                                           @Value("${discount.sessions.idle-timeout:30m}") Duration idleTimeout) {
+        return new PricingSessions(snapshots, normalizer, maximumLines, maxLinesPerSession, idleTimeout);
+    }
+}
@@ -1,33 +1,64 @@
 package com.example.api;
 
+import com.example.api.codec.BinaryCodec;
 import com.example.api.model.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
-import com.example.api.rules.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/discount")
 @CrossOrigin(origins = "*")
 public class DiscountController {
 
-    private final DiscountEngine engine;
+    private final PricingService pricing;
+    private final StreamingPricingService streaming;
+    private final BinaryCodec codec;
 
-    public DiscountController() {
-        this.engine = new DiscountEngine()
-                // Fountain drinks: Buy 2, Get 1 Free
-                // Polar Pop costs $0.89-$1.09, 90%+ profit margin
-                .addRule(new BuyXGetY(2, 1, "POLAR POP"))
-
-                // Hot food bundle discount: 20% off when buying $8+ of food
-                // Encourages hot dog + taquito combos
-                .addRule(new PercentOff(5, "FOOD"))
-
-                // Energy drinks: Classic BOGO (buy 1 get 1 free)
-                // Applies to Monster, Red Bull, Rockstar, etc.
-                .addRule(new BuyOneGetOne("BEVERAGE"));
+    // Promotions come from the live rule snapshot, which can be swapped at runtime
+    public DiscountController(PricingService pricing, StreamingPricingService streaming, BinaryCodec codec) {
+        this.pricing = pricing;
+        this.streaming = streaming;
+        this.codec = codec;
     }
 
     @PostMapping
     public DiscountResponse calculate(@RequestBody DiscountRequest request) {
-        return engine.calculate(request);
+        return pricing.price(request);
+    }
+
+    // Same pricing in the BinaryCodec layout, for lanes where JSON handling costs
+    // more than the pricing itself. A lane belongs to one store, so the tenant
+    // travels in headers rather than in every message.
+    @PostMapping(consumes = BinaryCodec.MEDIA_TYPE, produces = BinaryCodec.MEDIA_TYPE)
+    public byte[] calculateBinary(@RequestBody byte[] body,
+                                  @RequestHeader(value = "X-Store-Id", required = false) String storeId,
+                                  @RequestHeader(value = "X-Region", required = false) String region) {
+        DiscountResponse response;
+        try {
+            response = pricing.price(() -> codec.decodeBasket(body), storeId, region);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return codec.encodeResponse(response);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<DiscountResponse> calculateBatch(@RequestBody List<DiscountRequest> requests) {
+        return pricing.priceAll(requests);
+    }
+
+    // NDJSON in, NDJSON out: one basket per line, responses in the same order.
+    // Streamed both ways, so inputs of any size price in constant memory and
+    // responses start arriving (chunked) before the input has been fully read.
+    @PostMapping(value = { "/batch", "/stream" },
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody calculateStream(InputStream body) {
+        return out -> streaming.price(body, out);
     }
-}
\ No newline at end of file
+}
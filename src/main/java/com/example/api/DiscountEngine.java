@@ -1,83 +1,246 @@
 package com.example.api;
 
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.allocation.Offer;
+import com.example.api.allocation.OfferTable;
+import com.example.api.metrics.PricingMetrics;
 import com.example.api.model.*;
 import com.example.api.rules.*;
 import java.util.*;
 
 public class DiscountEngine {
-    private final List<DiscountRule> rules = new ArrayList<>();
+    private static final long TAX_RATE_BASIS_POINTS = 700; // 7% tax
 
+    // Immutable once built, so one engine can be shared by every request thread
+    private final List<DiscountRule> rules;
+    private final RuleIndex index;
+    private final long version;
+    private final AllocationSolver solver;
+    private final PricingMetrics metrics;
+    // One recorder per rule position, resolved here rather than per basket
+    private final PricingMetrics.RuleRecorder[] recorders;
+    // Unique per rule (see RuleIds), for metrics and reports
+    private final String[] ruleIds;
+    // Read for every applied discount; resolved once so rules with computed names
+    // or descriptions don't rebuild them per basket
+    private final String[] names;
+    private final String[] descriptions;
+    private final StackingPlan stacking;
+    // Engines of one published rule set share a version; the rules they run tell
+    // them apart (see BasketFingerprint)
+    private final int ruleSetHash;
+
+    public DiscountEngine() {
+        this(List.of());
+    }
+
+    public DiscountEngine(List<DiscountRule> rules) {
+        this(rules, 0);
+    }
+
+    // version identifies the rule snapshot and is echoed in every response
+    public DiscountEngine(List<DiscountRule> rules, long version) {
+        this(rules, version, new AllocationSolver());
+    }
+
+    public DiscountEngine(List<DiscountRule> rules, long version, AllocationSolver solver) {
+        this(rules, version, solver, PricingMetrics.NONE);
+    }
+
+    // Rules are kept in canonical order: by priority, highest first, and in the order
+    // given within a priority. Offers, tie-breaks and applied discounts all follow
+    // it, so the same rules and basket give the same response on any JVM.
+    public DiscountEngine(List<DiscountRule> rules, long version, AllocationSolver solver, PricingMetrics metrics) {
+        this(rules, RuleIds.of(rules), version, solver, metrics);
+    }
+
+    // ruleIds[i] identifies rules[i]; published engines get the ids the rules have
+    // in the whole published set, so every engine meters a rule under one id
+    public DiscountEngine(List<DiscountRule> rules, List<String> ruleIds, long version,
+                          AllocationSolver solver, PricingMetrics metrics) {
+        Integer[] order = new Integer[rules.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> rules.get(i).getPriority()).reversed());
+        this.rules = Arrays.stream(order).map(rules::get).toList();
+        this.ruleIds = Arrays.stream(order).map(ruleIds::get).toArray(String[]::new);
+        this.index = new RuleIndex(this.rules);
+        this.version = version;
+        this.solver = solver;
+        this.metrics = metrics;
+        this.recorders = new PricingMetrics.RuleRecorder[this.rules.size()];
+        this.names = new String[this.rules.size()];
+        this.descriptions = new String[this.rules.size()];
+        for (int id = 0; id < recorders.length; id++) {
+            names[id] = this.rules.get(id).getName();
+            descriptions[id] = this.rules.get(id).getDescription();
+            recorders[id] = metrics.rule(this.ruleIds[id], names[id]);
+        }
+        this.stacking = new StackingPlan(this.rules);
+        this.ruleSetHash = this.rules.hashCode();
+    }
+
+    // Returns a new engine with the rule appended; this engine is left untouched
     public DiscountEngine addRule(DiscountRule rule) {
-        rules.add(rule);
-        return this;
+        List<DiscountRule> next = new ArrayList<>(rules);
+        next.add(rule);
+        return new DiscountEngine(next, version, solver, metrics);
+    }
+
+    public List<DiscountRule> getRules() {
+        return rules;
+    }
+
+    // In the same order as getRules()
+    public List<String> getRuleIds() {
+        return List.of(ruleIds);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    int ruleSetHash() {
+        return ruleSetHash;
     }
 
     public DiscountResponse calculate(DiscountRequest request) {
+        return calculate(Basket.of(request.getItems()));
+    }
+
+    // All arithmetic is in cents; dollars only appear in the response
+    public DiscountResponse calculate(Basket basket) {
+        long started = System.nanoTime();
+        EvaluationContext context = EvaluationContext.acquire();
+        try {
+            evaluate(basket, context);
+            return price(basket, context, started);
+        } finally {
+            context.release();
+        }
+    }
+
+    // Rules don't compete for whole lines: each describes the ways it could apply
+    // (a pair of one line, one unit of another, ...) and the solver decides how
+    // many units go to which rule, so no unit is discounted twice and total
+    // savings are as large as possible.
+    // Buckets come back in rule order, so ties resolve the same way every time and
+    // each rule's offers sit together in the context. Callers that account for the
+    // solver's choice themselves (Simulation) read context.offers and counts.
+    void evaluate(Basket basket, EvaluationContext context) {
+        context.reset(basket);
+        index.bucket(basket, context.buckets);
+        RuleIndex.Buckets buckets = context.buckets;
+        for (int ruleId = buckets.next(0); ruleId >= 0; ruleId = buckets.next(ruleId + 1)) {
+            int offered = context.offers.size();
+            long ruleStarted = System.nanoTime();
+            context.rule = ruleId;
+            rules.get(ruleId).offers(basket, buckets.lines(ruleId), buckets.count(ruleId), context);
+            recorders[ruleId].evaluated(System.nanoTime() - ruleStarted, context.offers.size() > offered);
+        }
+        allocate(basket, context);
+    }
+
+    private void allocate(Basket basket, EvaluationContext context) {
+        if (stacking.isSinglePass()) {
+            solver.solve(context.capacity, context.lineCount(), context.offers, context.counts(), context.workspace);
+        } else {
+            stacking.allocate(solver, basket, context);
+        }
+    }
+
+    // The steps of calculate, for callers that keep each rule's lines and offers
+    // between calls and only re-evaluate rules a change can affect (PricingSession).
+    // Offers must be passed to price() in rule order.
+    SortedMap<Integer, int[]> bucket(Basket basket) {
+        return index.bucket(basket);
+    }
+
+    int[] rulesFor(Basket basket, int line) {
+        return index.rulesFor(basket, line);
+    }
+
+    boolean isLineLocal(int ruleId) {
+        return rules.get(ruleId).isLineLocal();
+    }
+
+    void collectOffers(int ruleId, Basket basket, int[] lines, int count, List<Offer> offers) {
+        int offered = offers.size();
+        long ruleStarted = System.nanoTime();
+        rules.get(ruleId).offers(basket, lines, count,
+                (offerLines, units, saving, max) -> offers.add(new Offer(ruleId, offerLines, units, saving, max)));
+        recorders[ruleId].evaluated(System.nanoTime() - ruleStarted, offers.size() > offered);
+    }
+
+    DiscountResponse price(Basket basket, List<Offer> offers, long started) {
+        EvaluationContext context = EvaluationContext.acquire();
+        try {
+            context.reset(basket);
+            for (Offer offer : offers) {
+                context.offers.add(offer.getRule(), offer.getLines(), offer.getUnits(),
+                        offer.getSaving(), offer.getMaxApplications());
+            }
+            allocate(basket, context);
+            return price(basket, context, started);
+        } finally {
+            context.release();
+        }
+    }
+
+    private DiscountResponse price(Basket basket, EvaluationContext context, long started) {
         // Calculate original subtotal (sum of all items at full price)
-        double originalSubtotal = request.getItems().stream()
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
-
-        // Track best discount per item (by UPC) for mutually exclusive rules
-        Map<String, RuleApplication> bestDiscountPerItem = new HashMap<>();
-
-        // Evaluate each rule
-        for (DiscountRule rule : rules) {
-            DiscountResult result = rule.apply(request.getItems());
-
-            if (result.getAmount() > 0 && !result.getAffectedItems().isEmpty()) {
-                // Store this rule application
-                RuleApplication ruleApp = new RuleApplication(
-                        rule.getName(),
-                        result.getDescription(),
-                        result.getAmount(),
-                        new ArrayList<>(result.getAffectedItems())
-                );
-
-                // For each affected item, check if this rule is better
-                for (String itemDesc : result.getAffectedItems()) {
-                    BasketItem item = request.getItems().stream()
-                            .filter(i -> i.getDescription().equals(itemDesc))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (item != null) {
-                        String key = item.getUpc();
-
-                        // Compare: keep the rule with highest discount
-                        if (!bestDiscountPerItem.containsKey(key) ||
-                                ruleApp.totalAmount > bestDiscountPerItem.get(key).totalAmount) {
-                            bestDiscountPerItem.put(key, ruleApp);
-                        }
+        long originalSubtotal = basket.subtotalCents();
+
+        List<AppliedDiscount> applied = new ArrayList<>();
+        long totalDiscount = 0;
+
+        // Add the chosen applications up by rule, in rule order; each rule's
+        // offers are contiguous
+        OfferTable offers = context.offers;
+        int[] applications = context.counts;
+        BitSet lines = context.marked;
+        for (int k = 0; k < offers.size(); ) {
+            int ruleId = offers.rule(k);
+            long subCents = 0;
+            lines.clear();
+            for (; k < offers.size() && offers.rule(k) == ruleId; k++) {
+                if (applications[k] == 0) {
+                    continue;
+                }
+                subCents += applications[k] * offers.saving(k);
+                for (int e = offers.start(k); e < offers.end(k); e++) {
+                    if (offers.units(e) > 0) {
+                        lines.set(offers.line(e));
                     }
                 }
             }
-        }
-
-        // Collect unique winning rules
-        Map<String, AppliedDiscount> winningRules = new HashMap<>();
-        double totalDiscount = 0.0;
 
-        for (RuleApplication ruleApp : new HashSet<>(bestDiscountPerItem.values())) {
-            winningRules.put(ruleApp.ruleName, new AppliedDiscount(
-                    ruleApp.ruleName,
-                    ruleApp.description,
-                    ruleApp.totalAmount,
-                    ruleApp.affectedItems
+            // Each rule rounds once on its own total, as before
+            long cents = Money.fromSubCents(subCents);
+            if (cents <= 0) {
+                continue;
+            }
+            applied.add(new AppliedDiscount(
+                    names[ruleId],
+                    descriptions[ruleId],
+                    Money.toDollars(cents),
+                    describe(basket, lines)
             ));
-            totalDiscount += ruleApp.totalAmount;
+            totalDiscount += cents;
+            recorders[ruleId].applied(cents);
         }
 
-        List<AppliedDiscount> applied = new ArrayList<>(winningRules.values());
-
         // Calculate amount after discount (for tax calculation)
-        double amountAfterDiscount = originalSubtotal - totalDiscount;
+        long amountAfterDiscount = originalSubtotal - totalDiscount;
 
         // Tax is calculated on the discounted amount
-        double tax = amountAfterDiscount * 0.07; // 7% tax
+        long tax = Money.percentOf(amountAfterDiscount, TAX_RATE_BASIS_POINTS);
 
         // Final total = discounted amount + tax
-        double total = amountAfterDiscount + tax;
+        long total = amountAfterDiscount + tax;
+
+        metrics.basketPriced(basket.size(), System.nanoTime() - started);
 
         // RETURN ORIGINAL SUBTOTAL (before discount)
         // This follows retail best practice:
@@ -87,39 +250,20 @@ public class DiscountEngine {
         //   TAX (7%): $0.80  (on $11.42)
         //      TOTAL: $12.22
         return new DiscountResponse(
-                originalSubtotal,
-                tax,                   // Tax calculated on discounted amount
-                total,                 // Final total (discounted + tax)
-                totalDiscount,         // Total discount amount
-                applied                // List of applied discounts
+                Money.toDollars(originalSubtotal),
+                Money.toDollars(tax),            // Tax calculated on discounted amount
+                Money.toDollars(total),          // Final total (discounted + tax)
+                Money.toDollars(totalDiscount),  // Total discount amount
+                applied,                         // List of applied discounts
+                version                          // Rule snapshot used for pricing
         );
     }
 
-    // Helper class to track rule applications
-    private static class RuleApplication {
-        String ruleName;
-        String description;
-        double totalAmount;
-        List<String> affectedItems;
-
-        RuleApplication(String ruleName, String description, double totalAmount, List<String> affectedItems) {
-            this.ruleName = ruleName;
-            this.description = description;
-            this.totalAmount = totalAmount;
-            this.affectedItems = affectedItems;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            RuleApplication that = (RuleApplication) o;
-            return Objects.equals(ruleName, that.ruleName);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(ruleName);
+    private static List<String> describe(Basket basket, BitSet lines) {
+        List<String> descriptions = new ArrayList<>(lines.cardinality());
+        for (int line = lines.nextSetBit(0); line >= 0; line = lines.nextSetBit(line + 1)) {
+            descriptions.add(basket.description(line));
         }
+        return descriptions;
     }
-}
\ No newline at end of file
+}
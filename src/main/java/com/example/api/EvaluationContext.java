@@ -0,0 +1,125 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.allocation.OfferTable;
+import com.example.api.rules.Basket;
+import com.example.api.rules.BundlePlan;
+import com.example.api.rules.OfferSink;
+import com.example.api.rules.RuleIndex;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Scratch for pricing one basket: rule buckets, the offers rules write, the
+// solver's workspace and the arrays the engine totals into. Everything grows to
+// the largest basket seen and is then reused, so steady-state pricing allocates
+// only the response. That holds for rules that write their offers straight into
+// the context, as every built-in one does (see DiscountRule.offers).
+// Rules get the bucket's lines array with its count, not a copy of the lines.
+// Contexts are pooled in a small striped array rather than a ThreadLocal, so
+// request threads (virtual ones included) share a handful of them. A context is
+// used by the thread that acquired it until it is released.
+final class EvaluationContext implements OfferSink {
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+    // A context that has priced a huge basket goes back to the garbage collector
+    private static final int MAX_POOLED_LINES = 4096;
+    private static final AtomicReferenceArray<EvaluationContext> POOL = new AtomicReferenceArray<>(STRIPES);
+
+    final RuleIndex.Buckets buckets = new RuleIndex.Buckets();
+    final OfferTable offers = new OfferTable();
+    final AllocationSolver.Workspace workspace = new AllocationSolver.Workspace();
+    // Lines one rule discounted, for its AppliedDiscount
+    final BitSet marked = new BitSet();
+    int[] capacity = new int[16];
+    int[] counts = new int[16];
+    // For engines with stacking groups: sub-cents of discount per line so far, and
+    // the offers of the pass being solved
+    long[] lineDiscounts = new long[16];
+    final StackingPlan.Pass pass = new StackingPlan.Pass();
+    private final BundlePlan.Scratch bundleScratch = new BundlePlan.Scratch();
+    // Rule the offers are being collected for
+    int rule;
+
+    private int lineCount;
+
+    static EvaluationContext acquire() {
+        int stripe = stripe();
+        for (int probe = 0; probe < 2; probe++) {
+            EvaluationContext context = POOL.getAndSet((stripe + probe) & (STRIPES - 1), null);
+            if (context != null) {
+                return context;
+            }
+        }
+        return new EvaluationContext();
+    }
+
+    // The context must not be used after this
+    void release() {
+        if (lineCount > MAX_POOLED_LINES) {
+            return;
+        }
+        int stripe = stripe();
+        for (int probe = 0; probe < 2; probe++) {
+            if (POOL.compareAndSet((stripe + probe) & (STRIPES - 1), null, this)) {
+                return;
+            }
+        }
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 32)) * 0x9E3779B9 >>> 16 & (STRIPES - 1);
+    }
+
+    // Clears the offers and sizes the line arrays for the basket
+    void reset(Basket basket) {
+        lineCount = basket.size();
+        offers.clear();
+        if (capacity.length < lineCount) {
+            capacity = new int[Math.max(lineCount, capacity.length * 2)];
+        }
+        for (int line = 0; line < lineCount; line++) {
+            capacity[line] = basket.quantity(line);
+        }
+    }
+
+    // Called once the offers are in, before the solver fills counts
+    int[] counts() {
+        if (counts.length < offers.size()) {
+            counts = new int[Math.max(offers.size(), counts.length * 2)];
+        }
+        return counts;
+    }
+
+    void clearLineDiscounts() {
+        if (lineDiscounts.length < lineCount) {
+            lineDiscounts = new long[Math.max(lineCount, lineDiscounts.length * 2)];
+        }
+        Arrays.fill(lineDiscounts, 0, lineCount, 0);
+    }
+
+    int lineCount() {
+        return lineCount;
+    }
+
+    @Override
+    public void offer(int[] lines, int[] units, long saving, int maxApplications) {
+        offers.add(rule, lines, units, saving, maxApplications);
+    }
+
+    @Override
+    public void offer(int line, int units, long saving, int maxApplications) {
+        offers.add(rule, line, units, saving, maxApplications);
+    }
+
+    @Override
+    public void offer(int[] lines, int[] units, int from, int to, long saving, int maxApplications) {
+        offers.add(rule, lines, units, from, to, saving, maxApplications);
+    }
+
+    @Override
+    public BundlePlan.Scratch bundleScratch() {
+        return bundleScratch;
+    }
+}
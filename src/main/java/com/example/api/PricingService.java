@@ -0,0 +1,49 @@
+package com.example.api;
+
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Single entry point for pricing: catalog normalization, live rule snapshot,
+// then the result cache, then the engine
+@Service
+public class PricingService {
+    private final RuleSnapshots snapshots;
+    private final BasketCache cache;
+    private final BatchPricingService batchPricing;
+    private final RequestNormalizer normalizer;
+
+    public PricingService(RuleSnapshots snapshots, BasketCache cache, BatchPricingService batchPricing,
+                          RequestNormalizer normalizer) {
+        this.snapshots = snapshots;
+        this.cache = cache;
+        this.batchPricing = batchPricing;
+        this.normalizer = normalizer;
+    }
+
+    // Normalized before the cache, so the same basket keys the same entry
+    // whatever stale price a lane sent
+    public DiscountResponse price(DiscountRequest request) {
+        DiscountEngine engine = snapshots.forRequest(snapshots.published(), request);
+        return cache.price(engine, normalizer.normalize(request));
+    }
+
+    // Binary lanes decode straight into a basket, already normalized against the catalog.
+    // It is decoded only once the engine is resolved, so every category the
+    // engine's rules name is registered by then (baskets only look them up).
+    public DiscountResponse price(Supplier<Basket> decoder, String storeId, String region) {
+        DiscountEngine engine = snapshots.current(storeId, region);
+        return cache.price(engine, decoder.get());
+    }
+
+    // The whole batch is priced against one published rule set; each request
+    // still gets its own tenant's (or as-of) engine from it
+    public List<DiscountResponse> priceAll(List<DiscountRequest> requests) {
+        PublishedRules published = snapshots.published();
+        return batchPricing.priceAll(request -> cache.price(
+                snapshots.forRequest(published, request), normalizer.normalize(request)), requests);
+    }
+}
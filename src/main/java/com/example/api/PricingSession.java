@@ -0,0 +1,325 @@
+package com.example.api;
+
+import com.example.api.allocation.Offer;
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import java.util.*;
+
+// One open lane basket, priced after every change. The basket is edited in place
+// and lines are found by UPC through a map. Each rule's lines and the offers it
+// made for them are kept between scans, so a scan only re-evaluates the rules
+// that can see the scanned line; every other rule's offers are reused. For
+// line-local rules (see DiscountRule.isLineLocal) offers are kept per line, and
+// only the scanned line's are redone, however many lines the rule sees.
+// Voiding a whole line drops its offers and renumbers the later lines in
+// everyone else's state and offers; rules that are not line-local and saw it are
+// re-evaluated. The offers of all rules are kept merged in rule order and
+// patched per rule. Allocation and totals are still redone over all of them: the
+// solver's search budget is shared across the basket, so reusing part of an
+// earlier allocation could pick differently than /discount. That pass is cheap
+// next to rule evaluation. Totals always equal what /discount returns for the
+// same items.
+// Methods are synchronized: a lane may retry a scan while the first is in flight.
+public class PricingSession {
+    private final String id;
+    // Tenant the lane belongs to; null for chain-wide pricing
+    private final String storeId;
+    private final String region;
+    private final int maxLines;
+    private final List<BasketItem> items = new ArrayList<>();
+    // Line of each UPC in the basket
+    private final Map<String, Integer> lineByUpc = new HashMap<>();
+    // Rule state is valid for this snapshot only; a newer snapshot rebuilds it
+    private DiscountEngine engine;
+    private final Basket basket = Basket.of(List.of());
+    private final SortedMap<Integer, RuleState> rules = new TreeMap<>();
+    // Every rule's offers, in rule order
+    private final List<Offer> offers = new ArrayList<>();
+    // Scratch for one line's offers
+    private final List<Offer> lineOffers = new ArrayList<>(2);
+    private final int[] oneLine = new int[1];
+    private DiscountResponse totals;
+
+    PricingSession(String id, String storeId, String region, DiscountEngine engine, int maxLines) {
+        this.id = id;
+        this.storeId = storeId;
+        this.region = region;
+        this.maxLines = maxLines;
+        this.engine = engine;
+        this.totals = engine.calculate(basket);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    public synchronized List<BasketItem> getItems() {
+        return List.copyOf(items);
+    }
+
+    // Scanning a UPC already in the basket adds to that line, as a lane does;
+    // rules treat one line of 2 differently from two lines of 1 (BOGO pairs per line)
+    public synchronized DiscountResponse add(DiscountEngine current, BasketItem item) {
+        if (item.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + item.getQuantity());
+        }
+        Integer existingLine = lineByUpc.get(item.getUpc());
+        boolean appended = existingLine == null;
+        int line;
+        if (appended) {
+            if (items.size() >= maxLines) {
+                throw new IllegalStateException("Session " + id + " already has " + maxLines + " lines");
+            }
+            line = items.size();
+            items.add(item);
+            lineByUpc.put(item.getUpc(), line);
+            basket.append(item);
+        } else {
+            line = existingLine;
+            BasketItem existing = items.get(line);
+            int quantity = existing.getQuantity() + item.getQuantity();
+            items.set(line, new BasketItem(existing.getUpc(), existing.getDescription(), existing.getPrice(),
+                    quantity, existing.getCategory()));
+            basket.setQuantity(line, quantity);
+        }
+
+        if (current != engine) {
+            rebuild(current);
+        } else {
+            update(line, appended);
+        }
+        return totals;
+    }
+
+    // Removing the last unit drops the line and later lines shift down by one
+    public synchronized DiscountResponse remove(DiscountEngine current, String upc, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        Integer found = lineByUpc.get(upc);
+        if (found == null) {
+            throw new NoSuchElementException("UPC " + upc + " is not in session " + id);
+        }
+        int line = found;
+        BasketItem existing = items.get(line);
+        int left = existing.getQuantity() - quantity;
+        if (left > 0) {
+            items.set(line, new BasketItem(existing.getUpc(), existing.getDescription(), existing.getPrice(),
+                    left, existing.getCategory()));
+            basket.setQuantity(line, left);
+        } else {
+            items.remove(line);
+            basket.remove(line);
+            lineByUpc.remove(upc);
+            for (int later = line; later < items.size(); later++) {
+                lineByUpc.put(items.get(later).getUpc(), later);
+            }
+        }
+
+        if (current != engine) {
+            rebuild(current);
+        } else if (left <= 0) {
+            drop(line);
+        } else {
+            update(line, false);
+        }
+        return totals;
+    }
+
+    public synchronized DiscountResponse totals(DiscountEngine current) {
+        if (current != engine) {
+            rebuild(current);
+        }
+        return totals;
+    }
+
+    // Only rules that can see the changed line are re-evaluated; line-local ones
+    // only for that line
+    private void update(int line, boolean appended) {
+        long started = System.nanoTime();
+        for (int ruleId : engine.rulesFor(basket, line)) {
+            RuleState state = rules.computeIfAbsent(ruleId, k -> new RuleState());
+            int start = offset(ruleId);
+            if (appended) {
+                state.add(line);
+            }
+            if (engine.isLineLocal(ruleId)) {
+                int position = appended ? state.count - 1 : state.indexOf(line);
+                int from = state.offersBefore(position);
+                int stale = state.lineOffers[position];
+                oneLine[0] = line;
+                lineOffers.clear();
+                engine.collectOffers(ruleId, basket, oneLine, 1, lineOffers);
+                replace(state.offers, from, stale, lineOffers);
+                replace(offers, start + from, stale, lineOffers);
+                state.lineOffers[position] = lineOffers.size();
+            } else {
+                offers.subList(start, start + state.offers.size()).clear();
+                state.offers.clear();
+                engine.collectOffers(ruleId, basket, state.lines, state.count, state.offers);
+                offers.addAll(start, state.offers);
+            }
+        }
+        price(started);
+    }
+
+    // Rules that saw the dropped line lose its offers (line-local ones) or are
+    // re-evaluated; every kept offer is renumbered past it
+    private void drop(int line) {
+        long started = System.nanoTime();
+        offers.clear();
+        Iterator<Map.Entry<Integer, RuleState>> it = rules.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, RuleState> rule = it.next();
+            RuleState state = rule.getValue();
+            int position = state.indexOf(line);
+            if (position >= 0) {
+                int from = state.offersBefore(position);
+                state.offers.subList(from, from + state.lineOffers[position]).clear();
+                state.removeAt(position);
+            }
+            if (state.count == 0) {
+                it.remove();
+                continue;
+            }
+            state.renumber(line);
+            if (position >= 0 && !engine.isLineLocal(rule.getKey())) {
+                state.offers.clear();
+                engine.collectOffers(rule.getKey(), basket, state.lines, state.count, state.offers);
+            } else {
+                state.shiftOffers(line);
+            }
+            offers.addAll(state.offers);
+        }
+        price(started);
+    }
+
+    private void rebuild(DiscountEngine current) {
+        long started = System.nanoTime();
+        engine = current;
+        rules.clear();
+        offers.clear();
+        for (Map.Entry<Integer, int[]> bucket : engine.bucket(basket).entrySet()) {
+            RuleState state = new RuleState();
+            for (int line : bucket.getValue()) {
+                state.add(line);
+            }
+            engine.collectOffers(bucket.getKey(), basket, bucket.getValue(), bucket.getValue().length, state.offers);
+            if (engine.isLineLocal(bucket.getKey())) {
+                state.countLineOffers();
+            }
+            rules.put(bucket.getKey(), state);
+            offers.addAll(state.offers);
+        }
+        price(started);
+    }
+
+    // Where the rule's offers start in the merged list
+    private int offset(int ruleId) {
+        int start = 0;
+        for (RuleState state : rules.headMap(ruleId).values()) {
+            start += state.offers.size();
+        }
+        return start;
+    }
+
+    // Swaps `stale` offers at `from` for the fresh ones
+    private static void replace(List<Offer> offers, int from, int stale, List<Offer> fresh) {
+        if (stale > 0) {
+            offers.subList(from, from + stale).clear();
+        }
+        offers.addAll(from, fresh);
+    }
+
+    private void price(long started) {
+        totals = engine.price(basket, offers, started);
+    }
+
+    // Lines one rule can see, in basket order, and its offers over them. For a
+    // line-local rule, lineOffers[i] is how many of the offers lines[i] made; its
+    // offers are in line order, like the lines.
+    private static final class RuleState {
+        int[] lines = new int[2];
+        int[] lineOffers = new int[2];
+        int count;
+        final List<Offer> offers = new ArrayList<>(2);
+
+        void add(int line) {
+            if (count == lines.length) {
+                lines = Arrays.copyOf(lines, count * 2);
+                lineOffers = Arrays.copyOf(lineOffers, count * 2);
+            }
+            lineOffers[count] = 0;
+            lines[count++] = line;
+        }
+
+        int indexOf(int line) {
+            int position = Arrays.binarySearch(lines, 0, count, line);
+            return position >= 0 ? position : -1;
+        }
+
+        int offersBefore(int position) {
+            int before = 0;
+            for (int i = 0; i < position; i++) {
+                before += lineOffers[i];
+            }
+            return before;
+        }
+
+        void removeAt(int position) {
+            System.arraycopy(lines, position + 1, lines, position, count - position - 1);
+            System.arraycopy(lineOffers, position + 1, lineOffers, position, count - position - 1);
+            count--;
+        }
+
+        // Lines after a dropped one move up one
+        void renumber(int dropped) {
+            for (int i = 0; i < count; i++) {
+                if (lines[i] > dropped) {
+                    lines[i]--;
+                }
+            }
+        }
+
+        // After a whole-rule evaluation: each line-local offer belongs to its one line
+        void countLineOffers() {
+            Arrays.fill(lineOffers, 0, count, 0);
+            for (Offer offer : offers) {
+                lineOffers[indexOf(offer.getLines()[0])]++;
+            }
+        }
+
+        // Renumbers offers that are not on the dropped line
+        void shiftOffers(int dropped) {
+            for (int k = 0; k < offers.size(); k++) {
+                Offer offer = offers.get(k);
+                int[] shifted = null;
+                int[] offerLines = offer.getLines();
+                for (int i = 0; i < offerLines.length; i++) {
+                    if (offerLines[i] > dropped) {
+                        if (shifted == null) {
+                            shifted = offerLines.clone();
+                        }
+                        shifted[i]--;
+                    }
+                }
+                if (shifted != null) {
+                    offers.set(k, new Offer(offer.getRule(), shifted, offer.getUnits(), offer.getSaving(),
+                            offer.getMaxApplications()));
+                }
+            }
+        }
+    }
+}
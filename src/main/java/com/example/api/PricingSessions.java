@@ -0,0 +1,85 @@
+package com.example.api;
+
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.model.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+// Open lane sessions. Capacity is counted in basket lines across all sessions,
+// not in sessions, so memory stays bounded however big individual baskets get;
+// the least valuable sessions are evicted first (W-TinyLFU) and idle ones expire.
+// A session that is gone answers as unknown and the lane starts over with /discount.
+public class PricingSessions {
+    private final RuleSnapshots snapshots;
+    private final RequestNormalizer normalizer;
+    private final int maxLinesPerSession;
+    private final Cache<String, PricingSession> sessions;
+
+    public PricingSessions(RuleSnapshots snapshots, RequestNormalizer normalizer,
+                           long maximumLines, int maxLinesPerSession, Duration idleTimeout) {
+        this.snapshots = snapshots;
+        this.normalizer = normalizer;
+        this.maxLinesPerSession = maxLinesPerSession;
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(maximumLines)
+                .weigher((String id, PricingSession session) -> 1 + session.size())
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    public PricingSession open(String storeId, String region) {
+        PricingSession session = new PricingSession(UUID.randomUUID().toString(), storeId, region,
+                snapshots.current(storeId, region), maxLinesPerSession);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    public PricingSession get(String id) {
+        PricingSession session = sessions.getIfPresent(id);
+        if (session == null) {
+            throw new NoSuchElementException("Unknown or expired session " + id);
+        }
+        return session;
+    }
+
+    // Every change is priced against the live snapshot for the session's tenant, like /discount
+    public DiscountResponse add(String id, BasketItem item) {
+        PricingSession session = get(id);
+        DiscountResponse totals = session.add(engine(session), normalizer.normalize(item));
+        reweigh(session);
+        return totals;
+    }
+
+    public DiscountResponse remove(String id, String upc, int quantity) {
+        PricingSession session = get(id);
+        DiscountResponse totals = session.remove(engine(session), upc, quantity);
+        reweigh(session);
+        return totals;
+    }
+
+    public DiscountResponse totals(String id) {
+        PricingSession session = get(id);
+        return session.totals(engine(session));
+    }
+
+    public void close(String id) {
+        sessions.invalidate(id);
+    }
+
+    public long size() {
+        return sessions.estimatedSize();
+    }
+
+    private DiscountEngine engine(PricingSession session) {
+        return snapshots.current(session.getStoreId(), session.getRegion());
+    }
+
+    // Weights are taken on write; replacing the entry with itself re-weighs it
+    // (and never resurrects a session evicted meanwhile)
+    private void reweigh(PricingSession session) {
+        sessions.asMap().replace(session.getId(), session);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.model.DiscountRequest;
+import com.example.api.model.SimulationReport;
+import com.example.api.promotions.RuleDefinition;
+import com.example.api.promotions.RuleFactory;
+import com.example.api.rules.Basket;
+import com.example.api.rules.DiscountRule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+// What-if pricing for merchandising: a candidate rule set against the live one
+// over an NDJSON corpus of historical baskets (the /discount/stream format).
+// Candidate rules use the rule file format. Both sides are built the same way:
+// every enabled rule, deduplicated as a publish does, simulated chain-wide and
+// always on, with store scopes and time windows not applied. A candidate that
+// copies the live rule file and adds one promo therefore differs by that promo only.
+@Service
+public class PromotionSimulator {
+    private static final TypeReference<List<RuleDefinition>> DEFINITIONS = new TypeReference<>() {};
+
+    private final RuleSnapshots snapshots;
+    private final ObjectMapper objectMapper;
+    private final RequestNormalizer normalizer;
+    private final long budgetNodes;
+    private final int threads;
+
+    public PromotionSimulator(RuleSnapshots snapshots, ObjectMapper objectMapper, RequestNormalizer normalizer,
+                              @Value("${discount.allocation.budget-nodes:10000}") long budgetNodes,
+                              @Value("${discount.simulation.threads:0}") int threads) {
+        this.snapshots = snapshots;
+        this.objectMapper = objectMapper;
+        this.normalizer = normalizer;
+        this.budgetNodes = budgetNodes;
+        this.threads = threads;
+    }
+
+    // Against every rule published now, whatever the time slice or tenant
+    public SimulationReport simulate(List<DiscountRule> candidate, InputStream baskets) {
+        return simulate(snapshots.loaded().getRules(), candidate, baskets);
+    }
+
+    // Reads the corpus to the end; the stream is not closed
+    public SimulationReport simulate(List<DiscountRule> baseline, List<DiscountRule> candidate, InputStream baskets) {
+        ObjectReader reader = objectMapper.readerFor(DiscountRequest.class);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(baskets, StandardCharsets.UTF_8), 64 * 1024);
+        Iterator<String> records = lines.lines().filter(line -> !line.isBlank()).iterator();
+        // Lines are parsed on the workers; only splitting the input is sequential
+        return new Simulation(baseline, candidate, new AllocationSolver(budgetNodes), threads)
+                .run(records, line -> Basket.of(normalizer.normalize(reader.<DiscountRequest>readValue(line)).getItems()));
+    }
+
+    // A rule file (JSON array of rule definitions), loaded as a publish loads it;
+    // disabled definitions are skipped
+    public List<DiscountRule> rules(InputStream definitions) {
+        List<RuleDefinition> parsed = objectMapper.readValue(definitions, DEFINITIONS);
+        return RuleFactory.createScoped(parsed.stream().filter(RuleDefinition::isEnabled).toList()).getRules();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.api;
+
+import com.example.api.rules.*;
+import java.util.*;
+import java.util.function.BiFunction;
+
+// One published rule set: the chain-wide engine, plus an engine per distinct
+// tenant rule set. Every engine is compiled up front, on the thread that
+// publishes or swaps time slices, for each store, region and store-region pair
+// the rules name; a request only reads two plain maps, store then region, and
+// never compiles or waits on a lock.
+// Engines are shared by content: two tenants that end up with the same rules
+// (the same positions in this set, which RuleFactory already deduplicates by
+// definition content) share one engine, so engines grow with the number of
+// distinct promo combinations rather than with store count. Store and region ids
+// that no rule mentions resolve as if absent, so the maps hold only known ids.
+public final class PublishedRules {
+    private final List<DiscountRule> rules;
+    private final List<RuleScope> scopes;
+    private final List<String> ruleIds;
+    private final DiscountEngine chainWide;
+    private final BitSet chainWideRules;
+    private final BiFunction<List<DiscountRule>, List<String>, DiscountEngine> compiler;
+    // Store, then region; "" stands for an absent or unknown id. Filled in the
+    // constructor and only read afterwards.
+    private final Map<String, Map<String, DiscountEngine>> byTenant = new HashMap<>();
+    private final Map<BitSet, DiscountEngine> byRuleSet = new HashMap<>();
+
+    // compiler builds an engine from rules and their ids
+    PublishedRules(ScopedRules scoped, BiFunction<List<DiscountRule>, List<String>, DiscountEngine> compiler) {
+        this.rules = scoped.getRules();
+        this.scopes = scoped.getScopes();
+        this.ruleIds = scoped.getIds();
+        this.compiler = compiler;
+        this.chainWideRules = new BitSet(rules.size());
+        Map<String, BitSet> storeRules = new HashMap<>();
+        Map<String, BitSet> regionRules = new HashMap<>();
+        storeRules.put("", new BitSet());
+        regionRules.put("", new BitSet());
+        for (int i = 0; i < rules.size(); i++) {
+            RuleScope scope = scopes.get(i);
+            if (scope.isChainWide()) {
+                chainWideRules.set(i);
+            }
+            for (String store : scope.getStores()) {
+                storeRules.computeIfAbsent(store, k -> new BitSet()).set(i);
+            }
+            for (String region : scope.getRegions()) {
+                regionRules.computeIfAbsent(region, k -> new BitSet()).set(i);
+            }
+        }
+        this.chainWide = compile(chainWideRules);
+        byRuleSet.put(chainWideRules, chainWide);
+
+        // A tenant sees the chain-wide rules plus its store's and its region's
+        for (Map.Entry<String, BitSet> store : storeRules.entrySet()) {
+            Map<String, DiscountEngine> byRegion = new HashMap<>();
+            for (Map.Entry<String, BitSet> region : regionRules.entrySet()) {
+                BitSet applying = (BitSet) chainWideRules.clone();
+                applying.or(store.getValue());
+                applying.or(region.getValue());
+                byRegion.put(region.getKey(), byRuleSet.computeIfAbsent(applying, this::compile));
+            }
+            byTenant.put(store.getKey(), byRegion);
+        }
+    }
+
+    // Engine for requests that carry no tenant, and for every tenant when no rule is scoped
+    public DiscountEngine chainWide() {
+        return chainWide;
+    }
+
+    public DiscountEngine forTenant(String store, String region) {
+        Map<String, DiscountEngine> byRegion = store != null ? byTenant.get(store) : null;
+        if (byRegion == null) {
+            byRegion = byTenant.get("");
+        }
+        DiscountEngine engine = region != null ? byRegion.get(region) : null;
+        return engine != null ? engine : byRegion.get("");
+    }
+
+    public List<DiscountRule> getRules() { return rules; }
+    public List<RuleScope> getScopes() { return scopes; }
+    public List<String> getRuleIds() { return ruleIds; }
+
+    // Distinct engines, the chain-wide one included
+    public int engineCount() {
+        return byRuleSet.size();
+    }
+
+    // Keeps rule order, so priorities and tie-breaking match the full set
+    private DiscountEngine compile(BitSet positions) {
+        List<DiscountRule> selected = new ArrayList<>(positions.cardinality());
+        List<String> ids = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            selected.add(rules.get(i));
+            ids.add(ruleIds.get(i));
+        }
+        return compiler.apply(selected, ids);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.api;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Replays a transaction log through the pricing rules without starting the web server.
+//   java -cp discount-service.jar -Dloader.main=com.example.api.ReplayCli \
+//        org.springframework.boot.loader.launch.PropertiesLauncher baskets.ndjson priced.ndjson
+// or ./gradlew replay -PreplayArgs="baskets.ndjson priced.ndjson".
+// Either path may be "-" for stdin/stdout; the output defaults to stdout.
+public class ReplayCli {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: ReplayCli <input.ndjson|-> [output.ndjson|-]");
+            System.exit(2);
+        }
+        String input = args[0];
+        String output = args.length > 1 ? args[1] : "-";
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("spring.main.banner-mode=off");
+        if (output.equals("-")) {
+            // Console logging shares stdout with the priced baskets
+            builder.properties("logging.threshold.console=OFF");
+        }
+
+        long started = System.nanoTime();
+        long priced;
+        try (ConfigurableApplicationContext context = builder.run();
+             InputStream in = input.equals("-") ? System.in : Files.newInputStream(Path.of(input));
+             OutputStream out = output.equals("-") ? System.out : Files.newOutputStream(Path.of(output))) {
+            priced = context.getBean(StreamingPricingService.class).price(in, out);
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.err.printf("Priced %d baskets in %.1fs (%.0f/s)%n", priced, seconds, priced / seconds);
+    }
+}
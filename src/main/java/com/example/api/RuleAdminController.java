@@ -0,0 +1,50 @@
+package com.example.api;
+
+import com.example.api.promotions.PromotionLoader;
+import com.example.api.rules.DiscountRule;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/rules")
+public class RuleAdminController {
+
+    private final RuleSnapshots snapshots;
+    private final PromotionLoader loader;
+
+    public RuleAdminController(RuleSnapshots snapshots, PromotionLoader loader) {
+        this.snapshots = snapshots;
+        this.loader = loader;
+    }
+
+    @GetMapping
+    public Map<String, Object> current() {
+        return describe(snapshots.published());
+    }
+
+    // Re-reads the rule store and publishes a new snapshot; in-flight requests are not paused
+    @PostMapping("/reload")
+    public Map<String, Object> reload() {
+        snapshots.publish(loader.loadRules());
+        return describe(snapshots.published());
+    }
+
+    // Version and rules of the chain-wide engine, then the store/region scoped rules
+    private static Map<String, Object> describe(PublishedRules published) {
+        DiscountEngine engine = published.chainWide();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("version", engine.getVersion());
+        response.put("rules", engine.getRules().stream().map(DiscountRule::getName).toList());
+        Map<String, Object> scoped = new LinkedHashMap<>();
+        for (int i = 0; i < published.getRules().size(); i++) {
+            if (!published.getScopes().get(i).isChainWide()) {
+                scoped.put(published.getRules().get(i).getName(), published.getScopes().get(i).toString());
+            }
+        }
+        response.put("scopedRules", scoped);
+        response.put("tenantEngines", published.engineCount());
+        return response;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Swaps in the next slice of the rule schedule once its boundary has passed, so a
+// happy hour starts within one tick of its start time. A tick with no boundary
+// due costs a clock read and a comparison.
+@Component
+public class RuleScheduleTicker {
+    private static final Logger log = LoggerFactory.getLogger(RuleScheduleTicker.class);
+
+    private final RuleSnapshots snapshots;
+
+    public RuleScheduleTicker(RuleSnapshots snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    @Scheduled(fixedDelayString = "${discount.schedule.tick-ms:1000}")
+    public void tick() {
+        if (snapshots.advance()) {
+            DiscountEngine engine = snapshots.current();
+            log.info("Rule schedule moved to v{} ({} chain-wide rules active), next change at {}",
+                    engine.getVersion(), engine.getRules().size(), snapshots.nextChange());
+        }
+    }
+}
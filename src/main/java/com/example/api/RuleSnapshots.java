@@ -0,0 +1,218 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.metrics.PricingMetrics;
+import com.example.api.model.DiscountRequest;
+import com.example.api.rules.DiscountRule;
+import com.example.api.rules.RuleSchedule;
+import com.example.api.rules.ScopedRules;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Holds the live rule snapshot. Each snapshot is an immutable set of engines
+// (chain-wide and per tenant) sharing one version; publishing compiles the new engine first and then swaps a
+// single reference, so in-flight requests finish on the snapshot they started
+// with and new requests never wait on a lock.
+// Rules scoped to stores or regions are published together with the chain-wide
+// ones; PublishedRules resolves a tenant's engine within the published set.
+// Rules with time windows are published with a RuleSchedule; advance() swaps in
+// the next slice's rules at each boundary, so requests never look at the clock.
+public class RuleSnapshots {
+    // A week covers every day-of-week window; the schedule is recomputed after it
+    private static final Duration HORIZON = Duration.ofDays(7);
+    private static final int DEFAULT_HISTORY = 16;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<PublishedRules> current = new AtomicReference<>();
+    private final List<Consumer<DiscountEngine>> listeners = new CopyOnWriteArrayList<>();
+    private final AllocationSolver solver;
+    private final PricingMetrics metrics;
+    private final Clock clock;
+    private final int historySize;
+    // Replaced as a whole on publish; only read outside the publishing lock by asOf()
+    private volatile Timeline timeline;
+    private volatile Instant nextChange;
+
+    public RuleSnapshots(List<DiscountRule> initialRules) {
+        this(initialRules, new AllocationSolver(), PricingMetrics.NONE);
+    }
+
+    // Every snapshot shares the solver (and its per-basket search budget) and the metrics
+    public RuleSnapshots(List<DiscountRule> initialRules, AllocationSolver solver, PricingMetrics metrics) {
+        this(ScopedRules.chainWide(initialRules), solver, metrics);
+    }
+
+    public RuleSnapshots(ScopedRules initialRules, AllocationSolver solver, PricingMetrics metrics) {
+        this(initialRules, solver, metrics, Clock.systemDefaultZone(), DEFAULT_HISTORY);
+    }
+
+    // Daily windows are read in the clock's zone. historySize bounds the rule sets
+    // kept compiled per publish: recurring slices and as-of replays are served from them.
+    public RuleSnapshots(ScopedRules initialRules, AllocationSolver solver, PricingMetrics metrics,
+                         Clock clock, int historySize) {
+        this.solver = solver;
+        this.metrics = metrics;
+        this.clock = clock;
+        this.historySize = historySize;
+        publish(initialRules);
+    }
+
+    // Read once per request (or batch) and use that engine throughout
+    public DiscountEngine current() {
+        return current.get().chainWide();
+    }
+
+    // The engine for one store and/or region (either may be null)
+    public DiscountEngine current(String store, String region) {
+        return current.get().forTenant(store, region);
+    }
+
+    // For batches that resolve several tenants against the same published set
+    public PublishedRules published() {
+        return current.get();
+    }
+
+    // Every rule of the last publish with its scope and window, whichever of them
+    // the live slice runs
+    public ScopedRules loaded() {
+        return timeline.rules;
+    }
+
+    // The rules that were active at `asOf` among those published now, for replays.
+    // Within the schedule's horizon this is a slice lookup; further out the slice
+    // is worked out once and kept, so replays of the same day reuse it.
+    public PublishedRules published(Instant asOf) {
+        Timeline at = timeline;
+        return at.schedule.covers(asOf) ? at.published(at.schedule.activeAt(asOf)) : at.replay(asOf);
+    }
+
+    // Engine for a request: its tenant within `live`, or within its as-of slice
+    public DiscountEngine forRequest(PublishedRules live, DiscountRequest request) {
+        PublishedRules rules = request.getAsOf() == null ? live : published(request.getAsOf());
+        return rules.forTenant(request.getStoreId(), request.getRegion());
+    }
+
+    public Instant nextChange() {
+        return nextChange;
+    }
+
+    public DiscountEngine publish(List<DiscountRule> rules) {
+        return publish(ScopedRules.chainWide(rules));
+    }
+
+    // Publishers are serialized so versions go live in order; readers never block.
+    // Returns (and tells listeners about) the new chain-wide engine.
+    public synchronized DiscountEngine publish(ScopedRules rules) {
+        Instant now = clock.instant();
+        timeline = new Timeline(rules, new RuleSchedule(rules.getWindows(), clock.getZone(), now, HORIZON));
+        PublishedRules next = swap(now);
+        for (Consumer<DiscountEngine> listener : listeners) {
+            listener.accept(next.chainWide());
+        }
+        return next.chainWide();
+    }
+
+    // Moves to the current time slice once its boundary has passed. Cheap when it
+    // has not (one volatile read), so it can be called on a short fixed delay.
+    // Returns whether a different rule set went live. Listeners are not told:
+    // the rules did not change, only which of them are active.
+    public boolean advance() {
+        Instant now = clock.instant();
+        if (now.isBefore(nextChange)) {
+            return false;
+        }
+        synchronized (this) {
+            PublishedRules before = current.get();
+            if (!timeline.schedule.covers(now)) {
+                timeline = new Timeline(timeline.rules,
+                        new RuleSchedule(timeline.rules.getWindows(), clock.getZone(), now, HORIZON), timeline.compiled);
+            }
+            return swap(now) != before;
+        }
+    }
+
+    // Called after every publish with the new snapshot
+    public void onPublish(Consumer<DiscountEngine> listener) {
+        listeners.add(listener);
+    }
+
+    // Compiles (or reuses) the slice at `now` before swapping it in
+    private PublishedRules swap(Instant now) {
+        PublishedRules next = timeline.published(timeline.schedule.activeAt(now));
+        current.set(next);
+        nextChange = timeline.schedule.nextChange(now);
+        return next;
+    }
+
+    private DiscountEngine compile(List<DiscountRule> rules, List<String> ruleIds, long version) {
+        // Index building happens here, for every tenant engine, on the publishing or
+        // ticking thread before the swap (on the request thread only for as-of replays)
+        return new DiscountEngine(rules, ruleIds, version, solver, metrics);
+    }
+
+    // One publish: its rules, their schedule and the rule sets compiled for it so
+    // far, keyed by which rules are active. Each rule set takes one version for
+    // all its engines, so a tenant's responses carry the version /admin/rules
+    // reports. A happy hour that recurs every day reuses the same engines (and
+    // version) each time it comes round. Replays
+    // outside the horizon keep their slices by start, at most historySize of them.
+    private final class Timeline {
+        final ScopedRules rules;
+        final RuleSchedule schedule;
+        final Cache<BitSet, PublishedRules> compiled;
+        final NavigableMap<Instant, Replay> replays = new ConcurrentSkipListMap<>();
+
+        Timeline(ScopedRules rules, RuleSchedule schedule) {
+            this(rules, schedule, Caffeine.newBuilder().maximumSize(historySize).build());
+        }
+
+        Timeline(ScopedRules rules, RuleSchedule schedule, Cache<BitSet, PublishedRules> compiled) {
+            this.rules = rules;
+            this.schedule = schedule;
+            this.compiled = compiled;
+        }
+
+        PublishedRules published(BitSet active) {
+            return compiled.get(active, bits -> {
+                long version = versions.incrementAndGet();
+                return new PublishedRules(rules.select(bits), (selected, ids) -> compile(selected, ids, version));
+            });
+        }
+
+        PublishedRules replay(Instant asOf) {
+            Map.Entry<Instant, Replay> kept = replays.floorEntry(asOf);
+            if (kept != null && kept.getValue().slice.contains(asOf)) {
+                return kept.getValue().rules;
+            }
+            RuleSchedule.Slice slice = schedule.sliceAt(asOf);
+            Replay replay = new Replay(slice, published(slice.getActive()));
+            replays.put(slice.getStart(), replay);
+            while (replays.size() > historySize) {
+                replays.pollFirstEntry();
+            }
+            return replay.rules;
+        }
+    }
+
+    private static final class Replay {
+        final RuleSchedule.Slice slice;
+        final PublishedRules rules;
+
+        Replay(RuleSchedule.Slice slice, PublishedRules rules) {
+            this.slice = slice;
+            this.rules = rules;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Incremental pricing for lanes: open a session, then send each scan or void
+// instead of the whole basket. Every call returns the basket's current totals.
+@RestController
+@RequestMapping("/discount/sessions")
+@CrossOrigin(origins = "*")
+public class SessionController {
+
+    private final PricingSessions sessions;
+
+    public SessionController(PricingSessions sessions) {
+        this.sessions = sessions;
+    }
+
+    // A session is priced with its store's promotions for its whole life
+    @PostMapping
+    public Map<String, Object> open(@RequestParam(required = false) String storeId,
+                                    @RequestParam(required = false) String region) {
+        PricingSession session = sessions.open(storeId, region);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("sessionId", session.getId());
+        response.put("totals", sessions.totals(session.getId()));
+        return response;
+    }
+
+    @GetMapping("/{id}")
+    public DiscountResponse totals(@PathVariable String id) {
+        return sessions.totals(id);
+    }
+
+    @GetMapping("/{id}/items")
+    public DiscountRequest items(@PathVariable String id) {
+        PricingSession session = sessions.get(id);
+        return new DiscountRequest(session.getItems(), session.getStoreId(), session.getRegion());
+    }
+
+    @PostMapping("/{id}/items")
+    public DiscountResponse add(@PathVariable String id, @RequestBody BasketItem item) {
+        return sessions.add(id, item);
+    }
+
+    @DeleteMapping("/{id}/items/{upc}")
+    public DiscountResponse remove(@PathVariable String id, @PathVariable String upc,
+                                   @RequestParam(defaultValue = "1") int quantity) {
+        return sessions.remove(id, upc, quantity);
+    }
+
+    @DeleteMapping("/{id}")
+    public Map<String, Object> close(@PathVariable String id) {
+        sessions.close(id);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("sessionId", id);
+        response.put("closed", true);
+        return response;
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, Object> notFound(NoSuchElementException e) {
+        return error(e);
+    }
+
+    // Line limit of a session reached
+    @ExceptionHandler(IllegalStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> full(IllegalStateException e) {
+        return error(e);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> badRequest(IllegalArgumentException e) {
+        return error(e);
+    }
+
+    private static Map<String, Object> error(RuntimeException e) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("error", e.getMessage());
+        return response;
+    }
+}
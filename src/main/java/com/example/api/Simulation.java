@@ -0,0 +1,274 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.allocation.OfferTable;
+import com.example.api.model.SimulationReport;
+import com.example.api.model.SimulationReport.CategoryDelta;
+import com.example.api.model.SimulationReport.RuleDelta;
+import com.example.api.rules.Basket;
+import com.example.api.rules.Categories;
+import com.example.api.rules.DiscountRule;
+import com.example.api.rules.Money;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+// Prices every basket of a corpus under a baseline and a candidate rule set and
+// adds up the difference. Records are read on the calling thread in batches; each
+// batch is a fork-join task that splits down to small slices, prices them
+// (converting records to baskets there, so parsing runs in parallel too) and
+// merges the slices' tallies on the way back up. At most two batches per worker
+// are in flight, so memory stays flat however long the corpus is.
+// Both engines are private to the simulation: no live metrics, no basket cache.
+public final class Simulation {
+    private static final int BATCH_SIZE = 4096;
+    private static final int SLICE_SIZE = 64;
+    private static final int BASELINE = 0;
+    private static final int CANDIDATE = 1;
+
+    private final DiscountEngine[] engines;
+    private final int parallelism;
+
+    // The solver should be configured like live pricing's, so baskets are allocated
+    // within the same per-basket budget they would get at the till
+    public Simulation(List<DiscountRule> baseline, List<DiscountRule> candidate,
+                      AllocationSolver solver, int parallelism) {
+        this.engines = new DiscountEngine[] {
+                new DiscountEngine(baseline, 0, solver), new DiscountEngine(candidate, 0, solver) };
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public <T> SimulationReport run(Iterator<T> records, Function<? super T, Basket> toBasket) {
+        long started = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Deque<ForkJoinTask<Tally>> inFlight = new ArrayDeque<>();
+        Tally total = new Tally();
+        try {
+            while (records.hasNext()) {
+                List<T> batch = new ArrayList<>(BATCH_SIZE);
+                while (batch.size() < BATCH_SIZE && records.hasNext()) {
+                    batch.add(records.next());
+                }
+                if (inFlight.size() == parallelism * 2) {
+                    total.merge(inFlight.poll().join());
+                }
+                inFlight.add(pool.submit(new Slice<>(batch, 0, batch.size(), toBasket)));
+            }
+            while (!inFlight.isEmpty()) {
+                total.merge(inFlight.poll().join());
+            }
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+            pool.shutdownNow();
+        }
+        SimulationReport report = report(total);
+        report.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        return report;
+    }
+
+    private final class Slice<T> extends RecursiveTask<Tally> {
+        private final List<T> records;
+        private final int from;
+        private final int to;
+        private final Function<? super T, Basket> toBasket;
+
+        Slice(List<T> records, int from, int to, Function<? super T, Basket> toBasket) {
+            this.records = records;
+            this.from = from;
+            this.to = to;
+            this.toBasket = toBasket;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= SLICE_SIZE) {
+                Tally tally = new Tally();
+                EvaluationContext context = EvaluationContext.acquire();
+                try {
+                    for (int i = from; i < to; i++) {
+                        tally.add(toBasket.apply(records.get(i)), context);
+                    }
+                } finally {
+                    context.release();
+                }
+                return tally;
+            }
+            int middle = (from + to) >>> 1;
+            Slice<T> left = new Slice<>(records, from, middle, toBasket);
+            left.fork();
+            Tally right = new Slice<>(records, middle, to, toBasket).compute();
+            right.merge(left.join());
+            return right;
+        }
+    }
+
+    // Sums over a run of baskets; per rule (by engine position) and per category
+    // id for each side. Category discount is kept in sub-cents until the report.
+    private final class Tally {
+        long baskets;
+        long changed;
+        long more;
+        long less;
+        long subtotalCents;
+        long maxIncreaseCents;
+        final long[] discountCents = new long[2];
+        final long[][] ruleCents = { new long[engines[BASELINE].getRules().size()],
+                new long[engines[CANDIDATE].getRules().size()] };
+        final long[][] redemptions = { new long[ruleCents[BASELINE].length], new long[ruleCents[CANDIDATE].length] };
+        // Index 0 is Categories.NONE (no category, or one neither rule set names),
+        // category id n is at n + 1
+        long[][] categorySubCents = { new long[16], new long[16] };
+
+        void add(Basket basket, EvaluationContext context) {
+            long baseline = price(BASELINE, basket, context);
+            long candidate = price(CANDIDATE, basket, context);
+            baskets++;
+            subtotalCents += basket.subtotalCents();
+            if (candidate != baseline) {
+                changed++;
+                if (candidate > baseline) {
+                    more++;
+                    maxIncreaseCents = Math.max(maxIncreaseCents, candidate - baseline);
+                } else {
+                    less++;
+                }
+            }
+        }
+
+        // Same offers, allocation and per-rule rounding as DiscountEngine.calculate;
+        // each application's saving is split over its lines by the value of the
+        // units it takes from them, to attribute it to categories
+        private long price(int side, Basket basket, EvaluationContext context) {
+            engines[side].evaluate(basket, context);
+            OfferTable offers = context.offers;
+            int[] applications = context.counts;
+            long total = 0;
+            // Each rule's offers are contiguous, in rule order
+            for (int k = 0; k < offers.size(); ) {
+                int rule = offers.rule(k);
+                long subCents = 0;
+                for (; k < offers.size() && offers.rule(k) == rule; k++) {
+                    if (applications[k] == 0) {
+                        continue;
+                    }
+                    long saving = applications[k] * offers.saving(k);
+                    subCents += saving;
+                    attribute(side, basket, offers, k, saving);
+                }
+                long cents = Money.fromSubCents(subCents);
+                if (cents > 0) {
+                    ruleCents[side][rule] += cents;
+                    redemptions[side][rule]++;
+                    total += cents;
+                }
+            }
+            discountCents[side] += total;
+            return total;
+        }
+
+        private void attribute(int side, Basket basket, OfferTable offers, int offer, long saving) {
+            long weight = 0;
+            long unitCount = 0;
+            for (int e = offers.start(offer); e < offers.end(offer); e++) {
+                weight += offers.units(e) * basket.priceCents(offers.line(e));
+                unitCount += offers.units(e);
+            }
+            for (int e = offers.start(offer); e < offers.end(offer); e++) {
+                if (offers.units(e) == 0) {
+                    continue;
+                }
+                // Free items carry no value to split by; fall back to unit counts
+                long share = weight > 0
+                        ? saving * offers.units(e) * basket.priceCents(offers.line(e)) / weight
+                        : saving * offers.units(e) / unitCount;
+                addCategory(side, basket.categoryId(offers.line(e)), share);
+            }
+        }
+
+        private void addCategory(int side, int categoryId, long subCents) {
+            int slot = categoryId + 1;
+            if (slot >= categorySubCents[side].length) {
+                categorySubCents[side] = Arrays.copyOf(categorySubCents[side],
+                        Math.max(slot + 1, categorySubCents[side].length * 2));
+            }
+            categorySubCents[side][slot] += subCents;
+        }
+
+        void merge(Tally other) {
+            baskets += other.baskets;
+            changed += other.changed;
+            more += other.more;
+            less += other.less;
+            subtotalCents += other.subtotalCents;
+            maxIncreaseCents = Math.max(maxIncreaseCents, other.maxIncreaseCents);
+            for (int side = 0; side < 2; side++) {
+                discountCents[side] += other.discountCents[side];
+                addAll(ruleCents[side], other.ruleCents[side]);
+                addAll(redemptions[side], other.redemptions[side]);
+                if (other.categorySubCents[side].length > categorySubCents[side].length) {
+                    categorySubCents[side] = Arrays.copyOf(categorySubCents[side], other.categorySubCents[side].length);
+                }
+                addAll(categorySubCents[side], other.categorySubCents[side]);
+            }
+        }
+    }
+
+    private static void addAll(long[] into, long[] from) {
+        for (int i = 0; i < from.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    private SimulationReport report(Tally total) {
+        SimulationReport report = new SimulationReport();
+        long delta = total.discountCents[CANDIDATE] - total.discountCents[BASELINE];
+        report.setBaskets(total.baskets);
+        report.setBasketsChanged(total.changed);
+        report.setBasketsWithMoreDiscount(total.more);
+        report.setBasketsWithLessDiscount(total.less);
+        report.setSubtotal(Money.toDollars(total.subtotalCents));
+        report.setBaselineDiscount(Money.toDollars(total.discountCents[BASELINE]));
+        report.setCandidateDiscount(Money.toDollars(total.discountCents[CANDIDATE]));
+        report.setDiscountDelta(Money.toDollars(delta));
+        report.setMarginImpact(Money.toDollars(-delta));
+        report.setMarginImpactPercent(total.subtotalCents == 0 ? 0 : -delta * 100.0 / total.subtotalCents);
+        report.setLargestBasketIncrease(Money.toDollars(total.maxIncreaseCents));
+
+        // Rules matched by id (see RuleIds) across the two sets, in baseline then
+        // candidate order, so two rules that share a name keep separate rows
+        Map<String, long[]> rules = new LinkedHashMap<>();
+        for (int side = 0; side < 2; side++) {
+            List<String> ruleIds = engines[side].getRuleIds();
+            for (int rule = 0; rule < ruleIds.size(); rule++) {
+                long[] sums = rules.computeIfAbsent(ruleIds.get(rule), id -> new long[4]);
+                sums[side] += total.ruleCents[side][rule];
+                sums[2 + side] += total.redemptions[side][rule];
+            }
+        }
+        List<RuleDelta> ruleDeltas = new ArrayList<>(rules.size());
+        rules.forEach((id, sums) -> ruleDeltas.add(new RuleDelta(id,
+                Money.toDollars(sums[BASELINE]), Money.toDollars(sums[CANDIDATE]), sums[2], sums[3])));
+        report.setRules(ruleDeltas);
+
+        int slots = Math.max(total.categorySubCents[BASELINE].length, total.categorySubCents[CANDIDATE].length);
+        List<CategoryDelta> categoryDeltas = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            long baseline = categoryCents(total.categorySubCents[BASELINE], slot);
+            long candidate = categoryCents(total.categorySubCents[CANDIDATE], slot);
+            if (baseline != 0 || candidate != 0) {
+                String name = slot == 0 ? "NONE" : Categories.name(slot - 1);
+                categoryDeltas.add(new CategoryDelta(name, Money.toDollars(baseline), Money.toDollars(candidate)));
+            }
+        }
+        // Biggest cost increase first
+        categoryDeltas.sort(Comparator.comparingDouble(CategoryDelta::getDelta).reversed());
+        report.setCategories(categoryDeltas);
+        return report;
+    }
+
+    private static long categoryCents(long[] subCents, int slot) {
+        return slot < subCents.length ? Money.fromSubCents(subCents[slot]) : 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.api;
+
+import com.example.api.model.SimulationReport;
+import com.example.api.rules.DiscountRule;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Projects the cost of a candidate rule set over a basket log without starting the web server.
+//   ./gradlew simulate -PsimulateArgs="candidate-rules.json baskets.ndjson report.json"
+// The baseline is the rule store (or discount.rules.file); the basket log may be
+// "-" for stdin and the report goes to stdout when no output is given.
+public class SimulationCli {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: SimulationCli <candidate-rules.json> <baskets.ndjson|-> [report.json|-]");
+            System.exit(2);
+        }
+        String input = args[1];
+        String output = args.length > 2 ? args[2] : "-";
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("spring.main.banner-mode=off");
+        if (output.equals("-")) {
+            // Console logging shares stdout with the report
+            builder.properties("logging.threshold.console=OFF");
+        }
+
+        SimulationReport report;
+        try (ConfigurableApplicationContext context = builder.run();
+             InputStream candidateFile = Files.newInputStream(Path.of(args[0]));
+             InputStream in = input.equals("-") ? System.in : Files.newInputStream(Path.of(input));
+             OutputStream out = output.equals("-") ? System.out : Files.newOutputStream(Path.of(output))) {
+            PromotionSimulator simulator = context.getBean(PromotionSimulator.class);
+            List<DiscountRule> candidate = simulator.rules(candidateFile);
+            report = simulator.simulate(candidate, in);
+            context.getBean(ObjectMapper.class).writerWithDefaultPrettyPrinter().writeValue(out, report);
+        }
+
+        double seconds = report.getElapsedMillis() / 1e3;
+        System.err.printf("Simulated %d baskets in %.1fs (%.0f/s): discount %+.2f%n",
+                report.getBaskets(), seconds, report.getBaskets() / seconds, report.getDiscountDelta());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.allocation.OfferTable;
+import com.example.api.rules.Basket;
+import com.example.api.rules.DiscountRule;
+import com.example.api.rules.Money;
+import com.example.api.rules.StackingGroup;
+import java.util.Arrays;
+import java.util.List;
+
+// The order an engine resolves its stacking groups in, fixed when the engine is
+// built. Rules are already in canonical order (priority, then load order):
+//  1. each EXCLUSIVE rule in turn takes what it can of the units still free
+//  2. BEST_OF rules share what is left in one solver pass, as when no rule has
+//     a group
+//  3. each STACKABLE rule in turn discounts the units exclusive rules left, its
+//     savings scaled down to what earlier discounts left of their price
+// Every pass is a plain solve over a subset of the offers, so stacking costs one
+// solve per exclusive or stackable rule with offers, never a search over
+// combinations of rules.
+final class StackingPlan {
+    private final StackingGroup[] groups;
+    private final int[] exclusive;
+    private final int[] stackable;
+
+    StackingPlan(List<DiscountRule> rules) {
+        this.groups = rules.stream().map(DiscountRule::getStacking).toArray(StackingGroup[]::new);
+        this.exclusive = ids(StackingGroup.EXCLUSIVE);
+        this.stackable = ids(StackingGroup.STACKABLE);
+    }
+
+    // Every rule is best-of: one solve over all offers is the whole plan
+    boolean isSinglePass() {
+        return exclusive.length == 0 && stackable.length == 0;
+    }
+
+    // Fills context.counts for context.offers. Exclusive rules use up context.capacity.
+    void allocate(AllocationSolver solver, Basket basket, EvaluationContext context) {
+        int[] counts = context.counts();
+        Arrays.fill(counts, 0, context.offers.size(), 0);
+
+        for (int rule : exclusive) {
+            if (pass(solver, context, rule, null)) {
+                take(context);
+            }
+        }
+
+        context.clearLineDiscounts();
+        if (pass(solver, context, -1, StackingGroup.BEST_OF)) {
+            addLineDiscounts(basket, context);
+        }
+
+        for (int rule : stackable) {
+            if (scale(basket, context, rule) && pass(solver, context, rule, null)) {
+                addLineDiscounts(basket, context);
+            }
+        }
+    }
+
+    // Solves the offers of one rule (or of every rule in a group) against the
+    // remaining capacity. Returns whether there were any.
+    private boolean pass(AllocationSolver solver, EvaluationContext context, int rule, StackingGroup group) {
+        OfferTable offers = context.offers;
+        OfferTable pass = context.pass.table;
+        pass.clear();
+        int[] origin = context.pass.origin(offers.size());
+        for (int k = 0; k < offers.size(); k++) {
+            int offerRule = offers.rule(k);
+            if (group == null ? offerRule == rule : groups[offerRule] == group) {
+                origin[pass.size()] = k;
+                pass.add(offers, k);
+            }
+        }
+        if (pass.size() == 0) {
+            return false;
+        }
+        int[] passCounts = context.pass.counts(pass.size());
+        solver.solve(context.capacity, context.lineCount(), pass, passCounts, context.workspace);
+        for (int i = 0; i < pass.size(); i++) {
+            context.counts[origin[i]] = passCounts[i];
+        }
+        return true;
+    }
+
+    // Removes the units the last pass used from the capacity every later pass sees
+    private static void take(EvaluationContext context) {
+        OfferTable pass = context.pass.table;
+        int[] passCounts = context.pass.counts;
+        for (int i = 0; i < pass.size(); i++) {
+            for (int e = pass.start(i); e < pass.end(i); e++) {
+                context.capacity[pass.line(e)] -= passCounts[i] * pass.units(e);
+            }
+        }
+    }
+
+    // Splits each application's saving over its lines by the value of the units
+    // it takes from them
+    private static void addLineDiscounts(Basket basket, EvaluationContext context) {
+        OfferTable pass = context.pass.table;
+        int[] passCounts = context.pass.counts;
+        for (int i = 0; i < pass.size(); i++) {
+            if (passCounts[i] == 0) {
+                continue;
+            }
+            long saving = passCounts[i] * pass.saving(i);
+            long weight = 0;
+            long unitCount = 0;
+            for (int e = pass.start(i); e < pass.end(i); e++) {
+                weight += pass.units(e) * basket.priceCents(pass.line(e));
+                unitCount += pass.units(e);
+            }
+            for (int e = pass.start(i); e < pass.end(i); e++) {
+                if (pass.units(e) == 0) {
+                    continue;
+                }
+                // Free items carry no value to split by; fall back to unit counts
+                context.lineDiscounts[pass.line(e)] += weight > 0
+                        ? saving * pass.units(e) * basket.priceCents(pass.line(e)) / weight
+                        : saving * pass.units(e) / unitCount;
+            }
+        }
+    }
+
+    // Scales the rule's offers to the price left on their units: a unit's share
+    // of earlier discounts on its line is taken off before the rule's own saving
+    // applies. Returns whether the rule has offers.
+    private static boolean scale(Basket basket, EvaluationContext context, int rule) {
+        OfferTable offers = context.offers;
+        boolean any = false;
+        for (int k = 0; k < offers.size(); k++) {
+            if (offers.rule(k) != rule) {
+                continue;
+            }
+            any = true;
+            long gross = 0;
+            long net = 0;
+            for (int e = offers.start(k); e < offers.end(k); e++) {
+                int line = offers.line(e);
+                long unitPrice = basket.priceCents(line) * Money.SUB_CENTS;
+                long left = context.capacity[line] == 0
+                        ? 0
+                        : Math.max(0, unitPrice - context.lineDiscounts[line] / context.capacity[line]);
+                gross += offers.units(e) * unitPrice;
+                net += offers.units(e) * left;
+            }
+            if (gross > 0 && net < gross) {
+                offers.setSaving(k, Math.round(offers.saving(k) * ((double) net / gross)));
+            }
+        }
+        return any;
+    }
+
+    private int[] ids(StackingGroup group) {
+        int count = 0;
+        for (StackingGroup g : groups) {
+            if (g == group) {
+                count++;
+            }
+        }
+        int[] ids = new int[count];
+        for (int id = 0, i = 0; id < groups.length; id++) {
+            if (groups[id] == group) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    // Scratch for one pass, kept in the evaluation context
+    static final class Pass {
+        final OfferTable table = new OfferTable();
+        int[] origin = new int[16];
+        int[] counts = new int[16];
+
+        int[] origin(int size) {
+            if (origin.length < size) {
+                origin = new int[Math.max(size, origin.length * 2)];
+            }
+            return origin;
+        }
+
+        int[] counts(int size) {
+            if (counts.length < size) {
+                counts = new int[Math.max(size, counts.length * 2)];
+            }
+            return counts;
+        }
+    }
+}
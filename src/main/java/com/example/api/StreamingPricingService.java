@@ -0,0 +1,111 @@
+package com.example.api;
+
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.model.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Prices an NDJSON stream of baskets of any length in constant memory.
+// Baskets are parsed one at a time and grouped into fixed-size batches; batches
+// are priced on the batch pool while the next ones are read. At most
+// maxInFlight batches exist at once: when the window is full, reading waits for
+// the oldest batch and writes it out, which is the backpressure. Responses are
+// written in input order.
+@Service
+public class StreamingPricingService {
+    private final RuleSnapshots snapshots;
+    private final BatchPricingService batchPricing;
+    private final ObjectMapper objectMapper;
+    private final RequestNormalizer normalizer;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    public StreamingPricingService(RuleSnapshots snapshots,
+                                   BatchPricingService batchPricing,
+                                   ObjectMapper objectMapper,
+                                   RequestNormalizer normalizer,
+                                   @Value("${discount.stream.batch-size:256}") int batchSize,
+                                   @Value("${discount.stream.max-in-flight:0}") int maxInFlight) {
+        this.snapshots = snapshots;
+        this.batchPricing = batchPricing;
+        this.objectMapper = objectMapper;
+        this.normalizer = normalizer;
+        this.batchSize = Math.max(1, batchSize);
+        // Two batches per worker: one being priced, one queued behind it
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : batchPricing.getParallelism() * 2;
+    }
+
+    // Reads NDJSON requests from `in`, writes NDJSON responses to `out` and
+    // returns how many baskets were priced. Neither stream is closed.
+    public long price(InputStream in, OutputStream out) throws IOException {
+        // The whole stream is priced against one published rule set, straight through the
+        // engine: replayed baskets would only evict live traffic from the cache
+        PublishedRules published = snapshots.published();
+        Function<DiscountRequest, DiscountResponse> pricer = request -> snapshots
+                .forRequest(published, request)
+                .calculate(normalizer.normalize(request));
+        ObjectReader reader = objectMapper.readerFor(DiscountRequest.class);
+        ObjectWriter writer = objectMapper.writerFor(DiscountResponse.class);
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+
+        Deque<Future<List<DiscountResponse>>> inFlight = new ArrayDeque<>(maxInFlight);
+        long priced = 0;
+        try (JsonParser parser = objectMapper.createParser(nonClosing(in))) {
+            List<DiscountRequest> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() != null) {
+                batch.add(reader.readValue(parser));
+                if (batch.size() == batchSize) {
+                    if (inFlight.size() == maxInFlight) {
+                        priced += write(inFlight.poll(), writer, buffered);
+                    }
+                    inFlight.add(batchPricing.submit(pricer, batch));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                inFlight.add(batchPricing.submit(pricer, batch));
+            }
+
+            while (!inFlight.isEmpty()) {
+                priced += write(inFlight.poll(), writer, buffered);
+            }
+        } finally {
+            // Only non-empty after a failure; don't leave workers pricing for nobody
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return priced;
+    }
+
+    private static int write(Future<List<DiscountResponse>> batch, ObjectWriter writer,
+                             OutputStream out) throws IOException {
+        List<DiscountResponse> responses = BatchPricingService.await(batch);
+        for (DiscountResponse response : responses) {
+            out.write(writer.writeValueAsBytes(response));
+            out.write('\n');
+        }
+        // Per batch, so HTTP clients see progress while the stream is still running
+        out.flush();
+        return responses.size();
+    }
+
+    // The caller owns the input; closing the parser must not close it
+    private static InputStream nonClosing(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
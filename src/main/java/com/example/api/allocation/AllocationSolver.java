@@ -0,0 +1,428 @@
+package com.example.api.allocation;
+
+import java.util.*;
+
+// Picks how many times to apply each offer so that total savings are maximal and
+// no unit of any line is discounted twice. This is a small integer program:
+// offers that use exactly the same units as a better one are dropped up front
+// (ten percent-off promos on one line leave one offer, not ten), offers that
+// share no lines are solved independently, and each group of competing
+// offers is searched depth-first with branch-and-bound. The search starts from the
+// greedy answer (best savings per unit first) and only ever improves on it, so
+// running out of the per-basket budget falls back to the best allocation found so
+// far instead of failing.
+// The budget counts search nodes (partial allocations tried), not time, so the
+// same basket and offers always get the same allocation, however loaded the host.
+// The solver works on an OfferTable with a caller-owned Workspace, so solving a
+// basket allocates nothing once the workspace has grown to the basket's size.
+public final class AllocationSolver {
+    public static final long DEFAULT_BUDGET_NODES = 10_000;
+
+    private final long budgetNodes;
+
+    public AllocationSolver() {
+        this(DEFAULT_BUDGET_NODES);
+    }
+
+    // Search nodes per basket, shared by all of its components; 0 keeps the greedy allocation
+    public AllocationSolver(long budgetNodes) {
+        this.budgetNodes = Math.max(0, budgetNodes);
+    }
+
+    public long getBudgetNodes() {
+        return budgetNodes;
+    }
+
+    // capacity[line] is the quantity on that basket line. Returns the number of
+    // applications per offer, in the order the offers were given.
+    public int[] solve(int[] capacity, List<Offer> offers) {
+        int[] counts = new int[offers.size()];
+        solve(capacity, capacity.length, OfferTable.of(offers), counts, new Workspace());
+        return counts;
+    }
+
+    // Same, for the first lineCount entries of capacity (which is left untouched);
+    // counts[k] receives the applications of offer k
+    public void solve(int[] capacity, int lineCount, OfferTable offers, int[] counts, Workspace workspace) {
+        int n = offers.size();
+        Arrays.fill(counts, 0, n, 0);
+        if (n == 0) {
+            return;
+        }
+
+        long nodesLeft = budgetNodes;
+        Workspace ws = workspace.ensure(n, lineCount);
+        System.arraycopy(capacity, 0, ws.remaining, 0, lineCount);
+
+        int live = undominated(offers, ws);
+        int componentCount = components(lineCount, offers, ws, live);
+        for (int c = 0; c < componentCount; c++) {
+            int from = ws.componentStarts[c];
+            int size = ws.componentStarts[c + 1] - from;
+            if (size == 1) {
+                // Nothing competes with it: apply it as often as it fits
+                int k = ws.members[from];
+                counts[k] = feasible(offers, k, ws.remaining);
+                continue;
+            }
+
+            // Best savings per unit first; ties keep offer (and so rule) order
+            for (int i = from; i < from + size; i++) {
+                ws.densities[ws.members[i]] = density(offers, ws.members[i]);
+            }
+            sortByDensity(ws, from, size);
+
+            Search search = ws.search;
+            search.reset(offers, ws, from, size, nodesLeft);
+            search.greedy();
+            search.branch(0, 0);
+            nodesLeft = Math.max(0, nodesLeft - search.nodes);
+            for (int i = 0; i < size; i++) {
+                counts[ws.members[from + i]] = search.best[i];
+            }
+        }
+    }
+
+    // Offers worth considering, in order, left in ws.live. An offer is dropped when an
+    // earlier-kept offer consumes the same units, saves at least as much and can be
+    // applied at least as often: any allocation using it does at least as well with
+    // the other. Offers with the same shape are chained through an open-addressing
+    // table keyed by shape.
+    private static int undominated(OfferTable offers, Workspace ws) {
+        int n = offers.size();
+        int mask = ws.slots.length - 1;
+        Arrays.fill(ws.slots, -1);
+        for (int k = 0; k < n; k++) {
+            int slot = mix(offers.shapeHash(k)) & mask;
+            while (ws.slots[slot] >= 0 && !offers.sameShape(ws.slots[slot], k)) {
+                slot = (slot + 1) & mask;
+            }
+            ws.next[k] = -1;
+            if (ws.slots[slot] < 0) {
+                ws.slots[slot] = k;
+                ws.tails[k] = k;
+                ws.dead[k] = false;
+                continue;
+            }
+
+            int head = ws.slots[slot];
+            boolean dominated = false;
+            for (int other = head; other >= 0; other = ws.next[other]) {
+                if (ws.dead[other]) {
+                    continue;
+                }
+                if (offers.saving(other) >= offers.saving(k) && offers.maxApplications(other) >= offers.maxApplications(k)) {
+                    dominated = true;
+                    break;
+                }
+                if (offers.saving(k) >= offers.saving(other) && offers.maxApplications(k) >= offers.maxApplications(other)) {
+                    ws.dead[other] = true;
+                }
+            }
+            ws.dead[k] = dominated;
+            if (!dominated) {
+                ws.next[ws.tails[head]] = k;
+                ws.tails[head] = k;
+            }
+        }
+
+        int live = 0;
+        for (int k = 0; k < n; k++) {
+            if (!ws.dead[k]) {
+                ws.live[live++] = k;
+            }
+        }
+        return live;
+    }
+
+    // Groups live offers that (transitively) share a line, keeping offer order in each
+    // group: members of component c end up in ws.members[componentStarts[c] ..
+    // componentStarts[c + 1]). Returns the number of components.
+    private static int components(int lines, OfferTable offers, Workspace ws, int live) {
+        int[] parent = ws.parent;
+        for (int line = 0; line < lines; line++) {
+            parent[line] = line;
+            ws.lineComponent[line] = -1;
+        }
+        for (int i = 0; i < live; i++) {
+            int k = ws.live[i];
+            int first = -1;
+            for (int e = offers.start(k); e < offers.end(k); e++) {
+                if (offers.units(e) == 0) {
+                    continue;
+                }
+                int root = find(parent, offers.line(e));
+                if (first < 0) {
+                    first = root;
+                } else if (root != first) {
+                    parent[root] = first;
+                }
+            }
+        }
+
+        // Offers that consume no units stand alone
+        int count = 0;
+        for (int i = 0; i < live; i++) {
+            int k = ws.live[i];
+            int root = -1;
+            for (int e = offers.start(k); e < offers.end(k); e++) {
+                if (offers.units(e) > 0) {
+                    root = find(parent, offers.line(e));
+                    break;
+                }
+            }
+            int component;
+            if (root < 0) {
+                component = count++;
+            } else if (ws.lineComponent[root] < 0) {
+                component = count++;
+                ws.lineComponent[root] = component;
+            } else {
+                component = ws.lineComponent[root];
+            }
+            ws.componentOf[i] = component;
+        }
+
+        // Counting sort by component, stable in offer order
+        Arrays.fill(ws.componentStarts, 0, count + 1, 0);
+        for (int i = 0; i < live; i++) {
+            ws.componentStarts[ws.componentOf[i] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            ws.componentStarts[c + 1] += ws.componentStarts[c];
+        }
+        System.arraycopy(ws.componentStarts, 0, ws.cursor, 0, count);
+        for (int i = 0; i < live; i++) {
+            ws.members[ws.cursor[ws.componentOf[i]]++] = ws.live[i];
+        }
+        return count;
+    }
+
+    private static int find(int[] parent, int line) {
+        while (parent[line] != line) {
+            parent[line] = parent[parent[line]];
+            line = parent[line];
+        }
+        return line;
+    }
+
+    // Stable merge sort of ws.members[from, from + size) by descending density
+    private static void sortByDensity(Workspace ws, int from, int size) {
+        int[] a = ws.members;
+        int[] b = ws.sortBuffer;
+        for (int width = 1; width < size; width *= 2) {
+            for (int left = from; left < from + size; left += 2 * width) {
+                int middle = Math.min(left + width, from + size);
+                int right = Math.min(left + 2 * width, from + size);
+                int i = left;
+                int j = middle;
+                for (int out = left; out < right; out++) {
+                    if (i < middle && (j >= right || ws.densities[a[i]] >= ws.densities[a[j]])) {
+                        b[out] = a[i++];
+                    } else {
+                        b[out] = a[j++];
+                    }
+                }
+            }
+            System.arraycopy(b, from, a, from, size);
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static double density(OfferTable offers, int k) {
+        int units = offers.totalUnits(k);
+        return units == 0 ? Double.MAX_VALUE : (double) offers.saving(k) / units;
+    }
+
+    // Applications of the offer that still fit in the remaining capacity
+    private static int feasible(OfferTable offers, int k, int[] capacity) {
+        int x = offers.maxApplications(k);
+        for (int e = offers.start(k); e < offers.end(k) && x > 0; e++) {
+            if (offers.units(e) > 0) {
+                x = Math.min(x, capacity[offers.line(e)] / offers.units(e));
+            }
+        }
+        return Math.max(x, 0);
+    }
+
+    // Scratch arrays for solve(); grown on demand and reused across baskets.
+    // A workspace must only be used by one thread at a time.
+    public static final class Workspace {
+        int[] remaining = new int[0];
+        double[] lineRates = new double[0];
+        int[] parent = new int[0];
+        int[] lineComponent = new int[0];
+        int[] slots = new int[0];
+        int[] next = new int[0];
+        int[] tails = new int[0];
+        boolean[] dead = new boolean[0];
+        int[] live = new int[0];
+        int[] componentOf = new int[0];
+        int[] componentStarts = new int[0];
+        int[] cursor = new int[0];
+        int[] members = new int[0];
+        int[] sortBuffer = new int[0];
+        double[] densities = new double[0];
+        final Search search = new Search();
+
+        Workspace ensure(int offers, int lines) {
+            if (remaining.length < lines) {
+                int capacity = Math.max(lines, remaining.length * 2);
+                remaining = new int[capacity];
+                lineRates = new double[capacity];
+                parent = new int[capacity];
+                lineComponent = new int[capacity];
+            }
+            if (next.length < offers) {
+                int capacity = Math.max(offers, next.length * 2);
+                next = new int[capacity];
+                tails = new int[capacity];
+                dead = new boolean[capacity];
+                live = new int[capacity];
+                componentOf = new int[capacity];
+                componentStarts = new int[capacity + 1];
+                cursor = new int[capacity];
+                members = new int[capacity];
+                sortBuffer = new int[capacity];
+                densities = new double[capacity];
+                search.grow(capacity);
+            }
+            // At most half full, so probing stays short
+            if (slots.length < offers * 2) {
+                slots = new int[Integer.highestOneBit(Math.max(offers * 2 - 1, 1)) << 1];
+            }
+            return this;
+        }
+    }
+
+    // Depth-first search over one component; offers are ws.members[from, from + size)
+    // in density order, and position i of current/best is the i-th of them
+    private static final class Search {
+        OfferTable offers;
+        int[] order;
+        int from;
+        int size;
+        double[] densities = new double[0];
+        int[] capacity;
+        double[] lineRates;
+        long budget;
+        int[] current = new int[0];
+        int[] best = new int[0];
+        long bestValue;
+        long nodes;
+        boolean exhausted;
+
+        void grow(int capacity) {
+            densities = new double[capacity];
+            current = new int[capacity];
+            best = new int[capacity];
+        }
+
+        void reset(OfferTable offers, Workspace ws, int from, int size, long budget) {
+            this.offers = offers;
+            this.order = ws.members;
+            this.from = from;
+            this.size = size;
+            this.capacity = ws.remaining;
+            this.lineRates = ws.lineRates;
+            this.budget = budget;
+            for (int i = 0; i < size; i++) {
+                densities[i] = ws.densities[order[from + i]];
+                current[i] = 0;
+                best[i] = 0;
+            }
+            bestValue = -1;
+            nodes = 0;
+            exhausted = false;
+        }
+
+        void greedy() {
+            long value = 0;
+            for (int i = 0; i < size; i++) {
+                int x = feasible(offers, offer(i), capacity);
+                take(offer(i), x);
+                current[i] = x;
+                value += x * offers.saving(offer(i));
+            }
+            record(value);
+            for (int i = 0; i < size; i++) {
+                take(offer(i), -current[i]);
+                current[i] = 0;
+            }
+        }
+
+        void branch(int i, long value) {
+            if (value > bestValue) {
+                record(value);
+            }
+            if (i == size || outOfBudget()) {
+                return;
+            }
+            if (value + bound(i) <= bestValue) {
+                return;
+            }
+
+            int offer = offer(i);
+            // Most applications first: that is the greedy choice, so good
+            // allocations are found early and prune the rest of the tree
+            for (int x = feasible(offers, offer, capacity); x >= 0 && !exhausted; x--) {
+                take(offer, x);
+                current[i] = x;
+                branch(i + 1, value + x * offers.saving(offer));
+                take(offer, -x);
+            }
+            current[i] = 0;
+        }
+
+        private int offer(int i) {
+            return order[from + i];
+        }
+
+        // Upper bound on what offers [i..] can still add; the smaller of
+        //  - every offer applied as often as it fits on its own, ignoring competition
+        //  - every remaining unit of a line earning the best per-unit rate of any
+        //    offer touching that line
+        private long bound(int first) {
+            long independent = 0;
+            for (int j = first; j < size; j++) {
+                int offer = offer(j);
+                independent += feasible(offers, offer, capacity) * offers.saving(offer);
+                for (int e = offers.start(offer); e < offers.end(offer); e++) {
+                    lineRates[offers.line(e)] = Math.max(lineRates[offers.line(e)], densities[j]);
+                }
+            }
+
+            double perUnit = 0;
+            for (int j = first; j < size; j++) {
+                int offer = offer(j);
+                for (int e = offers.start(offer); e < offers.end(offer); e++) {
+                    perUnit += capacity[offers.line(e)] * lineRates[offers.line(e)];
+                    lineRates[offers.line(e)] = 0;
+                }
+            }
+            // +1 absorbs floating-point error; the bound only has to be an overestimate
+            return Math.min(independent, (long) Math.ceil(perUnit) + 1);
+        }
+
+        private void take(int offer, int applications) {
+            for (int e = offers.start(offer); e < offers.end(offer); e++) {
+                capacity[offers.line(e)] -= applications * offers.units(e);
+            }
+        }
+
+        private void record(long value) {
+            bestValue = value;
+            System.arraycopy(current, 0, best, 0, size);
+        }
+
+        private boolean outOfBudget() {
+            if (!exhausted && nodes++ >= budget) {
+                exhausted = true;
+            }
+            return exhausted;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.api.allocation;
+
+// One way a rule can discount a basket: each application consumes units[i] units
+// of basket line lines[i] and saves `saving` sub-cents, up to maxApplications times
+public final class Offer {
+    private final int rule;
+    private final int[] lines;
+    private final int[] units;
+    private final long saving;
+    private final int maxApplications;
+
+    public Offer(int rule, int[] lines, int[] units, long saving, int maxApplications) {
+        if (lines.length != units.length) {
+            throw new IllegalArgumentException("lines and units must have the same length");
+        }
+        this.rule = rule;
+        this.lines = lines;
+        this.units = units;
+        this.saving = saving;
+        this.maxApplications = maxApplications;
+    }
+
+    public int getRule() {
+        return rule;
+    }
+
+    public int[] getLines() {
+        return lines;
+    }
+
+    public int[] getUnits() {
+        return units;
+    }
+
+    public long getSaving() {
+        return saving;
+    }
+
+    public int getMaxApplications() {
+        return maxApplications;
+    }
+}
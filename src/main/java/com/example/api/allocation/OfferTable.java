@@ -0,0 +1,129 @@
+package com.example.api.allocation;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Offers stored column-wise in growable arrays, so a table can be cleared and
+// refilled for every basket without allocating once it has reached the size of
+// the largest basket seen. Offer k uses entries start(k) until start(k + 1) of the
+// line and units columns. Line and unit arrays handed to add() are copied.
+public final class OfferTable {
+    private int size;
+    private int[] rules = new int[16];
+    private long[] savings = new long[16];
+    private int[] maxApplications = new int[16];
+    private int[] starts = new int[17];
+    private int entries;
+    private int[] lines = new int[32];
+    private int[] units = new int[32];
+
+    public static OfferTable of(List<Offer> offers) {
+        OfferTable table = new OfferTable();
+        for (Offer offer : offers) {
+            table.add(offer.getRule(), offer.getLines(), offer.getUnits(), offer.getSaving(), offer.getMaxApplications());
+        }
+        return table;
+    }
+
+    public void clear() {
+        size = 0;
+        entries = 0;
+    }
+
+    public void add(int rule, int line, int unitCount, long saving, int max) {
+        ensureEntries(1);
+        lines[entries] = line;
+        units[entries] = unitCount;
+        entries++;
+        close(rule, saving, max);
+    }
+
+    public void add(int rule, int[] offerLines, int[] offerUnits, long saving, int max) {
+        if (offerLines.length != offerUnits.length) {
+            throw new IllegalArgumentException("lines and units must have the same length");
+        }
+        add(rule, offerLines, offerUnits, 0, offerLines.length, saving, max);
+    }
+
+    // Entries from (inclusive) to to (exclusive) of both arrays
+    public void add(int rule, int[] offerLines, int[] offerUnits, int from, int to, long saving, int max) {
+        ensureEntries(to - from);
+        System.arraycopy(offerLines, from, lines, entries, to - from);
+        System.arraycopy(offerUnits, from, units, entries, to - from);
+        entries += to - from;
+        close(rule, saving, max);
+    }
+
+    // Copies offer k of another table
+    public void add(OfferTable from, int offer) {
+        add(from.rules[offer], from.lines, from.units, from.starts[offer], from.starts[offer + 1],
+                from.savings[offer], from.maxApplications[offer]);
+    }
+
+    // For savings that depend on what other rules took (stacked discounts)
+    public void setSaving(int offer, long saving) {
+        savings[offer] = saving;
+    }
+
+    public int size() { return size; }
+    public int rule(int offer) { return rules[offer]; }
+    public long saving(int offer) { return savings[offer]; }
+    public int maxApplications(int offer) { return maxApplications[offer]; }
+    public int start(int offer) { return starts[offer]; }
+    public int end(int offer) { return starts[offer + 1]; }
+    public int line(int entry) { return lines[entry]; }
+    public int units(int entry) { return units[entry]; }
+
+    int totalUnits(int offer) {
+        int total = 0;
+        for (int e = starts[offer]; e < starts[offer + 1]; e++) {
+            total += units[e];
+        }
+        return total;
+    }
+
+    // Same lines taking the same units, entry by entry
+    boolean sameShape(int a, int b) {
+        int length = starts[a + 1] - starts[a];
+        if (starts[b + 1] - starts[b] != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (lines[starts[a] + i] != lines[starts[b] + i] || units[starts[a] + i] != units[starts[b] + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int shapeHash(int offer) {
+        int hash = 1;
+        for (int e = starts[offer]; e < starts[offer + 1]; e++) {
+            hash = 31 * (31 * hash + lines[e]) + units[e];
+        }
+        return hash;
+    }
+
+    private void close(int rule, long saving, int max) {
+        if (size == rules.length) {
+            int capacity = size * 2;
+            rules = Arrays.copyOf(rules, capacity);
+            savings = Arrays.copyOf(savings, capacity);
+            maxApplications = Arrays.copyOf(maxApplications, capacity);
+            starts = Arrays.copyOf(starts, capacity + 1);
+        }
+        rules[size] = rule;
+        savings[size] = saving;
+        maxApplications[size] = max;
+        size++;
+        starts[size] = entries;
+    }
+
+    private void ensureEntries(int count) {
+        if (entries + count > lines.length) {
+            int capacity = Math.max(lines.length * 2, entries + count);
+            lines = Arrays.copyOf(lines, capacity);
+            units = Arrays.copyOf(units, capacity);
+        }
+    }
+}
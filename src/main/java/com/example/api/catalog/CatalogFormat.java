@@ -0,0 +1,52 @@
+package com.example.api.catalog;
+
+// On-disk layout of a product catalog (big-endian, written by CatalogWriter):
+//
+//   header      magic, version, itemCount, categoryCount, promoGroupCount,
+//               keysOffset, recordsOffset, promoGroupsOffset        8 x int
+//   categories  categoryCount x (unsigned short length, UTF-8 name)
+//   keys        itemCount x long, ascending, starting 8-byte aligned at keysOffset
+//   records     itemCount x RECORD_BYTES, in key order, starting at recordsOffset
+//   promoGroups promoGroupCount x int, starting at promoGroupsOffset
+//
+// Keys are kept apart from the records so a search walks densely packed keys and
+// touches a record only once it has found the item. A record is: int priceCents,
+// short category index (-1 = none), short promo group count, int index of its
+// first promo group.
+final class CatalogFormat {
+    static final int MAGIC = 0x504F5343; // "POSC"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8 * Integer.BYTES;
+
+    static final int RECORD_BYTES = 12;
+    static final int PRICE_CENTS = 0;
+    static final int CATEGORY = 4;
+    static final int PROMO_COUNT = 6;
+    static final int PROMO_START = 8;
+
+    static final long NO_KEY = -1;
+
+    private CatalogFormat() {}
+
+    // UPC-A, EAN-13 and GTIN-14 codes for the same product differ only by leading
+    // zeros, so the key is the numeric value. Anything that isn't 1-18 digits has
+    // no key. Parses in place: no substring, no boxing.
+    static long key(CharSequence upc) {
+        if (upc == null) {
+            return NO_KEY;
+        }
+        int length = upc.length();
+        if (length == 0 || length > 18) {
+            return NO_KEY;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            char c = upc.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_KEY;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+}
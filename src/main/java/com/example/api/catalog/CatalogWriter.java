@@ -0,0 +1,136 @@
+package com.example.api.catalog;
+
+import com.example.api.rules.Money;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Builds a catalog file from the store item export, a CSV of
+//   upc,price,category,promo_groups
+// where price is in dollars and promo_groups is an optional '|'-separated list of
+// numeric group ids. A header row is skipped. When a UPC appears twice the later
+// row wins, so an export with appended corrections builds correctly.
+//
+//   ./gradlew buildCatalog -PcatalogArgs="items.csv catalog.bin"
+public final class CatalogWriter {
+
+    private CatalogWriter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CatalogWriter <items.csv> <catalog.bin>");
+            System.exit(2);
+        }
+        int written = write(Path.of(args[0]), Path.of(args[1]));
+        System.err.printf("Wrote %d items to %s%n", written, args[1]);
+    }
+
+    // Returns the number of items written
+    public static int write(Path csv, Path out) throws IOException {
+        TreeMap<Long, Item> items = new TreeMap<>();
+        Map<String, Integer> categories = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("upc"))) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected upc,price,category[,promo_groups]");
+                }
+                long key = CatalogFormat.key(fields[0].trim());
+                if (key == CatalogFormat.NO_KEY) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": invalid UPC '" + fields[0] + "'");
+                }
+                long priceCents = Money.toCents(Double.parseDouble(fields[1].trim()));
+                if (priceCents < 0 || priceCents > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": price out of range");
+                }
+                String category = fields[2].trim();
+                int categoryIndex = category.isEmpty()
+                        ? -1
+                        : categories.computeIfAbsent(category, c -> categories.size());
+                int[] promoGroups = fields.length > 3 && !fields[3].isBlank()
+                        ? Arrays.stream(fields[3].split("\\|")).map(String::trim).mapToInt(Integer::parseInt).toArray()
+                        : new int[0];
+                if (categories.size() > Short.MAX_VALUE || promoGroups.length > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": too many categories or promo groups");
+                }
+
+                items.put(key, new Item(key, (int) priceCents, (short) categoryIndex, promoGroups));
+            }
+        }
+
+        ByteArrayOutputStream categoryTable = new ByteArrayOutputStream();
+        DataOutputStream categoryOut = new DataOutputStream(categoryTable);
+        for (String category : categories.keySet()) {
+            byte[] name = category.getBytes(StandardCharsets.UTF_8);
+            categoryOut.writeShort(name.length);
+            categoryOut.write(name);
+        }
+
+        int promoGroupCount = items.values().stream().mapToInt(item -> item.promoGroups.length).sum();
+        // Keys start 8-byte aligned so none straddles a word
+        int keysOffset = align(CatalogFormat.HEADER_BYTES + categoryTable.size());
+        long recordsOffset = keysOffset + (long) items.size() * Long.BYTES;
+        long promoGroupsOffset = recordsOffset + (long) items.size() * CatalogFormat.RECORD_BYTES;
+        if (promoGroupsOffset + (long) promoGroupCount * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalog too large");
+        }
+
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out)))) {
+            data.writeInt(CatalogFormat.MAGIC);
+            data.writeInt(CatalogFormat.VERSION);
+            data.writeInt(items.size());
+            data.writeInt(categories.size());
+            data.writeInt(promoGroupCount);
+            data.writeInt(keysOffset);
+            data.writeInt((int) recordsOffset);
+            data.writeInt((int) promoGroupsOffset);
+            categoryTable.writeTo(data);
+            data.write(new byte[keysOffset - CatalogFormat.HEADER_BYTES - categoryTable.size()]);
+
+            for (Item item : items.values()) {
+                data.writeLong(item.key);
+            }
+            int promoStart = 0;
+            for (Item item : items.values()) {
+                data.writeInt(item.priceCents);
+                data.writeShort(item.categoryIndex);
+                data.writeShort(item.promoGroups.length);
+                data.writeInt(promoStart);
+                promoStart += item.promoGroups.length;
+            }
+            for (Item item : items.values()) {
+                for (int group : item.promoGroups) {
+                    data.writeInt(group);
+                }
+            }
+        }
+        return items.size();
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    private static final class Item {
+        final long key;
+        final int priceCents;
+        final short categoryIndex;
+        final int[] promoGroups;
+
+        Item(long key, int priceCents, short categoryIndex, int[] promoGroups) {
+            this.key = key;
+            this.priceCents = priceCents;
+            this.categoryIndex = categoryIndex;
+            this.promoGroups = promoGroups;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.api.catalog;
+
+import com.example.api.rules.Categories;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Read-only store catalog backed by a memory-mapped file (see CatalogFormat).
+// Opening maps the file and reads only the category table and every 16th key, so
+// nothing is deserialized and the heap holds about 50 KB per 100k items: keys and
+// records stay off-heap in the page cache and are searched in place. Lookups
+// allocate nothing.
+//
+//   int record = catalog.find(upc);
+//   if (record >= 0) { catalog.priceCents(record); catalog.categoryId(record); ... }
+public final class ProductCatalog {
+    private static final ProductCatalog EMPTY = new ProductCatalog(ByteBuffer.allocate(0), 0, 0, 0, 0, new int[0], new String[0]);
+
+    // One sampled key per block of 16 (two cache lines of keys); a lookup searches
+    // the samples on-heap first and then touches one block of mapped keys
+    private static final int BLOCK_SHIFT = 4;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int keysOffset;
+    private final int recordsOffset;
+    private final int promoGroupsOffset;
+    // Catalog category index -> process-wide interned id / name
+    private final int[] categoryIds;
+    private final String[] categoryNames;
+    private final long[] blockKeys;
+
+    private ProductCatalog(ByteBuffer buffer, int size, int keysOffset, int recordsOffset, int promoGroupsOffset,
+                           int[] categoryIds, String[] categoryNames) {
+        this.buffer = buffer;
+        this.size = size;
+        this.keysOffset = keysOffset;
+        this.recordsOffset = recordsOffset;
+        this.promoGroupsOffset = promoGroupsOffset;
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+        this.blockKeys = new long[(size + (1 << BLOCK_SHIFT) - 1) >> BLOCK_SHIFT];
+        for (int block = 0; block < blockKeys.length; block++) {
+            blockKeys[block] = key(block << BLOCK_SHIFT);
+        }
+    }
+
+    // A catalog that knows no items; requests pass through unchanged
+    public static ProductCatalog empty() {
+        return EMPTY;
+    }
+
+    public static ProductCatalog open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.limit() < CatalogFormat.HEADER_BYTES || buffer.getInt(0) != CatalogFormat.MAGIC) {
+            throw new IOException("Not a product catalog: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != CatalogFormat.VERSION) {
+            throw new IOException("Unsupported catalog version " + version + ": " + file);
+        }
+        int size = buffer.getInt(8);
+        int categoryCount = buffer.getInt(12);
+        int promoGroupCount = buffer.getInt(16);
+        int keysOffset = buffer.getInt(20);
+        int recordsOffset = buffer.getInt(24);
+        int promoGroupsOffset = buffer.getInt(28);
+        if ((long) keysOffset + (long) size * Long.BYTES > recordsOffset
+                || (long) recordsOffset + (long) size * CatalogFormat.RECORD_BYTES > promoGroupsOffset
+                || (long) promoGroupsOffset + (long) promoGroupCount * Integer.BYTES > buffer.limit()) {
+            throw new IOException("Truncated product catalog: " + file);
+        }
+
+        int[] categoryIds = new int[categoryCount];
+        String[] categoryNames = new String[categoryCount];
+        int position = CatalogFormat.HEADER_BYTES;
+        for (int i = 0; i < categoryCount; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            byte[] name = new byte[length];
+            buffer.get(position + 2, name);
+            categoryNames[i] = new String(name, StandardCharsets.UTF_8);
+            categoryIds[i] = Categories.register(categoryNames[i]);
+            position += 2 + length;
+        }
+
+        return new ProductCatalog(buffer, size, keysOffset, recordsOffset, promoGroupsOffset, categoryIds, categoryNames);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Record index for the UPC, or -1 if the catalog doesn't carry it
+    public int find(CharSequence upc) {
+        long key = CatalogFormat.key(upc);
+        if (key == CatalogFormat.NO_KEY) {
+            return -1;
+        }
+        // Last block whose first key is <= key
+        int block = Arrays.binarySearch(blockKeys, key);
+        if (block < 0) {
+            block = -block - 2;
+            if (block < 0) {
+                return -1;
+            }
+        }
+
+        int low = block << BLOCK_SHIFT;
+        int high = Math.min(size, low + (1 << BLOCK_SHIFT)) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = key(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public long priceCents(int record) {
+        return buffer.getInt(offset(record) + CatalogFormat.PRICE_CENTS);
+    }
+
+    // Interned id (see Categories), or Categories.NONE
+    public int categoryId(int record) {
+        int index = buffer.getShort(offset(record) + CatalogFormat.CATEGORY);
+        return index < 0 ? Categories.NONE : categoryIds[index];
+    }
+
+    public String categoryName(int record) {
+        int index = buffer.getShort(offset(record) + CatalogFormat.CATEGORY);
+        return index < 0 ? null : categoryNames[index];
+    }
+
+    public int promoGroupCount(int record) {
+        return buffer.getShort(offset(record) + CatalogFormat.PROMO_COUNT);
+    }
+
+    public int promoGroup(int record, int i) {
+        int start = buffer.getInt(offset(record) + CatalogFormat.PROMO_START);
+        return buffer.getInt(promoGroupsOffset + (start + i) * Integer.BYTES);
+    }
+
+    private long key(int record) {
+        return buffer.getLong(keysOffset + record * Long.BYTES);
+    }
+
+    private int offset(int record) {
+        return recordsOffset + record * CatalogFormat.RECORD_BYTES;
+    }
+}
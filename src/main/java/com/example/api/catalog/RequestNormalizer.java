@@ -0,0 +1,66 @@
+package com.example.api.catalog;
+
+import com.example.api.model.*;
+import com.example.api.rules.Money;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Replaces the price and category a lane sent with the catalog's, for every item
+// the catalog carries. Items it doesn't know keep the lane's values. Requests
+// that need no change are returned as-is, so an empty catalog costs one lookup
+// per line and nothing else.
+public class RequestNormalizer {
+    private final ProductCatalog catalog;
+
+    public RequestNormalizer(ProductCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public ProductCatalog getCatalog() {
+        return catalog;
+    }
+
+    public DiscountRequest normalize(DiscountRequest request) {
+        List<BasketItem> items = request.getItems();
+        if (items == null || catalog.size() == 0) {
+            return request;
+        }
+
+        List<BasketItem> normalized = null;
+        for (int i = 0; i < items.size(); i++) {
+            BasketItem item = normalize(items.get(i));
+            if (item == items.get(i)) {
+                continue;
+            }
+            // Copy on first change; the caller's request is never modified
+            if (normalized == null) {
+                normalized = new ArrayList<>(items);
+            }
+            normalized.set(i, item);
+        }
+
+        if (normalized == null) {
+            return request;
+        }
+        DiscountRequest copy = new DiscountRequest(normalized, request.getStoreId(), request.getRegion());
+        copy.setAsOf(request.getAsOf());
+        return copy;
+    }
+
+    // The item as the catalog prices it; the same instance when nothing changes
+    public BasketItem normalize(BasketItem item) {
+        int record = catalog.size() == 0 ? -1 : catalog.find(item.getUpc());
+        if (record < 0) {
+            return item;
+        }
+        long priceCents = catalog.priceCents(record);
+        // An item filed without a category keeps whatever the lane sent
+        String category = catalog.categoryName(record) != null ? catalog.categoryName(record) : item.getCategory();
+        if (Money.toCents(item.getPrice()) == priceCents && Objects.equals(category, item.getCategory())) {
+            return item;
+        }
+        return new BasketItem(item.getUpc(), item.getDescription(),
+                Money.toDollars(priceCents), item.getQuantity(), category);
+    }
+}
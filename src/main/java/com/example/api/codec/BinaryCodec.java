@@ -0,0 +1,307 @@
+package com.example.api.codec;
+
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.model.*;
+import com.example.api.rules.Basket;
+import com.example.api.rules.Categories;
+import com.example.api.rules.Money;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Fixed-layout binary form of /discount for high-volume lanes. Big-endian; money
+// in cents; strings are length-prefixed UTF-8 (UPCs and names 1-byte lengths,
+// descriptions 2-byte), with null and empty both sent as length 0.
+//
+// Request:
+//   u8  version (1)
+//   u16 category count, then each category name      -- categories are sent once
+//   u16 line count, then per line:
+//       i32 price cents, i32 quantity, u16 category index (0xFFFF = none),
+//       upc, description
+//
+// Response:
+//   u8  version (1)
+//   i64 rule set version, i64 subtotal, i64 tax, i64 total, i64 total discount
+//   u16 applied discount count, then per discount:
+//       name, description, i64 amount, u16 affected item count, then each description
+//
+// Requests decode straight into a Basket: one array per column, one String per UPC
+// and description, no BasketItem or DiscountRequest in between. Catalog prices and
+// categories are applied while decoding, the same way RequestNormalizer does for JSON.
+public class BinaryCodec {
+    public static final String MEDIA_TYPE = "application/x-pos-discount";
+
+    private static final int VERSION = 1;
+    private static final int NO_CATEGORY = 0xFFFF;
+
+    private final ProductCatalog catalog;
+
+    public BinaryCodec(ProductCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public Basket decodeBasket(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        in.version();
+
+        String[] categoryNames = new String[in.u16()];
+        int[] categoryTable = new int[categoryNames.length];
+        for (int i = 0; i < categoryNames.length; i++) {
+            categoryNames[i] = in.string(in.u8());
+            categoryTable[i] = Categories.lookup(categoryNames[i]);
+        }
+
+        int n = in.u16();
+        String[] upcs = new String[n];
+        String[] descriptions = new String[n];
+        long[] priceCents = new long[n];
+        int[] quantities = new int[n];
+        String[] categories = new String[n];
+        int[] categoryIds = new int[n];
+        for (int line = 0; line < n; line++) {
+            priceCents[line] = in.i32();
+            quantities[line] = in.i32();
+            int category = in.u16();
+            if (category == NO_CATEGORY) {
+                categoryIds[line] = Categories.NONE;
+            } else {
+                int index = in.index(category, categoryNames.length);
+                categories[line] = categoryNames[index];
+                categoryIds[line] = categoryTable[index];
+            }
+            upcs[line] = in.ascii(in.u8());
+            descriptions[line] = in.string(in.u16());
+
+            int record = catalog.size() == 0 ? -1 : catalog.find(upcs[line]);
+            if (record >= 0) {
+                priceCents[line] = catalog.priceCents(record);
+                // An item filed without a category keeps whatever the lane sent
+                if (catalog.categoryName(record) != null) {
+                    categories[line] = catalog.categoryName(record);
+                    categoryIds[line] = catalog.categoryId(record);
+                }
+            }
+        }
+        in.end();
+        return Basket.of(upcs, descriptions, priceCents, quantities, categories, categoryIds);
+    }
+
+    public byte[] encodeResponse(DiscountResponse response) {
+        Writer out = new Writer(256);
+        out.u8(VERSION);
+        out.i64(response.getRuleSetVersion());
+        out.i64(Money.toCents(response.getSubtotal()));
+        out.i64(Money.toCents(response.getTax()));
+        out.i64(Money.toCents(response.getTotal()));
+        out.i64(Money.toCents(response.getTotalDiscount()));
+
+        List<AppliedDiscount> applied = response.getAppliedDiscounts();
+        out.u16(applied.size());
+        for (AppliedDiscount discount : applied) {
+            out.string(discount.getRuleName(), 0xFF);
+            out.string(discount.getDescription(), 0xFFFF);
+            out.i64(Money.toCents(discount.getAmount()));
+            out.u16(discount.getAffectedItems().size());
+            for (String item : discount.getAffectedItems()) {
+                out.string(item, 0xFFFF);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Lane side of the format; also used by tests and benchmarks
+    public static byte[] encodeRequest(DiscountRequest request) {
+        List<BasketItem> items = request.getItems();
+        List<String> categories = new ArrayList<>();
+        for (BasketItem item : items) {
+            if (item.getCategory() != null && !categories.contains(item.getCategory())) {
+                categories.add(item.getCategory());
+            }
+        }
+
+        Writer out = new Writer(16 + items.size() * 48);
+        out.u8(VERSION);
+        out.u16(categories.size());
+        for (String category : categories) {
+            out.string(category, 0xFF);
+        }
+        out.u16(items.size());
+        for (BasketItem item : items) {
+            out.i32(Math.toIntExact(Money.toCents(item.getPrice())));
+            out.i32(item.getQuantity());
+            out.u16(item.getCategory() == null ? NO_CATEGORY : categories.indexOf(item.getCategory()));
+            out.string(item.getUpc(), 0xFF);
+            out.string(item.getDescription(), 0xFFFF);
+        }
+        return out.toByteArray();
+    }
+
+    public static DiscountResponse decodeResponse(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        in.version();
+        long version = in.i64();
+        double subtotal = Money.toDollars(in.i64());
+        double tax = Money.toDollars(in.i64());
+        double total = Money.toDollars(in.i64());
+        double totalDiscount = Money.toDollars(in.i64());
+
+        int count = in.u16();
+        List<AppliedDiscount> applied = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = in.string(in.u8());
+            String description = in.string(in.u16());
+            double amount = Money.toDollars(in.i64());
+            int affectedCount = in.u16();
+            List<String> affected = new ArrayList<>(affectedCount);
+            for (int k = 0; k < affectedCount; k++) {
+                affected.add(in.string(in.u16()));
+            }
+            applied.add(new AppliedDiscount(name, description, amount, affected));
+        }
+        in.end();
+        return new DiscountResponse(subtotal, tax, total, totalDiscount, applied, version);
+    }
+
+    // Bounds-checked reads; anything malformed is an IllegalArgumentException
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void version() {
+            int version = u8();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary format version " + version);
+            }
+        }
+
+        int u8() {
+            need(1);
+            return bytes[position++] & 0xFF;
+        }
+
+        int u16() {
+            need(2);
+            int value = (bytes[position] & 0xFF) << 8 | (bytes[position + 1] & 0xFF);
+            position += 2;
+            return value;
+        }
+
+        int i32() {
+            need(4);
+            int value = (bytes[position] & 0xFF) << 24 | (bytes[position + 1] & 0xFF) << 16
+                    | (bytes[position + 2] & 0xFF) << 8 | (bytes[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        long i64() {
+            return (long) i32() << 32 | (i32() & 0xFFFFFFFFL);
+        }
+
+        // Zero length decodes as null, matching an absent JSON field
+        String string(int length) {
+            if (length == 0) {
+                return null;
+            }
+            need(length);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        // UPCs are digits; Latin-1 decoding copies the bytes without UTF-8 validation
+        String ascii(int length) {
+            if (length == 0) {
+                return null;
+            }
+            need(length);
+            String value = new String(bytes, position, length, StandardCharsets.ISO_8859_1);
+            position += length;
+            return value;
+        }
+
+        int index(int index, int size) {
+            if (index >= size) {
+                throw new IllegalArgumentException("Category index " + index + " out of range (" + size + " sent)");
+            }
+            return index;
+        }
+
+        void end() {
+            if (position != bytes.length) {
+                throw new IllegalArgumentException((bytes.length - position) + " trailing bytes");
+            }
+        }
+
+        private void need(int count) {
+            if (bytes.length - position < count) {
+                throw new IllegalArgumentException("Truncated message at byte " + position);
+            }
+        }
+    }
+
+    private static final class Writer {
+        private byte[] bytes;
+        private int size;
+
+        Writer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void u8(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void u16(int value) {
+            ensure(2);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        void i32(int value) {
+            ensure(4);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        void i64(long value) {
+            i32((int) (value >>> 32));
+            i32((int) value);
+        }
+
+        // Length prefix of one byte when max is 0xFF, two otherwise; null is written as empty
+        void string(String value, int max) {
+            byte[] encoded = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            if (encoded.length > max) {
+                throw new IllegalArgumentException("String of " + encoded.length + " bytes exceeds " + max + ": " + value);
+            }
+            if (max == 0xFF) {
+                u8(encoded.length);
+            } else {
+                u16(encoded.length);
+            }
+            ensure(encoded.length);
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int count) {
+            if (size + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + count));
+            }
+        }
+    }
+}
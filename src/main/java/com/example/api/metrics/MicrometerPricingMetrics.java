@@ -0,0 +1,88 @@
+package com.example.api.metrics;
+
+import io.micrometer.core.instrument.*;
+import java.util.concurrent.TimeUnit;
+
+// Pricing metrics as Micrometer meters, visible under /actuator/metrics and
+// summarized per promotion at /actuator/promotions. Per-rule meters are tagged
+// rule (the rule's id, see RuleIds) and rule.name:
+//   discount.rule.evaluations  timer, per rule: invocation count and latency histogram
+//   discount.rule.matches      counter, per rule: evaluations that could discount something
+//   discount.rule.discount     summary, per rule, in cents: how often it won and how much
+//   discount.engine.calculate  timer: whole-basket latency
+//   discount.basket.lines      summary: basket size in lines
+// Counters are striped adders and histograms are preallocated, so recording
+// neither allocates nor serializes request threads.
+public class MicrometerPricingMetrics implements PricingMetrics {
+    static final String RULE_EVALUATIONS = "discount.rule.evaluations";
+    static final String RULE_MATCHES = "discount.rule.matches";
+    static final String RULE_DISCOUNT = "discount.rule.discount";
+    static final String ENGINE_CALCULATE = "discount.engine.calculate";
+    static final String BASKET_LINES = "discount.basket.lines";
+    static final String RULE_TAG = "rule";
+    static final String RULE_NAME_TAG = "rule.name";
+
+    private final MeterRegistry registry;
+    private final Timer calculate;
+    private final DistributionSummary basketLines;
+
+    public MicrometerPricingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.calculate = Timer.builder(ENGINE_CALCULATE)
+                .description("Time to price one basket")
+                .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.basketLines = DistributionSummary.builder(BASKET_LINES)
+                .description("Lines per priced basket")
+                .baseUnit("lines")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    // Meters are keyed by rule id, so two rules that share a name never share
+    // meters, and a rule that survives a snapshot swap keeps its history
+    @Override
+    public RuleRecorder rule(String ruleId, String ruleName) {
+        Timer evaluations = Timer.builder(RULE_EVALUATIONS)
+                .description("Time to evaluate one promotion against one basket")
+                .tag(RULE_TAG, ruleId)
+                .tag(RULE_NAME_TAG, ruleName)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        Counter matches = Counter.builder(RULE_MATCHES)
+                .description("Evaluations where the promotion could discount something")
+                .tag(RULE_TAG, ruleId)
+                .tag(RULE_NAME_TAG, ruleName)
+                .register(registry);
+        DistributionSummary discount = DistributionSummary.builder(RULE_DISCOUNT)
+                .description("Discount granted by the promotion per basket")
+                .tag(RULE_TAG, ruleId)
+                .tag(RULE_NAME_TAG, ruleName)
+                .baseUnit("cents")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+
+        return new RuleRecorder() {
+            @Override
+            public void evaluated(long nanos, boolean matched) {
+                evaluations.record(nanos, TimeUnit.NANOSECONDS);
+                if (matched) {
+                    matches.increment();
+                }
+            }
+
+            @Override
+            public void applied(long discountCents) {
+                discount.record(discountCents);
+            }
+        };
+    }
+
+    @Override
+    public void basketPriced(int lines, long nanos) {
+        calculate.record(nanos, TimeUnit.NANOSECONDS);
+        basketLines.record(lines);
+    }
+}
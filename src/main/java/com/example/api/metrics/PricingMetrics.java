@@ -0,0 +1,41 @@
+package com.example.api.metrics;
+
+// Hooks the engine calls while pricing. Recorders are resolved once per rule when a
+// snapshot is compiled, so pricing a basket never looks a meter up; recording must
+// not allocate and must be safe to call from many request threads at once.
+public interface PricingMetrics {
+    PricingMetrics NONE = new PricingMetrics() {
+        @Override
+        public RuleRecorder rule(String ruleId, String ruleName) {
+            return RuleRecorder.NONE;
+        }
+
+        @Override
+        public void basketPriced(int lines, long nanos) {
+        }
+    };
+
+    // ruleId is unique within the published rules (see RuleIds); names may repeat
+    RuleRecorder rule(String ruleId, String ruleName);
+
+    // One call per DiscountEngine.calculate
+    void basketPriced(int lines, long nanos);
+
+    interface RuleRecorder {
+        RuleRecorder NONE = new RuleRecorder() {
+            @Override
+            public void evaluated(long nanos, boolean matched) {
+            }
+
+            @Override
+            public void applied(long discountCents) {
+            }
+        };
+
+        // The rule was evaluated against a basket; matched = it could discount something
+        void evaluated(long nanos, boolean matched);
+
+        // The rule won units in the final allocation and saved this much
+        void applied(long discountCents);
+    }
+}
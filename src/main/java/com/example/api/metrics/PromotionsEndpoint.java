@@ -0,0 +1,88 @@
+package com.example.api.metrics;
+
+import com.example.api.PublishedRules;
+import com.example.api.RuleSnapshots;
+import com.example.api.rules.DiscountRule;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import java.util.*;
+
+// GET /actuator/promotions: one row per rule in the live snapshot, answering
+// "which promotions fire" (match rate, how often they win, how much they give away)
+// and "which are expensive" (evaluation latency percentiles), plus engine totals
+@Endpoint(id = "promotions")
+public class PromotionsEndpoint {
+    private final MeterRegistry registry;
+    private final RuleSnapshots snapshots;
+
+    public PromotionsEndpoint(MeterRegistry registry, RuleSnapshots snapshots) {
+        this.registry = registry;
+        this.snapshots = snapshots;
+    }
+
+    @ReadOperation
+    public Map<String, Object> promotions() {
+        PublishedRules published = snapshots.published();
+
+        // Every published rule, store and region scoped ones included
+        List<Map<String, Object>> rules = new ArrayList<>();
+        for (int i = 0; i < published.getRules().size(); i++) {
+            DiscountRule rule = published.getRules().get(i);
+            String id = published.getRuleIds().get(i);
+            Timer evaluations = find(MicrometerPricingMetrics.RULE_EVALUATIONS, id).timer();
+            Counter matches = find(MicrometerPricingMetrics.RULE_MATCHES, id).counter();
+            DistributionSummary discount = find(MicrometerPricingMetrics.RULE_DISCOUNT, id).summary();
+
+            long invocations = evaluations == null ? 0 : evaluations.count();
+            double matched = matches == null ? 0 : matches.count();
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rule", id);
+            row.put("name", rule.getName());
+            row.put("invocations", invocations);
+            row.put("matchRate", invocations == 0 ? 0.0 : matched / invocations);
+            row.put("applied", discount == null ? 0 : discount.count());
+            row.put("discountCents", discount == null ? Map.of() : distribution(discount.takeSnapshot(), 1));
+            row.put("latencyMicros", evaluations == null ? Map.of() : distribution(evaluations.takeSnapshot(), 1_000));
+            rules.add(row);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("ruleSetVersion", published.chainWide().getVersion());
+        response.put("rules", rules);
+        Timer calculate = registry.find(MicrometerPricingMetrics.ENGINE_CALCULATE).timer();
+        DistributionSummary lines = registry.find(MicrometerPricingMetrics.BASKET_LINES).summary();
+        if (calculate != null) {
+            response.put("baskets", calculate.count());
+            response.put("basketLatencyMicros", distribution(calculate.takeSnapshot(), 1_000));
+        }
+        if (lines != null) {
+            response.put("basketLines", distribution(lines.takeSnapshot(), 1));
+        }
+        return response;
+    }
+
+    private Search find(String meter, String ruleId) {
+        return registry.find(meter).tag(MicrometerPricingMetrics.RULE_TAG, ruleId);
+    }
+
+    // Raw snapshot values are nanoseconds for timers and the base unit for
+    // summaries; divisor converts to the reported unit
+    private static Map<String, Object> distribution(HistogramSnapshot snapshot, double divisor) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("mean", snapshot.mean() / divisor);
+        values.put("max", snapshot.max() / divisor);
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            values.put("p" + format(percentile.percentile() * 100), percentile.value() / divisor);
+        }
+        return values;
+    }
+
+    private static String format(double percent) {
+        return percent == Math.rint(percent) ? String.valueOf((long) percent) : String.valueOf(percent);
+    }
+}
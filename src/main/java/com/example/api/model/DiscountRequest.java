@@ -1,9 +1,15 @@
 package com.example.api.model;
 
+import java.time.Instant;
 import java.util.List;
 
 public class DiscountRequest {
     private List<BasketItem> items;
+    // Optional tenant: pricing uses the promotions of this store and its region
+    private String storeId;
+    private String region;
+    // Optional: price with the promotions that were active at this instant (replays)
+    private Instant asOf;
 
     public DiscountRequest() {}
 
@@ -11,6 +17,12 @@ public class DiscountRequest {
         this.items = items;
     }
 
+    public DiscountRequest(List<BasketItem> items, String storeId, String region) {
+        this.items = items;
+        this.storeId = storeId;
+        this.region = region;
+    }
+
     public List<BasketItem> getItems() {
         return items;
     }
@@ -18,4 +30,13 @@ public class DiscountRequest {
     public void setItems(List<BasketItem> items) {
         this.items = items;
     }
+
+    public String getStoreId() { return storeId; }
+    public void setStoreId(String storeId) { this.storeId = storeId; }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public Instant getAsOf() { return asOf; }
+    public void setAsOf(Instant asOf) { this.asOf = asOf; }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ public class DiscountResponse {
     private double total;
     private double totalDiscount;
     private List<AppliedDiscount> appliedDiscounts;
+    private long ruleSetVersion;
 
     public DiscountResponse() {}
 
@@ -20,6 +21,13 @@ public class DiscountResponse {
         this.appliedDiscounts = appliedDiscounts;
     }
 
+    public DiscountResponse(double subtotal, double tax, double total,
+                            double totalDiscount, List<AppliedDiscount> appliedDiscounts,
+                            long ruleSetVersion) {
+        this(subtotal, tax, total, totalDiscount, appliedDiscounts);
+        this.ruleSetVersion = ruleSetVersion;
+    }
+
     public double getSubtotal() { return subtotal; }
     public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
 
@@ -36,4 +44,7 @@ public class DiscountResponse {
     public void setAppliedDiscounts(List<AppliedDiscount> appliedDiscounts) {
         this.appliedDiscounts = appliedDiscounts;
     }
+
+    public long getRuleSetVersion() { return ruleSetVersion; }
+    public void setRuleSetVersion(long ruleSetVersion) { this.ruleSetVersion = ruleSetVersion; }
 }
\ No newline at end of file
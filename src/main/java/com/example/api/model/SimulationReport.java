@@ -0,0 +1,120 @@
+package com.example.api.model;
+
+import java.util.List;
+
+// What a candidate rule set would have cost over a basket corpus, against the
+// baseline rules. Deltas are candidate minus baseline; money in dollars.
+// No item costs are known, so margin impact is the change in net sales: every
+// extra dollar of discount is a dollar of margin given up.
+public class SimulationReport {
+    private long baskets;
+    private long basketsChanged;
+    private long basketsWithMoreDiscount;
+    private long basketsWithLessDiscount;
+    private double subtotal;
+    private double baselineDiscount;
+    private double candidateDiscount;
+    private double discountDelta;
+    private double marginImpact;
+    private double marginImpactPercent;
+    private double largestBasketIncrease;
+    private long elapsedMillis;
+    private List<RuleDelta> rules;
+    private List<CategoryDelta> categories;
+
+    public SimulationReport() {}
+
+    public long getBaskets() { return baskets; }
+    public void setBaskets(long baskets) { this.baskets = baskets; }
+
+    public long getBasketsChanged() { return basketsChanged; }
+    public void setBasketsChanged(long basketsChanged) { this.basketsChanged = basketsChanged; }
+
+    public long getBasketsWithMoreDiscount() { return basketsWithMoreDiscount; }
+    public void setBasketsWithMoreDiscount(long basketsWithMoreDiscount) { this.basketsWithMoreDiscount = basketsWithMoreDiscount; }
+
+    public long getBasketsWithLessDiscount() { return basketsWithLessDiscount; }
+    public void setBasketsWithLessDiscount(long basketsWithLessDiscount) { this.basketsWithLessDiscount = basketsWithLessDiscount; }
+
+    public double getSubtotal() { return subtotal; }
+    public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
+
+    public double getBaselineDiscount() { return baselineDiscount; }
+    public void setBaselineDiscount(double baselineDiscount) { this.baselineDiscount = baselineDiscount; }
+
+    public double getCandidateDiscount() { return candidateDiscount; }
+    public void setCandidateDiscount(double candidateDiscount) { this.candidateDiscount = candidateDiscount; }
+
+    public double getDiscountDelta() { return discountDelta; }
+    public void setDiscountDelta(double discountDelta) { this.discountDelta = discountDelta; }
+
+    public double getMarginImpact() { return marginImpact; }
+    public void setMarginImpact(double marginImpact) { this.marginImpact = marginImpact; }
+
+    public double getMarginImpactPercent() { return marginImpactPercent; }
+    public void setMarginImpactPercent(double marginImpactPercent) { this.marginImpactPercent = marginImpactPercent; }
+
+    public double getLargestBasketIncrease() { return largestBasketIncrease; }
+    public void setLargestBasketIncrease(double largestBasketIncrease) { this.largestBasketIncrease = largestBasketIncrease; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public List<RuleDelta> getRules() { return rules; }
+    public void setRules(List<RuleDelta> rules) { this.rules = rules; }
+
+    public List<CategoryDelta> getCategories() { return categories; }
+    public void setCategories(List<CategoryDelta> categories) { this.categories = categories; }
+
+    // One rule by id (its name, unless another rule in the set shares it); a rule
+    // only in one of the two sets has zeros on the other side
+    public static class RuleDelta {
+        private String rule;
+        private double baselineDiscount;
+        private double candidateDiscount;
+        private double delta;
+        private long baselineRedemptions;
+        private long candidateRedemptions;
+
+        public RuleDelta() {}
+
+        public RuleDelta(String rule, double baselineDiscount, double candidateDiscount,
+                         long baselineRedemptions, long candidateRedemptions) {
+            this.rule = rule;
+            this.baselineDiscount = baselineDiscount;
+            this.candidateDiscount = candidateDiscount;
+            this.delta = candidateDiscount - baselineDiscount;
+            this.baselineRedemptions = baselineRedemptions;
+            this.candidateRedemptions = candidateRedemptions;
+        }
+
+        public String getRule() { return rule; }
+        public double getBaselineDiscount() { return baselineDiscount; }
+        public double getCandidateDiscount() { return candidateDiscount; }
+        public double getDelta() { return delta; }
+        public long getBaselineRedemptions() { return baselineRedemptions; }
+        public long getCandidateRedemptions() { return candidateRedemptions; }
+    }
+
+    // Discount given on items of one category, whichever rule gave it
+    public static class CategoryDelta {
+        private String category;
+        private double baselineDiscount;
+        private double candidateDiscount;
+        private double delta;
+
+        public CategoryDelta() {}
+
+        public CategoryDelta(String category, double baselineDiscount, double candidateDiscount) {
+            this.category = category;
+            this.baselineDiscount = baselineDiscount;
+            this.candidateDiscount = candidateDiscount;
+            this.delta = candidateDiscount - baselineDiscount;
+        }
+
+        public String getCategory() { return category; }
+        public double getBaselineDiscount() { return baselineDiscount; }
+        public double getCandidateDiscount() { return candidateDiscount; }
+        public double getDelta() { return delta; }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.api.promotions;
+
+import java.util.*;
+
+// Promotions seeded into an empty rule store, so a fresh instance prices
+// exactly like the old hard-coded controller did
+public final class DefaultPromotions {
+    private DefaultPromotions() {}
+
+    public static List<RuleDefinition> definitions() {
+        return List.of(
+                // Fountain drinks: Buy 2, Get 1 Free
+                // Polar Pop costs $0.89-$1.09, 90%+ profit margin
+                new RuleDefinition(RuleType.BUY_X_GET_Y,
+                        Map.of("buyQty", "2", "freeQty", "1"),
+                        Set.of(), Set.of("POLAR POP"), 30),
+
+                // Hot food bundle discount: 20% off when buying $8+ of food
+                // Encourages hot dog + taquito combos
+                new RuleDefinition(RuleType.PERCENT_OFF,
+                        Map.of("percent", "5"),
+                        Set.of("FOOD"), Set.of(), 20),
+
+                // Energy drinks: Classic BOGO (buy 1 get 1 free)
+                // Applies to Monster, Red Bull, Rockstar, etc.
+                new RuleDefinition(RuleType.BOGO,
+                        Map.of(),
+                        Set.of("BEVERAGE"), Set.of(), 10)
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.api.promotions;
+
+import com.example.api.rules.ScopedRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+// Reads the active rule definitions from the store.
+// This is the only place the database is read; requests use compiled snapshots.
+@Service
+public class PromotionLoader {
+    private static final Logger log = LoggerFactory.getLogger(PromotionLoader.class);
+
+    private final RuleDefinitionRepository repository;
+    private final Clock clock;
+
+    public PromotionLoader(RuleDefinitionRepository repository) {
+        this(repository, Clock.systemUTC());
+    }
+
+    PromotionLoader(RuleDefinitionRepository repository, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+    }
+
+    @Transactional
+    public ScopedRules loadRules() {
+        if (repository.count() == 0) {
+            log.info("Rule store is empty, seeding default promotions");
+            repository.saveAll(DefaultPromotions.definitions());
+        }
+
+        // Expired and future promotions are loaded too: the rule schedule activates
+        // each in its window, and as-of replays can still see ones that have ended
+        Instant now = clock.instant();
+        List<RuleDefinition> enabled = repository.findAll().stream()
+                .filter(RuleDefinition::isEnabled)
+                .toList();
+
+        log.info("Loaded {} enabled promotions, {} within their validity dates", enabled.size(),
+                enabled.stream().filter(definition -> definition.isActiveAt(now)).count());
+        return RuleFactory.createScoped(enabled);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.api.promotions;
+
+import com.example.api.rules.StackingGroup;
+import jakarta.persistence.*;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.*;
+
+// A promotion as stored in the database. Definitions are only read when a rule
+// snapshot is compiled; pricing never touches this entity.
+@Entity
+@Table(name = "rule_definition")
+public class RuleDefinition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RuleType type;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rule_parameter", joinColumns = @JoinColumn(name = "rule_id"))
+    @MapKeyColumn(name = "param_name")
+    // Wide enough for a DSL expression with its group declarations
+    @Column(name = "param_value", length = 4000)
+    private Map<String, String> parameters = new HashMap<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rule_category", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "category")
+    private Set<String> categories = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rule_keyword", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "keyword")
+    private Set<String> keywords = new HashSet<>();
+
+    // Where the promotion runs: both empty for chain-wide, otherwise only in the
+    // listed stores and in every store of the listed regions
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rule_store", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "store_id")
+    private Set<String> stores = new HashSet<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rule_region", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "region")
+    private Set<String> regions = new HashSet<>();
+
+    // Higher priority rules are evaluated first and win ties
+    private int priority;
+
+    // How the rule combines with others on the same items; null (rows stored
+    // before the column existed) reads as BEST_OF
+    @Enumerated(EnumType.STRING)
+    private StackingGroup stacking;
+
+    // Validity window, either end open when null; validTo is exclusive
+    private Instant validFrom;
+    private Instant validTo;
+
+    // Optional recurring window within the validity range, in the chain's time zone:
+    // days of the week (empty for every day) and a daily start and end time
+    // (both null for all day; an end at or before the start runs past midnight)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rule_day", joinColumns = @JoinColumn(name = "rule_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private Set<DayOfWeek> daysOfWeek = new HashSet<>();
+
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    private boolean enabled = true;
+
+    public RuleDefinition() {}
+
+    public RuleDefinition(RuleType type, Map<String, String> parameters,
+                          Set<String> categories, Set<String> keywords, int priority) {
+        this.type = type;
+        this.parameters = new HashMap<>(parameters);
+        this.categories = new HashSet<>(categories);
+        this.keywords = new HashSet<>(keywords);
+        this.priority = priority;
+    }
+
+    // Validity range only; the recurring window is left to the rule schedule
+    public boolean isActiveAt(Instant when) {
+        return enabled
+                && (validFrom == null || !when.isBefore(validFrom))
+                && (validTo == null || when.isBefore(validTo));
+    }
+
+    // What the promotion does, independent of id, scope and validity: definitions
+    // with equal keys compile to interchangeable rules
+    public String contentKey() {
+        return type + "|" + new TreeMap<>(parameters) + "|" + new TreeSet<>(categories)
+                + "|" + new TreeSet<>(keywords) + "|" + priority + "|" + getStacking();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public RuleType getType() { return type; }
+    public void setType(RuleType type) { this.type = type; }
+
+    public Map<String, String> getParameters() { return parameters; }
+    public void setParameters(Map<String, String> parameters) { this.parameters = parameters; }
+
+    public Set<String> getCategories() { return categories; }
+    public void setCategories(Set<String> categories) { this.categories = categories; }
+
+    public Set<String> getKeywords() { return keywords; }
+    public void setKeywords(Set<String> keywords) { this.keywords = keywords; }
+
+    public Set<String> getStores() { return stores; }
+    public void setStores(Set<String> stores) { this.stores = stores; }
+
+    public Set<String> getRegions() { return regions; }
+    public void setRegions(Set<String> regions) { this.regions = regions; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    public StackingGroup getStacking() { return stacking == null ? StackingGroup.BEST_OF : stacking; }
+    public void setStacking(StackingGroup stacking) { this.stacking = stacking; }
+
+    public Instant getValidFrom() { return validFrom; }
+    public void setValidFrom(Instant validFrom) { this.validFrom = validFrom; }
+
+    public Instant getValidTo() { return validTo; }
+    public void setValidTo(Instant validTo) { this.validTo = validTo; }
+
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+}
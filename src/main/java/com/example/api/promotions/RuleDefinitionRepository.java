@@ -0,0 +1,6 @@
+package com.example.api.promotions;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RuleDefinitionRepository extends JpaRepository<RuleDefinition, Long> {
+}
@@ -0,0 +1,109 @@
+package com.example.api.promotions;
+
+import com.example.api.rules.*;
+import com.example.api.rules.dsl.RuleCompiler;
+import java.util.*;
+
+// Turns stored definitions into rule instances
+public final class RuleFactory {
+    private RuleFactory() {}
+
+    public static DiscountRule create(RuleDefinition definition) {
+        return PrioritizedRule.of(createRule(definition), definition.getPriority(), definition.getStacking());
+    }
+
+    private static DiscountRule createRule(RuleDefinition definition) {
+        return switch (definition.getType()) {
+            case BOGO -> new BuyOneGetOne(single(definition.getCategories(), "category", definition));
+            case BUY_X_GET_Y -> new BuyXGetY(
+                    intParameter(definition, "buyQty"),
+                    intParameter(definition, "freeQty"),
+                    single(definition.getKeywords(), "keyword", definition));
+            case PERCENT_OFF -> definition.getCategories().isEmpty()
+                    ? new PercentOff(doubleParameter(definition, "percent"))
+                    : new PercentOff(doubleParameter(definition, "percent"),
+                            definition.getCategories().stream().sorted().toArray(String[]::new));
+            case MIX_MATCH_ENERGY -> new MixAndMatchEnergyDrinks();
+            case MIX_MATCH -> new MixAndMatch(
+                    intParameter(definition, "bundleSize"),
+                    Money.toCents(doubleParameter(definition, "bundlePrice")),
+                    definition.getKeywords(),
+                    definition.getCategories());
+            case DSL -> RuleCompiler.compileOne(parameter(definition, "expression"));
+        };
+    }
+
+    // Highest priority first, then by id so equal priorities load in a stable order.
+    // Store and region scopes and time windows are ignored: every rule is chain-wide.
+    public static List<DiscountRule> createAll(Collection<RuleDefinition> definitions) {
+        return sorted(definitions).stream()
+                .map(RuleFactory::create)
+                .toList();
+    }
+
+    // Same order as createAll, keeping each rule's scope and time window. Definitions
+    // with the same content and window (a promo copied to many stores) compile once,
+    // to a rule whose scope covers all of them, so stores running the same promos
+    // get identical rule sets.
+    public static ScopedRules createScoped(Collection<RuleDefinition> definitions) {
+        List<DiscountRule> rules = new ArrayList<>();
+        List<RuleScope> scopes = new ArrayList<>();
+        List<RuleWindow> windows = new ArrayList<>();
+        Map<String, Integer> byContent = new HashMap<>();
+        for (RuleDefinition definition : sorted(definitions)) {
+            RuleScope scope = RuleScope.of(definition.getStores(), definition.getRegions());
+            RuleWindow window = window(definition);
+            Integer existing = byContent.putIfAbsent(definition.contentKey() + "|" + window, rules.size());
+            if (existing != null) {
+                scopes.set(existing, scopes.get(existing).union(scope));
+            } else {
+                rules.add(create(definition));
+                scopes.add(scope);
+                windows.add(window);
+            }
+        }
+        return new ScopedRules(rules, scopes, windows);
+    }
+
+    public static RuleWindow window(RuleDefinition definition) {
+        try {
+            return RuleWindow.of(definition.getValidFrom(), definition.getValidTo(),
+                    definition.getDaysOfWeek(), definition.getStartTime(), definition.getEndTime());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    definition.getType() + " rule " + definition.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<RuleDefinition> sorted(Collection<RuleDefinition> definitions) {
+        return definitions.stream()
+                .sorted(Comparator.comparingInt(RuleDefinition::getPriority).reversed()
+                        .thenComparing(RuleDefinition::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static String single(Set<String> values, String what, RuleDefinition definition) {
+        if (values.size() != 1) {
+            throw new IllegalArgumentException(
+                    definition.getType() + " rule " + definition.getId() + " needs exactly one " + what);
+        }
+        return values.iterator().next();
+    }
+
+    private static int intParameter(RuleDefinition definition, String name) {
+        return Integer.parseInt(parameter(definition, name));
+    }
+
+    private static double doubleParameter(RuleDefinition definition, String name) {
+        return Double.parseDouble(parameter(definition, name));
+    }
+
+    private static String parameter(RuleDefinition definition, String name) {
+        String value = definition.getParameters().get(name);
+        if (value == null) {
+            throw new IllegalArgumentException(
+                    definition.getType() + " rule " + definition.getId() + " is missing parameter " + name);
+        }
+        return value;
+    }
+}
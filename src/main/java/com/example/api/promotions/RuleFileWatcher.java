@@ -0,0 +1,92 @@
+package com.example.api.promotions;
+
+import com.example.api.DiscountEngine;
+import com.example.api.RuleSnapshots;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Polls a rule file (or a directory of *.json rule files) and publishes a new
+// snapshot when anything changes. Each file holds a JSON array of rule definitions.
+// Disabled unless discount.rules.file is set.
+@Component
+public class RuleFileWatcher {
+    private static final Logger log = LoggerFactory.getLogger(RuleFileWatcher.class);
+    private static final TypeReference<List<RuleDefinition>> DEFINITIONS = new TypeReference<>() {};
+
+    private final RuleSnapshots snapshots;
+    private final ObjectMapper objectMapper;
+    private final String location;
+    private String lastSeen = "";
+
+    public RuleFileWatcher(RuleSnapshots snapshots, ObjectMapper objectMapper,
+                           @Value("${discount.rules.file:}") String location) {
+        this.snapshots = snapshots;
+        this.objectMapper = objectMapper;
+        this.location = location;
+    }
+
+    @Scheduled(fixedDelayString = "${discount.rules.watch-interval-ms:5000}")
+    public void poll() {
+        if (location.isBlank()) {
+            return;
+        }
+
+        try {
+            List<Path> files = ruleFiles(Path.of(location));
+            if (files.isEmpty()) {
+                // A missing file is not an empty promo calendar
+                return;
+            }
+            String seen = fingerprint(files);
+            if (seen.equals(lastSeen)) {
+                return;
+            }
+            // Remember the content even if it fails to parse, so a broken file
+            // is reported once rather than on every poll
+            lastSeen = seen;
+
+            List<RuleDefinition> definitions = new ArrayList<>();
+            for (Path file : files) {
+                definitions.addAll(objectMapper.readValue(file.toFile(), DEFINITIONS));
+            }
+            definitions.removeIf(definition -> !definition.isEnabled());
+            DiscountEngine engine = snapshots.publish(RuleFactory.createScoped(definitions));
+            log.info("Published rule snapshot v{} ({} rules, {} chain-wide) from {}",
+                    engine.getVersion(), snapshots.published().getRules().size(), engine.getRules().size(), location);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Keeping current rule snapshot, could not load {}: {}", location, e.getMessage());
+        }
+    }
+
+    private static List<Path> ruleFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Files.exists(path) ? List.of(path) : List.of();
+        }
+        try (Stream<Path> entries = Files.list(path)) {
+            return entries.filter(p -> p.toString().endsWith(".json")).sorted().toList();
+        }
+    }
+
+    // Name, size and modification time of every file; cheap to compute on each poll
+    private static String fingerprint(List<Path> files) throws IOException {
+        StringBuilder key = new StringBuilder();
+        for (Path file : files) {
+            key.append(file).append(':')
+                    .append(Files.size(file)).append(':')
+                    .append(Files.getLastModifiedTime(file).toMillis()).append(';');
+        }
+        return key.toString();
+    }
+}
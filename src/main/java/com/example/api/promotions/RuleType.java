@@ -0,0 +1,11 @@
+package com.example.api.promotions;
+
+// Built-in rule implementations a stored definition can compile to
+public enum RuleType {
+    BOGO,               // BuyOneGetOne: one category
+    BUY_X_GET_Y,        // BuyXGetY: parameters buyQty, freeQty; one keyword
+    PERCENT_OFF,        // PercentOff: parameter percent; any categories (none = all items)
+    MIX_MATCH_ENERGY,   // MixAndMatchEnergyDrinks: no parameters
+    MIX_MATCH,          // MixAndMatch: parameters bundleSize, bundlePrice; any keywords and categories
+    DSL                 // RuleCompiler: parameter expression, e.g. "buy 2 POLAR POP get 1 free"
+}
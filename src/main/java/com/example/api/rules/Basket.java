@@ -0,0 +1,128 @@
+package com.example.api.rules;
+
+import com.example.api.model.BasketItem;
+import java.util.*;
+
+// Internal, primitive-specialized form of a basket: one slot per line in
+// parallel arrays, money in cents, categories as interned ids.
+// Built once at the request boundary; rules and the engine only read it. The one
+// exception is a lane session (PricingSession), which edits its own basket a line
+// at a time between pricings; the arrays then have room beyond size().
+// Categories are looked up, never registered (see Categories): one no rule names
+// has id NONE, and its name as sent stays in category(line).
+public final class Basket {
+    private int size;
+    private String[] upcs;
+    private String[] descriptions;
+    private long[] priceCents;
+    private int[] quantities;
+    private String[] categories;
+    private int[] categoryIds;
+    private long subtotalCents;
+
+    private Basket(int size, String[] upcs, String[] descriptions, long[] priceCents,
+                   int[] quantities, String[] categories, int[] categoryIds) {
+        this.size = size;
+        this.upcs = upcs;
+        this.descriptions = descriptions;
+        this.priceCents = priceCents;
+        this.quantities = quantities;
+        this.categories = categories;
+        this.categoryIds = categoryIds;
+
+        long subtotal = 0;
+        for (int line = 0; line < size; line++) {
+            subtotal += priceCents[line] * quantities[line];
+        }
+        this.subtotalCents = subtotal;
+    }
+
+    public static Basket of(List<BasketItem> items) {
+        int n = items.size();
+        String[] upcs = new String[n];
+        String[] descriptions = new String[n];
+        long[] priceCents = new long[n];
+        int[] quantities = new int[n];
+        String[] categories = new String[n];
+        int[] categoryIds = new int[n];
+
+        for (int line = 0; line < n; line++) {
+            BasketItem item = items.get(line);
+            upcs[line] = item.getUpc();
+            descriptions[line] = item.getDescription();
+            priceCents[line] = Money.toCents(item.getPrice());
+            quantities[line] = item.getQuantity();
+            categories[line] = item.getCategory();
+            categoryIds[line] = Categories.lookup(categories[line]);
+        }
+
+        return new Basket(n, upcs, descriptions, priceCents, quantities, categories, categoryIds);
+    }
+
+    // Wire decoders fill the arrays directly, with no BasketItem in between; the
+    // basket owns them afterwards, so callers must not touch them again
+    public static Basket of(String[] upcs, String[] descriptions, long[] priceCents,
+                            int[] quantities, String[] categories, int[] categoryIds) {
+        return new Basket(upcs.length, upcs, descriptions, priceCents, quantities, categories, categoryIds);
+    }
+
+    // Adds a line after the last one
+    public void append(BasketItem item) {
+        if (size == upcs.length) {
+            int capacity = Math.max(4, size * 2);
+            upcs = Arrays.copyOf(upcs, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+        }
+        upcs[size] = item.getUpc();
+        descriptions[size] = item.getDescription();
+        priceCents[size] = Money.toCents(item.getPrice());
+        quantities[size] = item.getQuantity();
+        categories[size] = item.getCategory();
+        categoryIds[size] = Categories.lookup(categories[size]);
+        subtotalCents += priceCents[size] * quantities[size];
+        size++;
+    }
+
+    public void setQuantity(int line, int quantity) {
+        subtotalCents += priceCents[line] * (quantity - quantities[line]);
+        quantities[line] = quantity;
+    }
+
+    // Drops the line; the lines after it move up one
+    public void remove(int line) {
+        subtotalCents -= lineCents(line);
+        int after = size - line - 1;
+        System.arraycopy(upcs, line + 1, upcs, line, after);
+        System.arraycopy(descriptions, line + 1, descriptions, line, after);
+        System.arraycopy(priceCents, line + 1, priceCents, line, after);
+        System.arraycopy(quantities, line + 1, quantities, line, after);
+        System.arraycopy(categories, line + 1, categories, line, after);
+        System.arraycopy(categoryIds, line + 1, categoryIds, line, after);
+        size--;
+        upcs[size] = null;
+        descriptions[size] = null;
+        categories[size] = null;
+    }
+
+    public int size() { return size; }
+    public String upc(int line) { return upcs[line]; }
+    public String description(int line) { return descriptions[line]; }
+    public long priceCents(int line) { return priceCents[line]; }
+    public int quantity(int line) { return quantities[line]; }
+    public String category(int line) { return categories[line]; }
+    public int categoryId(int line) { return categoryIds[line]; }
+    public long lineCents(int line) { return priceCents[line] * quantities[line]; }
+    public long subtotalCents() { return subtotalCents; }
+
+    public int[] allLines() {
+        int[] lines = new int[size];
+        for (int line = 0; line < size; line++) {
+            lines[line] = line;
+        }
+        return lines;
+    }
+}
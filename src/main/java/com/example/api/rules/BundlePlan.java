@@ -0,0 +1,225 @@
+package com.example.api.rules;
+
+import java.util.Arrays;
+
+// Which units of a basket go into the bundles of one "any N for $X" promotion.
+// Qualifying lines are sorted by unit price once (lines, not units: every unit of
+// a line costs the same), then units are taken most expensive first in
+// consecutive groups of N. The saving of b bundles is the price of the top b*N
+// units minus b*X, so this is the best selection; it stops at the first bundle
+// that would not save anything, leaving the cheapest units unbundled.
+// Identical bundles drawn from one line are kept as a single run, so the work is
+// O(n log n) in qualifying lines however large the quantities are.
+// The engine only needs the offers, which offers() writes from a Scratch the sink
+// keeps, so pricing plans bundles without allocating; select() builds a plan
+// object for callers that want the result itself.
+public final class BundlePlan {
+    private final int[] bundledUnits;
+    private final int bundles;
+    private final long savingCents;
+
+    // Run r is one bundle composition: units[i] units of lines[i] for i in
+    // [runStart[r], runStart[r + 1]), saving runSaving[r] cents, repeated runRepeat[r] times
+    private final int runs;
+    private final int[] runStart;
+    private final int[] runRepeat;
+    private final long[] runSaving;
+    private final int[] lines;
+    private final int[] units;
+
+    private BundlePlan(int basketSize, Runs runs) {
+        this.runs = runs.count;
+        this.runStart = runs.start;
+        this.runRepeat = runs.repeat;
+        this.runSaving = runs.saving;
+        this.lines = runs.lines;
+        this.units = runs.units;
+        this.bundledUnits = new int[basketSize];
+
+        int bundles = 0;
+        long saving = 0;
+        for (int r = 0; r < this.runs; r++) {
+            bundles += runRepeat[r];
+            saving += runRepeat[r] * runSaving[r];
+            for (int i = runStart[r]; i < runStart[r + 1]; i++) {
+                bundledUnits[lines[i]] += runRepeat[r] * units[i];
+            }
+        }
+        this.bundles = bundles;
+        this.savingCents = saving;
+    }
+
+    // Plans bundles over the given lines, all of which must qualify for the promotion
+    public static BundlePlan select(Basket basket, int[] qualifying, int bundleSize, long bundlePriceCents) {
+        Runs runs = new Runs();
+        plan(basket, qualifying, qualifying.length, bundleSize, bundlePriceCents, runs, new long[qualifying.length]);
+        return new BundlePlan(basket.size(), runs);
+    }
+
+    // Plans bundles over the first count qualifying lines and offers one run at a
+    // time. The solver may use fewer bundles than planned when a competing rule
+    // saves more on some of the units. qualifying may be sink.bundleScratch().lines().
+    public static void offers(Basket basket, int[] qualifying, int count, int bundleSize, long bundlePriceCents,
+                              OfferSink sink) {
+        Scratch scratch = sink.bundleScratch();
+        Runs runs = scratch.runs;
+        runs.reset();
+        plan(basket, qualifying, count, bundleSize, bundlePriceCents, runs, scratch.sorted(count));
+        for (int r = 0; r < runs.count; r++) {
+            sink.offer(runs.lines, runs.units, runs.start[r], runs.start[r + 1],
+                    runs.saving[r] * Money.SUB_CENTS, runs.repeat[r]);
+        }
+    }
+
+    private static void plan(Basket basket, int[] qualifying, int count, int bundleSize, long bundlePriceCents,
+                             Runs runs, long[] sorted) {
+        // Packed as (inverted price << 32 | line): ascending order is most expensive
+        // first, then basket order. Unit prices stay below $21M, well inside 31 bits.
+        int n = 0;
+        long remaining = 0;
+        for (int q = 0; q < count; q++) {
+            int line = qualifying[q];
+            if (basket.quantity(line) > 0) {
+                sorted[n++] = ((Integer.MAX_VALUE - basket.priceCents(line)) << 32) | line;
+                remaining += basket.quantity(line);
+            }
+        }
+        Arrays.sort(sorted, 0, n);
+
+        int i = 0;
+        int left = n > 0 ? basket.quantity(line(sorted[0])) : 0; // unbundled units of sorted[i]
+        while (remaining >= bundleSize) {
+            int line = line(sorted[i]);
+            if (left >= bundleSize) {
+                // As many whole bundles as this line fills on its own
+                long saving = bundleSize * basket.priceCents(line) - bundlePriceCents;
+                if (saving <= 0) {
+                    break;
+                }
+                int repeat = left / bundleSize;
+                runs.open();
+                runs.add(line, bundleSize);
+                runs.close(repeat, saving);
+                left -= repeat * bundleSize;
+                remaining -= (long) repeat * bundleSize;
+            } else {
+                // One bundle spanning this line and the next cheaper ones
+                runs.open();
+                long regular = 0;
+                for (int need = bundleSize; need > 0; ) {
+                    int take = Math.min(need, left);
+                    runs.add(line(sorted[i]), take);
+                    regular += take * basket.priceCents(line(sorted[i]));
+                    need -= take;
+                    left -= take;
+                    if (need > 0) {
+                        left = basket.quantity(line(sorted[++i]));
+                    }
+                }
+                if (regular <= bundlePriceCents) {
+                    break; // the open run is dropped
+                }
+                runs.close(1, regular - bundlePriceCents);
+                remaining -= bundleSize;
+            }
+            if (left == 0 && i + 1 < n) {
+                left = basket.quantity(line(sorted[++i]));
+            }
+        }
+    }
+
+    public int getBundles() { return bundles; }
+    public long getSavingCents() { return savingCents; }
+
+    // Units of the basket line that went into a bundle
+    public int bundledUnits(int line) { return bundledUnits[line]; }
+
+    // Lines with at least one bundled unit, in basket order
+    public int[] getBundledLines() {
+        int count = 0;
+        for (int units : bundledUnits) {
+            if (units > 0) {
+                count++;
+            }
+        }
+        int[] bundled = new int[count];
+        for (int line = 0, i = 0; line < bundledUnits.length; line++) {
+            if (bundledUnits[line] > 0) {
+                bundled[i++] = line;
+            }
+        }
+        return bundled;
+    }
+
+    public DiscountResult toResult(String description) {
+        return bundles == 0
+                ? DiscountResult.NONE
+                : new DiscountResult(savingCents, description, getBundledLines());
+    }
+
+    private static int line(long packed) {
+        return (int) packed;
+    }
+
+    // Storage for offers(), grown to the largest basket seen and then reused
+    public static final class Scratch {
+        private final Runs runs = new Runs();
+        private int[] lines = new int[16];
+        private long[] sorted = new long[16];
+
+        // For the caller's qualifying lines: at least size entries, contents undefined
+        public int[] lines(int size) {
+            if (lines.length < size) {
+                lines = new int[Math.max(size, lines.length * 2)];
+            }
+            return lines;
+        }
+
+        private long[] sorted(int size) {
+            if (sorted.length < size) {
+                sorted = new long[Math.max(size, sorted.length * 2)];
+            }
+            return sorted;
+        }
+    }
+
+    // Growable run storage; entries added after open() only count once close()d
+    private static final class Runs {
+        int count;
+        int[] start = new int[4];
+        int[] repeat = new int[4];
+        long[] saving = new long[4];
+        int entries;
+        int[] lines = new int[8];
+        int[] units = new int[8];
+
+        void reset() {
+            count = 0;
+            entries = 0;
+        }
+
+        void open() {
+            entries = start[count];
+        }
+
+        void add(int line, int take) {
+            if (entries == lines.length) {
+                lines = Arrays.copyOf(lines, entries * 2);
+                units = Arrays.copyOf(units, entries * 2);
+            }
+            lines[entries] = line;
+            units[entries++] = take;
+        }
+
+        void close(int times, long bundleSaving) {
+            if (count + 2 > start.length) {
+                start = Arrays.copyOf(start, start.length * 2);
+                repeat = Arrays.copyOf(repeat, start.length);
+                saving = Arrays.copyOf(saving, start.length);
+            }
+            repeat[count] = times;
+            saving[count] = bundleSaving;
+            start[++count] = entries;
+        }
+    }
+}
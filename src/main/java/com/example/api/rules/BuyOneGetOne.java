@@ -1,14 +1,16 @@
 package com.example.api.rules;
 
-import com.example.api.model.BasketItem;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class BuyOneGetOne implements DiscountRule {
     private final String category;
+    private final int categoryId;
+    private final String description;
 
     public BuyOneGetOne(String category) {
         this.category = category;
+        this.categoryId = Categories.register(category);
+        this.description = "Buy One Get One on " + category;
     }
 
     @Override
@@ -17,33 +19,59 @@ public class BuyOneGetOne implements DiscountRule {
     }
 
     @Override
-    public DiscountResult apply(List<BasketItem> items) {
-        List<BasketItem> eligible = items.stream()
-                .filter(item -> category.equals(item.getCategory()))
-                .collect(Collectors.toList());
-
-        if (eligible.isEmpty()) {
-            return new DiscountResult(0, "", List.of());
-        }
+    public String getDescription() {
+        return description;
+    }
 
-        // Sort by price (discount cheapest items)
-        eligible.sort(Comparator.comparingDouble(BasketItem::getPrice));
+    @Override
+    public Set<String> getCategories() {
+        return Set.of(category);
+    }
 
-        double discount = 0;
-        List<String> affected = new ArrayList<>();
+    @Override
+    public DiscountResult apply(Basket basket, int[] lines) {
+        long discount = 0;
+        int[] affected = new int[lines.length];
+        int affectedCount = 0;
 
-        for (BasketItem item : eligible) {
-            int pairs = item.getQuantity() / 2;
+        // Every full pair on a line gets one unit free
+        for (int line : lines) {
+            if (basket.categoryId(line) != categoryId) {
+                continue;
+            }
+            int pairs = basket.quantity(line) / 2;
             if (pairs > 0) {
-                discount += pairs * item.getPrice();
-                affected.add(item.getDescription());
+                discount += pairs * basket.priceCents(line);
+                affected[affectedCount++] = line;
             }
         }
 
+        if (affectedCount == 0) {
+            return DiscountResult.NONE;
+        }
+
         return new DiscountResult(
                 discount,
-                "Buy One Get One on " + category,
-                affected
+                description,
+                Arrays.copyOf(affected, affectedCount)
         );
     }
-}
\ No newline at end of file
+
+    // Each pair on a line is a separate application, so the solver can give some
+    // pairs to this rule and leave the rest of the line to another
+    @Override
+    public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        for (int i = 0; i < count; i++) {
+            int line = lines[i];
+            int pairs = basket.quantity(line) / 2;
+            if (basket.categoryId(line) == categoryId && pairs > 0) {
+                sink.offer(line, 2, basket.priceCents(line) * Money.SUB_CENTS, pairs);
+            }
+        }
+    }
+
+    @Override
+    public boolean isLineLocal() {
+        return true;
+    }
+}
@@ -1,17 +1,21 @@
 package com.example.api.rules;
 
-import com.example.api.model.BasketItem;
 import java.util.List;
+import java.util.Set;
 
 public class BuyXGetY implements DiscountRule {
     private final int buyQty;
     private final int freeQty;
     private final String itemKeyword;
+    private final KeywordMatcher keywordMatcher;
+    private final String description;
 
     public BuyXGetY(int buyQty, int freeQty, String itemKeyword) {
         this.buyQty = buyQty;
         this.freeQty = freeQty;
         this.itemKeyword = itemKeyword.toUpperCase();
+        this.keywordMatcher = KeywordMatcher.of(List.of(this.itemKeyword));
+        this.description = String.format("Buy %d Get %d Free on %s", buyQty, freeQty, this.itemKeyword);
     }
 
     @Override
@@ -20,23 +24,54 @@ public class BuyXGetY implements DiscountRule {
     }
 
     @Override
-    public DiscountResult apply(List<BasketItem> items) {
-        BasketItem target = items.stream()
-                .filter(item -> item.getDescription().toUpperCase().contains(itemKeyword))
-                .findFirst()
-                .orElse(null);
-
-        if (target == null || target.getQuantity() < buyQty) {
-            return new DiscountResult(0, "", List.of());
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Set<String> getKeywords() {
+        return Set.of(itemKeyword);
+    }
+
+    @Override
+    public DiscountResult apply(Basket basket, int[] lines) {
+        int target = target(basket, lines, lines.length);
+        if (target < 0 || basket.quantity(target) < buyQty) {
+            return DiscountResult.NONE;
         }
 
-        int sets = target.getQuantity() / (buyQty + freeQty);
-        double discount = sets * freeQty * target.getPrice();
+        int sets = basket.quantity(target) / (buyQty + freeQty);
+        long discount = (long) sets * freeQty * basket.priceCents(target);
 
         return new DiscountResult(
                 discount,
-                String.format("Buy %d Get %d Free on %s", buyQty, freeQty, itemKeyword),
-                List.of(target.getDescription())
+                description,
+                new int[] { target }
         );
     }
-}
\ No newline at end of file
+
+    // One application per complete buy-plus-free set on the target line
+    @Override
+    public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        int target = target(basket, lines, count);
+        if (target < 0) {
+            return;
+        }
+        int sets = basket.quantity(target) / (buyQty + freeQty);
+        if (sets > 0) {
+            sink.offer(target, buyQty + freeQty, freeQty * basket.priceCents(target) * Money.SUB_CENTS, sets);
+        }
+    }
+
+    // First line whose description carries the keyword
+    private int target(Basket basket, int[] lines, int count) {
+        for (int i = 0; i < count; i++) {
+            int line = lines[i];
+            String description = basket.description(line);
+            if (description != null && keywordMatcher.matchesAny(description)) {
+                return line;
+            }
+        }
+        return -1;
+    }
+}
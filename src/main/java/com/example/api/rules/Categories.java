@@ -0,0 +1,51 @@
+package com.example.api.rules;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Process-wide category interning so rules compare small ints instead of strings.
+// Ids are dense and stable for the life of the JVM.
+// Only rules and the product catalog register categories, so the table is bounded
+// by configuration. Request baskets only look names up: a category no rule or
+// catalog entry has named is NONE, since nothing could match it anyway.
+public final class Categories {
+    public static final int NONE = -1;
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final List<String> NAMES = new CopyOnWriteArrayList<>();
+
+    private Categories() {}
+
+    // Interns the category; for rule and catalog loading, never for request data
+    public static int register(String category) {
+        if (category == null) {
+            return NONE;
+        }
+        Integer id = IDS.get(category);
+        return id != null ? id : IDS.computeIfAbsent(category, Categories::assign);
+    }
+
+    // Id of an already registered category, or NONE. Never grows the table.
+    public static int lookup(String category) {
+        if (category == null) {
+            return NONE;
+        }
+        Integer id = IDS.get(category);
+        return id != null ? id : NONE;
+    }
+
+    public static String name(int id) {
+        return id == NONE ? null : NAMES.get(id);
+    }
+
+    public static int size() {
+        return NAMES.size();
+    }
+
+    // Called under the map's lock for this key, so ids are assigned once
+    private static synchronized Integer assign(String category) {
+        NAMES.add(category);
+        return NAMES.size() - 1;
+    }
+}
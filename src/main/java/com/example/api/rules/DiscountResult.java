@@ -1,19 +1,21 @@
 package com.example.api.rules;
 
-import java.util.List;
-
 public class DiscountResult {
-    private final double amount;
+    public static final DiscountResult NONE = new DiscountResult(0, "", new int[0]);
+
+    private final long amountCents;
     private final String description;
-    private final List<String> affectedItems;
+    private final int[] affectedLines;
 
-    public DiscountResult(double amount, String description, List<String> affectedItems) {
-        this.amount = amount;
+    // Affected lines are basket line indices; the engine resolves UPCs and
+    // descriptions through the basket itself, with no searching
+    public DiscountResult(long amountCents, String description, int[] affectedLines) {
+        this.amountCents = amountCents;
         this.description = description;
-        this.affectedItems = affectedItems;
+        this.affectedLines = affectedLines;
     }
 
-    public double getAmount() { return amount; }
+    public long getAmountCents() { return amountCents; }
     public String getDescription() { return description; }
-    public List<String> getAffectedItems() { return affectedItems; }
-}
\ No newline at end of file
+    public int[] getAffectedLines() { return affectedLines; }
+}
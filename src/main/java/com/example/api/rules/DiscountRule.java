@@ -1,9 +1,64 @@
 package com.example.api.rules;
 
 import com.example.api.model.BasketItem;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 public interface DiscountRule {
     String getName();
-    DiscountResult apply(List<BasketItem> items);
-}
\ No newline at end of file
+
+    // Shown with the applied discount; fixed per rule, independent of the basket
+    default String getDescription() { return getName(); }
+
+    // Higher priority rules are resolved and listed first; rules of equal priority
+    // keep the order they were given in. See StackingGroup for how rules combine.
+    // PrioritizedRule sets both on an existing rule.
+    default int getPriority() { return 0; }
+    default StackingGroup getStacking() { return StackingGroup.BEST_OF; }
+
+    // Evaluates the rule over the given lines of the basket (line indices in
+    // basket order). Amounts are in cents; affected lines are basket indices.
+    // The lines array may be scratch reused for the next rule, here and in
+    // offers(): read it during the call, never keep it.
+    DiscountResult apply(Basket basket, int[] lines);
+
+    // Convenience for callers holding plain items: every line is offered
+    default DiscountResult apply(List<BasketItem> items) {
+        Basket basket = Basket.of(items);
+        return apply(basket, basket.allLines());
+    }
+
+    // Describes the rule's possible applications to the allocation solver, over the
+    // first count entries of lines (the engine's bucket, which may be longer). The
+    // default offers the whole apply() result once, consuming every unit of the
+    // affected lines; rules that can discount part of a line should offer per-unit
+    // applications instead. The default allocates what apply() does and more, so
+    // every built-in rule overrides it and writes offers straight into the sink.
+    default void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        DiscountResult result = apply(basket, count == lines.length ? lines : Arrays.copyOf(lines, count));
+        int[] affected = result.getAffectedLines();
+        if (result.getAmountCents() <= 0 || affected.length == 0) {
+            return;
+        }
+        int[] units = new int[affected.length];
+        for (int i = 0; i < affected.length; i++) {
+            units[i] = basket.quantity(affected[i]);
+        }
+        sink.offer(affected, units, result.getAmountCents() * Money.SUB_CENTS, 1);
+    }
+
+    // Whether each offer covers one line and depends on that line alone, so the
+    // offers for some lines are the offers for all of them restricted to those
+    // lines. Lane sessions (PricingSession) then redo only a scanned line's offers.
+    // Bundles and rules that pick one line among several are not line-local.
+    default boolean isLineLocal() { return false; }
+
+    // Match criteria used by RuleIndex to decide which lines a rule can see.
+    // A line reaches the rule if it matches ANY declared category, UPC or keyword,
+    // so apply() must only ever discount lines covered by these declarations.
+    // A rule that declares nothing is offered every line of every basket.
+    default Set<String> getCategories() { return Set.of(); }
+    default Set<String> getUpcs() { return Set.of(); }
+    default Set<String> getKeywords() { return Set.of(); }
+}
@@ -0,0 +1,151 @@
+package com.example.api.rules;
+
+import java.util.*;
+
+// Case-insensitive multi-keyword matcher (Aho-Corasick compiled to a DFA).
+// Scanning a description is one table lookup per character, no matter how many
+// keywords there are, and never allocates: characters are folded one at a time
+// instead of upper-casing a copy of the text.
+public final class KeywordMatcher {
+    private final int[] asciiClass;      // folded ASCII char -> alphabet class
+    private final char[] otherChars;     // sorted folded non-ASCII chars in the alphabet
+    private final int classCount;        // class 0 is "not in any keyword"
+    private final int[] transitions;     // [state * classCount + class] -> next state
+    private final int[][] outputs;       // keyword ids ending at each state (incl. suffixes)
+    private final int keywordCount;
+
+    private KeywordMatcher(List<String> keywords) {
+        this.keywordCount = keywords.size();
+
+        // Alphabet: every distinct folded char used by any keyword
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                alphabet.add(fold(keyword.charAt(i)));
+            }
+        }
+
+        this.asciiClass = new int[128];
+        StringBuilder other = new StringBuilder();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClass[c] = nextClass++;
+            } else {
+                other.append(c);
+            }
+        }
+        this.otherChars = other.toString().toCharArray();
+        this.classCount = nextClass + otherChars.length;
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        trie.add(newRow());
+        stateOutputs.add(new ArrayList<>());
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int c = classOf(fold(keyword.charAt(i)));
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newRow());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            stateOutputs.get(state).add(id);
+        }
+
+        // Breadth-first: resolve failure links and fill in the missing transitions,
+        // turning the trie into a complete DFA
+        int states = trie.size();
+        int[] fail = new int[states];
+        this.transitions = new int[states * classCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        for (int c = 0; c < classCount; c++) {
+            int child = trie.get(0)[c];
+            if (child > 0) {
+                transitions[c] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(fail[state]));
+            for (int c = 0; c < classCount; c++) {
+                int child = trie.get(state)[c];
+                int fallback = transitions[fail[state] * classCount + c];
+                if (child > 0) {
+                    fail[child] = fallback;
+                    transitions[state * classCount + c] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * classCount + c] = fallback;
+                }
+            }
+        }
+
+        this.outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = stateOutputs.get(s).stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    // Keyword ids are positions in iteration order of the given collection
+    public static KeywordMatcher of(Collection<String> keywords) {
+        return new KeywordMatcher(new ArrayList<>(keywords));
+    }
+
+    public int size() {
+        return keywordCount;
+    }
+
+    public boolean matchesAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * classCount + classOf(fold(text.charAt(i)))];
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Sets the id of every keyword found in the text; the caller owns (and clears) the set
+    public void matchAll(CharSequence text, BitSet matches) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * classCount + classOf(fold(text.charAt(i)))];
+            for (int id : outputs[state]) {
+                matches.set(id);
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private int classOf(char folded) {
+        if (folded < 128) {
+            return asciiClass[folded];
+        }
+        int i = Arrays.binarySearch(otherChars, folded);
+        return i < 0 ? 0 : classCount - otherChars.length + i;
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return c >= 'a' && c <= 'z' ? (char) (c - 32) : c;
+        }
+        return Character.toUpperCase(c);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.api.rules;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// "Any N of a product group for $X". The group is a set of description keywords
+// (brands) and/or categories; a line qualifies if it matches any of them.
+// Which units are bundled is decided by BundlePlan.
+public class MixAndMatch implements DiscountRule {
+    private final String name;
+    private final int bundleSize;
+    private final long bundlePriceCents;
+    private final Set<String> keywords;
+    private final Set<String> categories;
+    private final KeywordMatcher keywordMatcher;
+    private final int[] categoryIds;
+    private final String description;
+
+    // Named after its terms, e.g. MIX_MATCH_3_FOR_500
+    public MixAndMatch(int bundleSize, long bundlePriceCents, Set<String> keywords, Set<String> categories) {
+        this("MIX_MATCH_" + bundleSize + "_FOR_" + bundlePriceCents, null,
+                bundleSize, bundlePriceCents, keywords, categories);
+    }
+
+    // groupLabel names the group in the description; null lists its keywords and categories
+    public MixAndMatch(String name, String groupLabel, int bundleSize, long bundlePriceCents,
+                       Set<String> keywords, Set<String> categories) {
+        if (bundleSize < 1) {
+            throw new IllegalArgumentException("Bundle size must be at least 1: " + bundleSize);
+        }
+        if (bundlePriceCents < 0) {
+            throw new IllegalArgumentException("Bundle price must not be negative: " + bundlePriceCents);
+        }
+        if (keywords.isEmpty() && categories.isEmpty()) {
+            throw new IllegalArgumentException("Mix and match rule " + name + " needs keywords or categories");
+        }
+        this.name = name;
+        this.bundleSize = bundleSize;
+        this.bundlePriceCents = bundlePriceCents;
+        this.keywords = keywords.stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet());
+        this.categories = Set.copyOf(categories);
+        this.keywordMatcher = KeywordMatcher.of(this.keywords);
+        this.categoryIds = categories.stream().mapToInt(Categories::register).toArray();
+
+        if (groupLabel == null) {
+            List<String> labels = new ArrayList<>(this.categories);
+            labels.addAll(this.keywords);
+            Collections.sort(labels);
+            groupLabel = String.join(", ", labels);
+        }
+        this.description = String.format("%d for $%.2f on %s", bundleSize, Money.toDollars(bundlePriceCents), groupLabel);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Set<String> getKeywords() {
+        return keywords;
+    }
+
+    @Override
+    public Set<String> getCategories() {
+        return categories;
+    }
+
+    public int getBundleSize() {
+        return bundleSize;
+    }
+
+    public long getBundlePriceCents() {
+        return bundlePriceCents;
+    }
+
+    public BundlePlan plan(Basket basket, int[] lines) {
+        return BundlePlan.select(basket, qualifying(basket, lines), bundleSize, bundlePriceCents);
+    }
+
+    @Override
+    public DiscountResult apply(Basket basket, int[] lines) {
+        return plan(basket, lines).toResult(description);
+    }
+
+    @Override
+    public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        int[] qualifying = sink.bundleScratch().lines(count);
+        int qualifyingCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (matches(basket, lines[i])) {
+                qualifying[qualifyingCount++] = lines[i];
+            }
+        }
+        BundlePlan.offers(basket, qualifying, qualifyingCount, bundleSize, bundlePriceCents, sink);
+    }
+
+    private int[] qualifying(Basket basket, int[] lines) {
+        int[] qualifying = new int[lines.length];
+        int count = 0;
+        for (int line : lines) {
+            if (matches(basket, line)) {
+                qualifying[count++] = line;
+            }
+        }
+        return count == lines.length ? qualifying : Arrays.copyOf(qualifying, count);
+    }
+
+    private boolean matches(Basket basket, int line) {
+        for (int id : categoryIds) {
+            if (id == basket.categoryId(line)) {
+                return true;
+            }
+        }
+        String description = basket.description(line);
+        return description != null && keywordMatcher.matchesAny(description);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.api.rules;
+
+// Fixed-point money helpers. Amounts are whole cents held in longs;
+// doubles only appear at the JSON boundary.
+public final class Money {
+    // Sub-cent scale used when comparing offers, so percentage savings stay exact
+    // until a rule's total is rounded: 1 cent = 10,000 sub-cents
+    public static final long SUB_CENTS = 10_000;
+
+    private Money() {}
+
+    public static long toCents(double dollars) {
+        return Math.round(dollars * 100);
+    }
+
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    // cents * basisPoints / 10_000, rounded half up (1 bp = 0.01%)
+    public static long percentOf(long cents, long basisPoints) {
+        return Math.floorDiv(cents * basisPoints + 5_000, 10_000);
+    }
+
+    public static long toBasisPoints(double percent) {
+        return Math.round(percent * 100);
+    }
+
+    // Rounded half up to whole cents
+    public static long fromSubCents(long subCents) {
+        return Math.floorDiv(subCents + SUB_CENTS / 2, SUB_CENTS);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.api.rules;
+
+import java.util.Arrays;
+
+// Receives the ways a rule could discount a basket, so the engine can allocate
+// units between competing rules (see DiscountRule.offers)
+public interface OfferSink {
+    // One application consumes units[i] units of basket line lines[i] and saves
+    // `saving` (in Money.SUB_CENTS); it may be applied up to maxApplications times
+    void offer(int[] lines, int[] units, long saving, int maxApplications);
+
+    default void offer(int line, int units, long saving, int maxApplications) {
+        offer(new int[] { line }, new int[] { units }, saving, maxApplications);
+    }
+
+    // Entries from (inclusive) to to (exclusive) of lines and units, for rules that
+    // keep every application in one pair of arrays. The engine's sink copies the
+    // range out without allocating; the arrays stay the rule's.
+    default void offer(int[] lines, int[] units, int from, int to, long saving, int maxApplications) {
+        offer(Arrays.copyOfRange(lines, from, to), Arrays.copyOfRange(units, from, to), saving, maxApplications);
+    }
+
+    // Working storage for planning bundles (see BundlePlan.offers). The engine's
+    // sink keeps one per evaluation context, so it is reused from basket to basket.
+    default BundlePlan.Scratch bundleScratch() {
+        return new BundlePlan.Scratch();
+    }
+}
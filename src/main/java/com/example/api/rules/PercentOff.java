@@ -1,29 +1,37 @@
 package com.example.api.rules;
 
-import com.example.api.model.BasketItem;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class PercentOff implements DiscountRule {
     private final double percent;
     private final List<String> categories;
+    private final long basisPoints;
+    private final int[] categoryIds;
+    private final String description;
 
     // Single category
     public PercentOff(double percent, String category) {
-        this.percent = percent;
-        this.categories = Arrays.asList(category);
+        this(percent, Arrays.asList(category));
     }
 
     // Multiple categories
     public PercentOff(double percent, String... categories) {
-        this.percent = percent;
-        this.categories = Arrays.asList(categories);
+        this(percent, Arrays.asList(categories));
     }
 
     // All items
     public PercentOff(double percent) {
+        this(percent, List.of());
+    }
+
+    private PercentOff(double percent, List<String> categories) {
         this.percent = percent;
-        this.categories = List.of();
+        this.categories = categories;
+        this.basisPoints = Money.toBasisPoints(percent);
+        this.categoryIds = categories.stream().mapToInt(Categories::register).toArray();
+        this.description = categories.isEmpty()
+                ? String.format("%.0f%% off everything", percent)
+                : String.format("%.0f%% off %s", percent, String.join(", ", categories));
     }
 
     @Override
@@ -32,21 +40,61 @@ public class PercentOff implements DiscountRule {
     }
 
     @Override
-    public DiscountResult apply(List<BasketItem> items) {
-        double discount = items.stream()
-                .filter(item -> categories.isEmpty() || categories.contains(item.getCategory()))
-                .mapToDouble(item -> item.getPrice() * item.getQuantity() * (percent / 100))
-                .sum();
-
-        List<String> affected = items.stream()
-                .filter(item -> categories.isEmpty() || categories.contains(item.getCategory()))
-                .map(BasketItem::getDescription)
-                .collect(Collectors.toList());
-
-        String desc = categories.isEmpty()
-                ? String.format("%.0f%% off everything", percent)
-                : String.format("%.0f%% off %s", percent, String.join(", ", categories));
+    public String getDescription() {
+        return description;
+    }
+
+    // Empty for the "all items" form, which leaves the rule unindexed
+    @Override
+    public Set<String> getCategories() {
+        return Set.copyOf(categories);
+    }
+
+    @Override
+    public DiscountResult apply(Basket basket, int[] lines) {
+        long eligibleCents = 0;
+        int[] affected = new int[lines.length];
+        int affectedCount = 0;
+
+        for (int line : lines) {
+            if (matches(basket.categoryId(line))) {
+                eligibleCents += basket.lineCents(line);
+                affected[affectedCount++] = line;
+            }
+        }
+
+        // Round once on the eligible total rather than per line
+        long discount = Money.percentOf(eligibleCents, basisPoints);
+
+        return new DiscountResult(discount, description, Arrays.copyOf(affected, affectedCount));
+    }
+
+    // Every unit is its own application; savings stay in sub-cents (cents x basis
+    // points) so the engine still rounds once on the rule's total
+    @Override
+    public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        for (int i = 0; i < count; i++) {
+            int line = lines[i];
+            if (matches(basket.categoryId(line)) && basket.quantity(line) > 0) {
+                sink.offer(line, 1, basket.priceCents(line) * basisPoints, basket.quantity(line));
+            }
+        }
+    }
+
+    @Override
+    public boolean isLineLocal() {
+        return true;
+    }
 
-        return new DiscountResult(discount, desc, affected);
+    private boolean matches(int categoryId) {
+        if (categoryIds.length == 0) {
+            return true;
+        }
+        for (int id : categoryIds) {
+            if (id == categoryId) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.example.api.rules;
+
+import java.util.Set;
+
+// A rule with a priority or stacking group other than its own; everything else
+// is the wrapped rule's
+public final class PrioritizedRule implements DiscountRule {
+    private final DiscountRule rule;
+    private final int priority;
+    private final StackingGroup stacking;
+
+    private PrioritizedRule(DiscountRule rule, int priority, StackingGroup stacking) {
+        this.rule = rule;
+        this.priority = priority;
+        this.stacking = stacking;
+    }
+
+    // Returns the rule itself when it already has this priority and group
+    public static DiscountRule of(DiscountRule rule, int priority, StackingGroup stacking) {
+        if (rule.getPriority() == priority && rule.getStacking() == stacking) {
+            return rule;
+        }
+        DiscountRule inner = rule instanceof PrioritizedRule prioritized ? prioritized.rule : rule;
+        return new PrioritizedRule(inner, priority, stacking);
+    }
+
+    public DiscountRule getRule() {
+        return rule;
+    }
+
+    @Override
+    public String getName() {
+        return rule.getName();
+    }
+
+    @Override
+    public String getDescription() {
+        return rule.getDescription();
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public StackingGroup getStacking() {
+        return stacking;
+    }
+
+    @Override
+    public DiscountResult apply(Basket basket, int[] lines) {
+        return rule.apply(basket, lines);
+    }
+
+    @Override
+    public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        rule.offers(basket, lines, count, sink);
+    }
+
+    @Override
+    public boolean isLineLocal() {
+        return rule.isLineLocal();
+    }
+
+    @Override
+    public Set<String> getCategories() {
+        return rule.getCategories();
+    }
+
+    @Override
+    public Set<String> getUpcs() {
+        return rule.getUpcs();
+    }
+
+    @Override
+    public Set<String> getKeywords() {
+        return rule.getKeywords();
+    }
+}
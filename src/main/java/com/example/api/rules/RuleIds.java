@@ -0,0 +1,23 @@
+package com.example.api.rules;
+
+import java.util.*;
+
+// Ids that tell the rules of one set apart in metrics and reports, where names
+// may collide (a promo copied with different windows, hand-written rules sharing
+// a name). A rule's id is its name, with "#n" added for the n-th rule of that
+// name (n from 2): uniquely named rules keep their names, and ids stay the same
+// from one publish to the next as long as the rules keep their order.
+public final class RuleIds {
+    private RuleIds() {}
+
+    public static List<String> of(List<DiscountRule> rules) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (DiscountRule rule : rules) {
+            String id = rule.getName();
+            for (int n = 2; !ids.add(id); n++) {
+                id = rule.getName() + "#" + n;
+            }
+        }
+        return List.copyOf(ids);
+    }
+}
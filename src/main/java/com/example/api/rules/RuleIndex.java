@@ -0,0 +1,184 @@
+package com.example.api.rules;
+
+import java.util.*;
+
+// Compiled lookup from basket lines to the rules that can match them.
+// Built once per rule set; bucketing a basket is a single pass over its lines
+// and only touches rules that actually match something.
+public class RuleIndex {
+    private final int ruleCount;
+    private final int[][] rulesByCategoryId;
+    private final Map<String, int[]> rulesByUpc;
+    private final KeywordMatcher keywords;
+    private final int[][] rulesByKeyword;
+    private final int[] matchAllRules;
+
+    public RuleIndex(List<DiscountRule> rules) {
+        Map<String, List<Integer>> categories = new HashMap<>();
+        Map<String, List<Integer>> upcs = new HashMap<>();
+        Map<String, List<Integer>> keywordRules = new LinkedHashMap<>();
+        List<Integer> matchAll = new ArrayList<>();
+        this.ruleCount = rules.size();
+
+        for (int id = 0; id < rules.size(); id++) {
+            DiscountRule rule = rules.get(id);
+            Set<String> ruleCategories = rule.getCategories();
+            Set<String> ruleUpcs = rule.getUpcs();
+            Set<String> ruleKeywords = rule.getKeywords();
+
+            if (ruleCategories.isEmpty() && ruleUpcs.isEmpty() && ruleKeywords.isEmpty()) {
+                matchAll.add(id);
+                continue;
+            }
+            for (String category : ruleCategories) {
+                categories.computeIfAbsent(category, k -> new ArrayList<>()).add(id);
+            }
+            for (String upc : ruleUpcs) {
+                upcs.computeIfAbsent(upc, k -> new ArrayList<>()).add(id);
+            }
+            for (String keyword : ruleKeywords) {
+                keywordRules.computeIfAbsent(keyword.toUpperCase(), k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        // Dense table by interned category id; ids not covered by any rule fall outside it
+        int maxCategoryId = categories.keySet().stream().mapToInt(Categories::register).max().orElse(-1);
+        this.rulesByCategoryId = new int[maxCategoryId + 1][];
+        categories.forEach((category, ids) -> rulesByCategoryId[Categories.register(category)] = toArray(ids));
+        this.rulesByUpc = toArrays(upcs);
+        // One matcher for every keyword of every rule; keyword ids follow map order
+        this.keywords = KeywordMatcher.of(keywordRules.keySet());
+        this.rulesByKeyword = keywordRules.values().stream()
+                .map(RuleIndex::toArray)
+                .toArray(int[][]::new);
+        this.matchAllRules = toArray(matchAll);
+    }
+
+    // Groups the basket by rule in one pass over its lines.
+    // Keys are rule positions (in the order the index was built from), values are
+    // the line indices that rule may see, in basket order. Rules with no lines are absent.
+    public SortedMap<Integer, int[]> bucket(Basket basket) {
+        Buckets buckets = new Buckets();
+        bucket(basket, buckets);
+        SortedMap<Integer, int[]> result = new TreeMap<>();
+        for (int id = buckets.next(0); id >= 0; id = buckets.next(id + 1)) {
+            result.put(id, Arrays.copyOf(buckets.lines(id), buckets.count(id)));
+        }
+        return result;
+    }
+
+    // Same grouping into caller-owned buckets, which are cleared first; allocates
+    // nothing once the buckets have seen a basket this size
+    public void bucket(Basket basket, Buckets buckets) {
+        buckets.reset(ruleCount);
+        for (int line = 0; line < basket.size(); line++) {
+            match(basket, line, buckets.matchedKeywords, buckets);
+        }
+    }
+
+    // Rules that can see one line, in rule order: bucket() for a single changed line,
+    // used when a basket is priced incrementally
+    public int[] rulesFor(Basket basket, int line) {
+        BitSet ids = new BitSet();
+        match(basket, line, new BitSet(keywords.size()), (id, matched) -> ids.set(id));
+        return ids.stream().toArray();
+    }
+
+    // Reports every rule the line matches; a rule matching several ways is reported each time
+    private void match(Basket basket, int line, BitSet matchedKeywords, Target target) {
+        for (int id : matchAllRules) {
+            target.add(id, line);
+        }
+
+        int categoryId = basket.categoryId(line);
+        if (categoryId >= 0 && categoryId < rulesByCategoryId.length && rulesByCategoryId[categoryId] != null) {
+            for (int id : rulesByCategoryId[categoryId]) {
+                target.add(id, line);
+            }
+        }
+
+        int[] byUpc = basket.upc(line) == null ? null : rulesByUpc.get(basket.upc(line));
+        if (byUpc != null) {
+            for (int id : byUpc) {
+                target.add(id, line);
+            }
+        }
+
+        String description = basket.description(line);
+        if (keywords.size() > 0 && description != null) {
+            matchedKeywords.clear();
+            keywords.matchAll(description, matchedKeywords);
+            for (int k = matchedKeywords.nextSetBit(0); k >= 0; k = matchedKeywords.nextSetBit(k + 1)) {
+                for (int id : rulesByKeyword[k]) {
+                    target.add(id, line);
+                }
+            }
+        }
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> source) {
+        Map<String, int[]> result = new HashMap<>();
+        source.forEach((key, ids) -> result.put(key, toArray(ids)));
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private interface Target {
+        void add(int ruleId, int line);
+    }
+
+    // Lines per rule for one basket at a time; grown on demand and reused.
+    // Only the rules touched by the last basket are cleared on reset.
+    public static final class Buckets implements Target {
+        private int[][] lines = new int[0][];
+        private int[] counts = new int[0];
+        private final BitSet rules = new BitSet();
+        private final BitSet matchedKeywords = new BitSet();
+
+        // First rule at or after `from` with at least one line, or -1
+        public int next(int from) {
+            return rules.nextSetBit(from);
+        }
+
+        // The rule's lines are the first count(rule) entries, in basket order
+        public int[] lines(int rule) { return lines[rule]; }
+        public int count(int rule) { return counts[rule]; }
+
+        @Override
+        public void add(int ruleId, int line) {
+            int[] bucket = lines[ruleId];
+            int count = counts[ruleId];
+            // A line can match the same rule through several criteria; lines arrive
+            // in order, so checking the tail is enough to keep each line once
+            if (count > 0 && bucket[count - 1] == line) {
+                return;
+            }
+            if (count == 0) {
+                rules.set(ruleId);
+            }
+            if (count == bucket.length) {
+                bucket = lines[ruleId] = Arrays.copyOf(bucket, Math.max(4, count * 2));
+            }
+            bucket[count] = line;
+            counts[ruleId] = count + 1;
+        }
+
+        private void reset(int ruleCount) {
+            for (int id = rules.nextSetBit(0); id >= 0; id = rules.nextSetBit(id + 1)) {
+                counts[id] = 0;
+            }
+            rules.clear();
+            if (lines.length < ruleCount) {
+                int previous = lines.length;
+                lines = Arrays.copyOf(lines, ruleCount);
+                counts = Arrays.copyOf(counts, ruleCount);
+                for (int id = previous; id < ruleCount; id++) {
+                    lines[id] = new int[0];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.api.rules;
+
+import java.time.*;
+import java.util.*;
+
+// Which rules of a set are active in each time slice of [from, until). Computed
+// once per publish: every window boundary in the horizon is collected, the active
+// set is evaluated at each, and consecutive slices with the same rules are merged.
+// Rules without a window are active in every slice and never evaluated.
+// Instants outside the horizon (replays, mostly) are evaluated on demand; sliceAt
+// also says how long that answer holds, so callers can cache it.
+public final class RuleSchedule {
+    private final List<RuleWindow> windows;
+    private final ZoneId zone;
+    private final Instant from;
+    private final Instant until;
+    private final BitSet always;
+    private final int[] timed;
+    private final NavigableMap<Instant, BitSet> slices = new TreeMap<>();
+
+    public RuleSchedule(List<RuleWindow> windows, ZoneId zone, Instant from, Duration horizon) {
+        this.windows = List.copyOf(windows);
+        this.zone = zone;
+        this.from = from;
+        this.until = from.plus(horizon);
+
+        this.always = new BitSet(windows.size());
+        List<Instant> boundaries = new ArrayList<>();
+        int[] timed = new int[windows.size()];
+        int count = 0;
+        for (int i = 0; i < windows.size(); i++) {
+            RuleWindow window = windows.get(i);
+            if (window.isAlways()) {
+                always.set(i);
+            } else {
+                timed[count++] = i;
+                window.boundaries(from, until, zone, boundaries);
+            }
+        }
+        this.timed = Arrays.copyOf(timed, count);
+
+        boundaries.add(from);
+        Collections.sort(boundaries);
+        BitSet previous = null;
+        for (Instant boundary : boundaries) {
+            BitSet active = evaluate(boundary);
+            if (!active.equals(previous)) {
+                slices.put(boundary, active);
+                previous = active;
+            }
+        }
+    }
+
+    // Positions of the rules active at `when`; callers must not modify the result
+    public BitSet activeAt(Instant when) {
+        if (when.isBefore(from) || !when.isBefore(until)) {
+            return evaluate(when);
+        }
+        return slices.floorEntry(when).getValue();
+    }
+
+    // Start of the first slice after `when`, or the end of the horizon, at which
+    // point the schedule has to be recomputed
+    public Instant nextChange(Instant when) {
+        Instant next = slices.higherKey(when);
+        return next != null ? next : until;
+    }
+
+    // The slice holding `when`. Outside the horizon the boundaries are searched
+    // within one horizon either side of it, so the slice returned may be narrower
+    // than the real one, but the active rules never change inside it.
+    public Slice sliceAt(Instant when) {
+        if (covers(when)) {
+            Map.Entry<Instant, BitSet> slice = slices.floorEntry(when);
+            return new Slice(slice.getKey(), nextChange(when), slice.getValue());
+        }
+        Duration span = Duration.between(from, until);
+        Instant start = when.minus(span);
+        Instant end = when.plus(span);
+        List<Instant> boundaries = new ArrayList<>();
+        for (int i : timed) {
+            windows.get(i).boundaries(start, end, zone, boundaries);
+        }
+        for (Instant boundary : boundaries) {
+            if (boundary.isAfter(when)) {
+                end = boundary.isBefore(end) ? boundary : end;
+            } else if (boundary.isAfter(start)) {
+                start = boundary;
+            }
+        }
+        return new Slice(start, end, evaluate(when));
+    }
+
+    public boolean covers(Instant when) {
+        return !when.isBefore(from) && when.isBefore(until);
+    }
+
+    public int sliceCount() {
+        return slices.size();
+    }
+
+    // Rules active throughout [start, end); callers must not modify `active`
+    public static final class Slice {
+        private final Instant start;
+        private final Instant end;
+        private final BitSet active;
+
+        Slice(Instant start, Instant end, BitSet active) {
+            this.start = start;
+            this.end = end;
+            this.active = active;
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        public Instant getEnd() {
+            return end;
+        }
+
+        public BitSet getActive() {
+            return active;
+        }
+
+        public boolean contains(Instant when) {
+            return !when.isBefore(start) && when.isBefore(end);
+        }
+    }
+
+    private BitSet evaluate(Instant when) {
+        BitSet active = (BitSet) always.clone();
+        for (int i : timed) {
+            if (windows.get(i).isActiveAt(when, zone)) {
+                active.set(i);
+            }
+        }
+        return active;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.api.rules;
+
+import java.util.*;
+
+// Where a rule runs: chain-wide, or only in the listed stores and/or regions.
+// A store sees the rule if the store itself or its region is listed.
+public final class RuleScope {
+    public static final RuleScope CHAIN_WIDE = new RuleScope(Set.of(), Set.of());
+
+    private final Set<String> stores;
+    private final Set<String> regions;
+
+    private RuleScope(Set<String> stores, Set<String> regions) {
+        this.stores = stores;
+        this.regions = regions;
+    }
+
+    public static RuleScope of(Collection<String> stores, Collection<String> regions) {
+        if (stores.isEmpty() && regions.isEmpty()) {
+            return CHAIN_WIDE;
+        }
+        return new RuleScope(Set.copyOf(stores), Set.copyOf(regions));
+    }
+
+    public Set<String> getStores() { return stores; }
+    public Set<String> getRegions() { return regions; }
+
+    public boolean isChainWide() {
+        return stores.isEmpty() && regions.isEmpty();
+    }
+
+    // Either id may be null when the request does not carry it
+    public boolean appliesTo(String store, String region) {
+        return isChainWide()
+                || (store != null && stores.contains(store))
+                || (region != null && regions.contains(region));
+    }
+
+    // Runs wherever either scope does
+    public RuleScope union(RuleScope other) {
+        if (isChainWide() || other.isChainWide()) {
+            return CHAIN_WIDE;
+        }
+        Set<String> allStores = new HashSet<>(stores);
+        allStores.addAll(other.stores);
+        Set<String> allRegions = new HashSet<>(regions);
+        allRegions.addAll(other.regions);
+        return of(allStores, allRegions);
+    }
+
+    @Override
+    public String toString() {
+        return isChainWide() ? "chain-wide" : "stores=" + new TreeSet<>(stores) + " regions=" + new TreeSet<>(regions);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.api.rules;
+
+import java.time.*;
+import java.util.*;
+
+// When a rule runs: an overall validity range (either end open; `to` is exclusive)
+// and optionally days of the week and a daily time window, in the chain's time zone.
+// A daily window whose end is not after its start runs past midnight, and belongs to
+// the day it starts on (Friday 22:00-02:00 runs into Saturday morning).
+// Windows are only evaluated when the rule schedule is computed, never per request.
+public final class RuleWindow {
+    public static final RuleWindow ALWAYS = new RuleWindow(null, null, Set.of(), null, null);
+
+    private final Instant from;
+    private final Instant to;
+    private final Set<DayOfWeek> days;
+    private final LocalTime start;
+    private final LocalTime end;
+
+    private RuleWindow(Instant from, Instant to, Set<DayOfWeek> days, LocalTime start, LocalTime end) {
+        this.from = from;
+        this.to = to;
+        this.days = days;
+        this.start = start;
+        this.end = end;
+    }
+
+    // Empty days means every day; start and end are given together or not at all
+    public static RuleWindow of(Instant from, Instant to, Collection<DayOfWeek> days, LocalTime start, LocalTime end) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Window ends (" + to + ") before it starts (" + from + ")");
+        }
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("Daily window needs both a start and an end time");
+        }
+        if (start != null && start.equals(end)) {
+            throw new IllegalArgumentException("Daily window starts and ends at " + start);
+        }
+        Set<DayOfWeek> daySet = days.isEmpty() ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(days));
+        if (from == null && to == null && daySet.isEmpty() && start == null) {
+            return ALWAYS;
+        }
+        return new RuleWindow(from, to, daySet, start, end);
+    }
+
+    public boolean isAlways() {
+        return from == null && to == null && !isRecurring();
+    }
+
+    public boolean isActiveAt(Instant when, ZoneId zone) {
+        if ((from != null && when.isBefore(from)) || (to != null && !when.isBefore(to))) {
+            return false;
+        }
+        if (!isRecurring()) {
+            return true;
+        }
+        LocalDateTime local = LocalDateTime.ofInstant(when, zone);
+        DayOfWeek day = local.getDayOfWeek();
+        if (start == null) {
+            return days.contains(day);
+        }
+        LocalTime time = local.toLocalTime();
+        if (start.isBefore(end)) {
+            return runsOn(day) && !time.isBefore(start) && time.isBefore(end);
+        }
+        return (runsOn(day) && !time.isBefore(start)) || (runsOn(day.minus(1)) && time.isBefore(end));
+    }
+
+    // Every instant in [after, until) at which isActiveAt may change. Recurring windows
+    // report each day's start, end and midnight; instants where nothing actually
+    // changes are merged away by RuleSchedule.
+    void boundaries(Instant after, Instant until, ZoneId zone, Collection<Instant> out) {
+        addIfWithin(from, after, until, out);
+        addIfWithin(to, after, until, out);
+        if (!isRecurring()) {
+            return;
+        }
+        LocalDate last = LocalDate.ofInstant(until, zone);
+        for (LocalDate date = LocalDate.ofInstant(after, zone); !date.isAfter(last); date = date.plusDays(1)) {
+            addIfWithin(date.atStartOfDay(zone).toInstant(), after, until, out);
+            if (start != null) {
+                addIfWithin(date.atTime(start).atZone(zone).toInstant(), after, until, out);
+                addIfWithin(date.atTime(end).atZone(zone).toInstant(), after, until, out);
+            }
+        }
+    }
+
+    private boolean isRecurring() {
+        return !days.isEmpty() || start != null;
+    }
+
+    private boolean runsOn(DayOfWeek day) {
+        return days.isEmpty() || days.contains(day);
+    }
+
+    private static void addIfWithin(Instant instant, Instant after, Instant until, Collection<Instant> out) {
+        if (instant != null && instant.isAfter(after) && instant.isBefore(until)) {
+            out.add(instant);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RuleWindow other
+                && Objects.equals(from, other.from) && Objects.equals(to, other.to)
+                && days.equals(other.days) && Objects.equals(start, other.start) && Objects.equals(end, other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, days, start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (isAlways()) {
+            return "always";
+        }
+        StringBuilder text = new StringBuilder();
+        if (from != null || to != null) {
+            text.append(from == null ? "..." : from).append(" to ").append(to == null ? "..." : to);
+        }
+        if (!days.isEmpty()) {
+            text.append(text.isEmpty() ? "" : " ").append(days);
+        }
+        if (start != null) {
+            text.append(text.isEmpty() ? "" : " ").append(start).append('-').append(end);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.api.rules;
+
+import java.util.*;
+
+// A rule set as loaded: rules in evaluation order, each with its scope, the
+// time window it runs in and its id (see RuleIds). Selections keep the ids the
+// rules had in the full set, so a rule is metered the same way in every tenant
+// engine and time slice.
+public final class ScopedRules {
+    private final List<DiscountRule> rules;
+    private final List<RuleScope> scopes;
+    private final List<RuleWindow> windows;
+    private final List<String> ids;
+
+    public ScopedRules(List<DiscountRule> rules, List<RuleScope> scopes) {
+        this(rules, scopes, Collections.nCopies(rules.size(), RuleWindow.ALWAYS));
+    }
+
+    public ScopedRules(List<DiscountRule> rules, List<RuleScope> scopes, List<RuleWindow> windows) {
+        this(rules, scopes, windows, RuleIds.of(rules));
+    }
+
+    private ScopedRules(List<DiscountRule> rules, List<RuleScope> scopes, List<RuleWindow> windows,
+                        List<String> ids) {
+        if (rules.size() != scopes.size() || rules.size() != windows.size()) {
+            throw new IllegalArgumentException(rules.size() + " rules but " + scopes.size() + " scopes and "
+                    + windows.size() + " windows");
+        }
+        this.rules = List.copyOf(rules);
+        this.scopes = List.copyOf(scopes);
+        this.windows = List.copyOf(windows);
+        this.ids = List.copyOf(ids);
+    }
+
+    public static ScopedRules chainWide(List<DiscountRule> rules) {
+        return new ScopedRules(rules, Collections.nCopies(rules.size(), RuleScope.CHAIN_WIDE));
+    }
+
+    // The rules at the given positions, in order; windows are dropped since the
+    // selection is already what one time slice runs
+    public ScopedRules select(BitSet positions) {
+        List<DiscountRule> selectedRules = new ArrayList<>(positions.cardinality());
+        List<RuleScope> selectedScopes = new ArrayList<>(positions.cardinality());
+        List<String> selectedIds = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            selectedRules.add(rules.get(i));
+            selectedScopes.add(scopes.get(i));
+            selectedIds.add(ids.get(i));
+        }
+        return new ScopedRules(selectedRules, selectedScopes,
+                Collections.nCopies(selectedRules.size(), RuleWindow.ALWAYS), selectedIds);
+    }
+
+    public List<DiscountRule> getRules() { return rules; }
+    public List<RuleScope> getScopes() { return scopes; }
+    public List<RuleWindow> getWindows() { return windows; }
+    public List<String> getIds() { return ids; }
+}
@@ -0,0 +1,14 @@
+package com.example.api.rules;
+
+// How a rule combines with other rules on the same units
+public enum StackingGroup {
+    // Claims its units before any other rule, one rule at a time in priority order;
+    // no other rule discounts the units it takes
+    EXCLUSIVE,
+    // Competes with the other best-of rules for the units exclusive rules left;
+    // the solver picks the combination that saves the most
+    BEST_OF,
+    // Applies on top of the best-of discounts, to what is left of the price, one
+    // rule at a time in priority order
+    STACKABLE
+}
@@ -0,0 +1,76 @@
+package com.example.api.rules.dsl;
+
+import com.example.api.rules.*;
+import java.util.Set;
+
+// A rule produced by RuleCompiler. Holds its source text for diagnostics;
+// evaluation is entirely in the compiled evaluator.
+public final class CompiledRule implements DiscountRule {
+    private final String name;
+    private final String description;
+    private final String source;
+    private final Set<String> categories;
+    private final Set<String> upcs;
+    private final Set<String> keywords;
+    private final Evaluator evaluator;
+
+    CompiledRule(String name, String description, String source, Selector selector, Evaluator evaluator) {
+        this.name = name;
+        this.description = description;
+        this.source = source;
+        // A rule on everything declares nothing, so the index offers it every line
+        this.categories = selector.everything ? Set.of() : Set.copyOf(selector.categories);
+        this.upcs = selector.everything ? Set.of() : Set.copyOf(selector.upcs);
+        this.keywords = selector.everything ? Set.of() : Set.copyOf(selector.keywords);
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public DiscountResult apply(Basket basket, int[] lines) {
+        return evaluator.apply(basket, lines);
+    }
+
+    @Override
+    public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+        evaluator.offers(basket, lines, count, sink);
+    }
+
+    @Override
+    public boolean isLineLocal() {
+        return evaluator.isLineLocal();
+    }
+
+    @Override
+    public Set<String> getCategories() {
+        return categories;
+    }
+
+    @Override
+    public Set<String> getUpcs() {
+        return upcs;
+    }
+
+    @Override
+    public Set<String> getKeywords() {
+        return keywords;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + source;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.api.rules.dsl;
+
+import com.example.api.rules.*;
+import java.util.Arrays;
+
+// Evaluation logic of a compiled rule, one specialized implementation per promo
+// shape. Each captures only primitives and its compiled LineMatcher; semantics
+// match the hand-written rule of the same shape, except where noted.
+interface Evaluator {
+    DiscountResult apply(Basket basket, int[] lines);
+
+    void offers(Basket basket, int[] lines, int count, OfferSink sink);
+
+    // See DiscountRule.isLineLocal
+    default boolean isLineLocal() {
+        return false;
+    }
+
+    // "buy N <items> get M free": every matching line earns its own free units,
+    // like BuyOneGetOne. BuyXGetY differs: it only discounts the first line that
+    // carries its keyword, so the two agree only while one line matches.
+    static Evaluator buyGet(LineMatcher matcher, int buyQty, int freeQty, String description) {
+        int setSize = buyQty + freeQty;
+        return new Evaluator() {
+            @Override
+            public DiscountResult apply(Basket basket, int[] lines) {
+                long discount = 0;
+                int[] affected = new int[lines.length];
+                int count = 0;
+                for (int line : lines) {
+                    int sets = basket.quantity(line) / setSize;
+                    if (sets > 0 && matcher.matches(basket, line)) {
+                        discount += (long) sets * freeQty * basket.priceCents(line);
+                        affected[count++] = line;
+                    }
+                }
+                return count == 0
+                        ? DiscountResult.NONE
+                        : new DiscountResult(discount, description, Arrays.copyOf(affected, count));
+            }
+
+            @Override
+            public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+                for (int i = 0; i < count; i++) {
+                    int line = lines[i];
+                    int sets = basket.quantity(line) / setSize;
+                    if (sets > 0 && matcher.matches(basket, line)) {
+                        sink.offer(line, setSize, freeQty * basket.priceCents(line) * Money.SUB_CENTS, sets);
+                    }
+                }
+            }
+
+            @Override
+            public boolean isLineLocal() {
+                return true;
+            }
+        };
+    }
+
+    // "P% off <items>": rounded once on the eligible total, like PercentOff
+    static Evaluator percentOff(LineMatcher matcher, long basisPoints, String description) {
+        return new Evaluator() {
+            @Override
+            public DiscountResult apply(Basket basket, int[] lines) {
+                long eligibleCents = 0;
+                int[] affected = new int[lines.length];
+                int count = 0;
+                for (int line : lines) {
+                    if (matcher.matches(basket, line)) {
+                        eligibleCents += basket.lineCents(line);
+                        affected[count++] = line;
+                    }
+                }
+                return new DiscountResult(Money.percentOf(eligibleCents, basisPoints), description,
+                        Arrays.copyOf(affected, count));
+            }
+
+            @Override
+            public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+                for (int i = 0; i < count; i++) {
+                    int line = lines[i];
+                    if (basket.quantity(line) > 0 && matcher.matches(basket, line)) {
+                        sink.offer(line, 1, basket.priceCents(line) * basisPoints, basket.quantity(line));
+                    }
+                }
+            }
+
+            @Override
+            public boolean isLineLocal() {
+                return true;
+            }
+        };
+    }
+
+    // "mix any N of <items> for $X": bundling is BundlePlan's, as for MixAndMatch
+    static Evaluator mix(LineMatcher matcher, int bundleSize, long bundlePriceCents, String description) {
+        return new Evaluator() {
+            @Override
+            public DiscountResult apply(Basket basket, int[] lines) {
+                return plan(basket, lines).toResult(description);
+            }
+
+            @Override
+            public void offers(Basket basket, int[] lines, int count, OfferSink sink) {
+                int[] qualifying = sink.bundleScratch().lines(count);
+                int qualifyingCount = 0;
+                for (int i = 0; i < count; i++) {
+                    if (matcher.matches(basket, lines[i])) {
+                        qualifying[qualifyingCount++] = lines[i];
+                    }
+                }
+                BundlePlan.offers(basket, qualifying, qualifyingCount, bundleSize, bundlePriceCents, sink);
+            }
+
+            private BundlePlan plan(Basket basket, int[] lines) {
+                int[] qualifying = new int[lines.length];
+                int count = 0;
+                for (int line : lines) {
+                    if (matcher.matches(basket, line)) {
+                        qualifying[count++] = line;
+                    }
+                }
+                return BundlePlan.select(basket, Arrays.copyOf(qualifying, count), bundleSize, bundlePriceCents);
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.api.rules.dsl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits a rule program into tokens. Statements end at a newline or ';',
+// '#' starts a comment that runs to the end of the line.
+final class Lexer {
+    private Lexer() {}
+
+    static List<Token> tokenize(String source) {
+        List<Token> tokens = new ArrayList<>();
+        int line = 1;
+        int lineStart = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            int column = i - lineStart + 1;
+
+            if (c == '\n' || c == ';') {
+                endStatement(tokens, line, column);
+                if (c == '\n') {
+                    line++;
+                    lineStart = i + 1;
+                }
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '#') {
+                while (i < source.length() && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '"') {
+                int end = source.indexOf('"', i + 1);
+                int newline = source.indexOf('\n', i + 1);
+                if (end < 0 || (newline >= 0 && newline < end)) {
+                    throw new RuleSyntaxException("unterminated string", line, column);
+                }
+                tokens.add(new Token(Token.Type.STRING, source.substring(i + 1, end), line, column));
+                i = end + 1;
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < source.length() && (Character.isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Token.Type.NUMBER, source.substring(start, i), line, column));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < source.length() && isWordPart(source.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Token.Type.WORD, source.substring(start, i), line, column));
+            } else if ("$%:,=".indexOf(c) >= 0) {
+                tokens.add(new Token(Token.Type.SYMBOL, String.valueOf(c), line, column));
+                i++;
+            } else {
+                throw new RuleSyntaxException("unexpected character '" + c + "'", line, column);
+            }
+        }
+        endStatement(tokens, line, source.length() - lineStart + 1);
+        return tokens;
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '&' || c == '\'' || c == '/';
+    }
+
+    // Blank lines and repeated separators don't produce empty statements
+    private static void endStatement(List<Token> tokens, int line, int column) {
+        if (!tokens.isEmpty() && tokens.get(tokens.size() - 1).type != Token.Type.END_OF_STATEMENT) {
+            tokens.add(new Token(Token.Type.END_OF_STATEMENT, "", line, column));
+        }
+    }
+}
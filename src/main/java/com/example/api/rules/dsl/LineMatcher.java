@@ -0,0 +1,20 @@
+package com.example.api.rules.dsl;
+
+import com.example.api.rules.Basket;
+
+// Compiled line filter of a rule. Built from the rule's selector as a small tree
+// of lambdas specialized to what the selector actually uses (one category id
+// compare, a keyword automaton, ...), so nothing is interpreted per line.
+@FunctionalInterface
+interface LineMatcher {
+    LineMatcher ANY = (basket, line) -> true;
+
+    boolean matches(Basket basket, int line);
+
+    default LineMatcher or(LineMatcher other) {
+        if (this == ANY || other == ANY) {
+            return ANY;
+        }
+        return (basket, line) -> matches(basket, line) || other.matches(basket, line);
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.api.rules.dsl;
+
+import com.example.api.rules.DiscountRule;
+import com.example.api.rules.Money;
+import java.math.BigDecimal;
+import java.util.*;
+
+// Compiles merchandiser-written promo definitions into DiscountRules.
+// One statement per line (or separated by ';'), '#' comments:
+//
+//   group ENERGY = "MONSTER", "RED BULL", "ROCKSTAR"
+//   ENERGY_2FOR6: mix any 2 of group ENERGY for $6.00
+//   buy 2 POLAR POP get 1 free
+//   buy 1 category BEVERAGE get 1 free
+//   20% off category FOOD or category BEVERAGE
+//   5% off everything
+//
+// Items are selected by `category NAME`, `upc CODE`, a description keyword
+// (quoted, or bare words), `group NAME` or `everything`, combined with `or` or ','.
+// Groups must be declared before use. A rule may be named with a `NAME:` prefix;
+// otherwise the name is derived from its text. `buy N ... get M free` applies to
+// every matching line (see Evaluator.buyGet). Each rule compiles to a
+// specialized evaluator (see Evaluator, LineMatcher); nothing is interpreted
+// while pricing.
+public final class RuleCompiler {
+    private final List<Token> tokens;
+    private final Map<String, Selector> groups;
+    private int position;
+
+    private RuleCompiler(List<Token> tokens, Map<String, Selector> groups) {
+        this.tokens = tokens;
+        this.groups = groups;
+    }
+
+    // Compiles every rule in the program, in order
+    public static List<DiscountRule> compile(String program) {
+        return new RuleCompiler(Lexer.tokenize(program), new HashMap<>()).program();
+    }
+
+    // For a stored definition holding exactly one rule (optionally after group declarations)
+    public static DiscountRule compileOne(String program) {
+        List<DiscountRule> rules = compile(program);
+        if (rules.size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one rule, found " + rules.size());
+        }
+        return rules.get(0);
+    }
+
+    private List<DiscountRule> program() {
+        List<DiscountRule> rules = new ArrayList<>();
+        while (position < tokens.size()) {
+            if (peek().is("group")) {
+                groupDeclaration();
+            } else {
+                rules.add(rule());
+            }
+            expect(Token.Type.END_OF_STATEMENT, "end of rule");
+        }
+        return rules;
+    }
+
+    // group NAME = selector
+    private void groupDeclaration() {
+        next();
+        Token name = expect(Token.Type.WORD, "group name");
+        expectSymbol('=');
+        groups.put(name.text.toUpperCase(), selector(Set.of()));
+    }
+
+    private DiscountRule rule() {
+        int start = position;
+        String name = null;
+        if (peek().type == Token.Type.WORD && peek(1).isSymbol(':')) {
+            name = next().text;
+            next();
+            start = position;
+        }
+
+        Token first = peek();
+        CompiledRule rule;
+        if (first.is("buy")) {
+            rule = buyGet(name, start);
+        } else if (first.is("mix")) {
+            rule = mix(name, start);
+        } else if (first.type == Token.Type.NUMBER && peek(1).isSymbol('%')) {
+            rule = percentOff(name, start);
+        } else {
+            throw error(first, "expected 'buy', 'mix' or a percentage");
+        }
+        return rule;
+    }
+
+    // buy N <selector> get M free
+    private CompiledRule buyGet(String name, int start) {
+        next();
+        int buyQty = positiveInt();
+        Selector selector = selector(Set.of("get"));
+        expectWord("get");
+        int freeQty = positiveInt();
+        expectWord("free");
+
+        String description = "Buy " + buyQty + " Get " + freeQty + " Free on " + selector.describe();
+        return new CompiledRule(name(name, start), description, source(start), selector,
+                Evaluator.buyGet(selector.compile(), buyQty, freeQty, description));
+    }
+
+    // mix any N of <selector> for $X
+    private CompiledRule mix(String name, int start) {
+        next();
+        expectWord("any");
+        int bundleSize = positiveInt();
+        expectWord("of");
+        Selector selector = selector(Set.of("for"));
+        expectWord("for");
+        expectSymbol('$');
+        long bundlePriceCents = money();
+
+        String description = bundleSize + " for $" + BigDecimal.valueOf(bundlePriceCents, 2) + " on " + selector.describe();
+        return new CompiledRule(name(name, start), description, source(start), selector,
+                Evaluator.mix(selector.compile(), bundleSize, bundlePriceCents, description));
+    }
+
+    // P% off <selector>
+    private CompiledRule percentOff(String name, int start) {
+        Token percentToken = expect(Token.Type.NUMBER, "a percentage");
+        double percent;
+        try {
+            percent = Double.parseDouble(percentToken.text);
+        } catch (NumberFormatException e) {
+            throw error(percentToken, "expected a percentage");
+        }
+        if (percent <= 0 || percent > 100) {
+            throw error(percentToken, "percentage must be between 0 and 100");
+        }
+        expectSymbol('%');
+        expectWord("off");
+        Selector selector = selector(Set.of());
+
+        String description = percentToken.text + "% off " + selector.describe();
+        return new CompiledRule(name(name, start), description, source(start), selector,
+                Evaluator.percentOff(selector.compile(), Money.toBasisPoints(percent), description));
+    }
+
+    // term (('or' | ',') term)*, stopping before any of the given words
+    private Selector selector(Set<String> stopWords) {
+        Selector selector = new Selector();
+        term(selector, stopWords);
+        while (peek().is("or") || peek().isSymbol(',')) {
+            next();
+            term(selector, stopWords);
+        }
+        return selector;
+    }
+
+    private void term(Selector selector, Set<String> stopWords) {
+        Token token = peek();
+        if (token.is("category")) {
+            next();
+            // Matched exactly as written, like every other rule's category
+            String category = expect(Token.Type.WORD, "category name").text;
+            selector.categories.add(category);
+            selector.labels.add(category);
+        } else if (token.is("upc")) {
+            next();
+            Token upc = next();
+            if (upc.type != Token.Type.NUMBER && upc.type != Token.Type.STRING) {
+                throw error(upc, "expected a UPC");
+            }
+            selector.upcs.add(upc.text);
+            selector.labels.add("UPC " + upc.text);
+        } else if (token.is("group")) {
+            next();
+            Token name = expect(Token.Type.WORD, "group name");
+            Selector group = groups.get(name.text.toUpperCase());
+            if (group == null) {
+                throw error(name, "unknown group " + name.text);
+            }
+            selector.addAll(group);
+            selector.labels.add(name.text);
+        } else if (token.is("everything")) {
+            next();
+            selector.everything = true;
+        } else if (token.type == Token.Type.STRING) {
+            next();
+            keyword(selector, token, token.text);
+        } else if (token.type == Token.Type.WORD && !stopWords.contains(token.text.toLowerCase())) {
+            // Bare words up to the next keyword: buy 2 POLAR POP get 1 free
+            StringBuilder words = new StringBuilder(next().text);
+            while ((peek().type == Token.Type.WORD || peek().type == Token.Type.NUMBER)
+                    && !peek().is("or") && !stopWords.contains(peek().text.toLowerCase())) {
+                words.append(' ').append(next().text);
+            }
+            keyword(selector, token, words.toString());
+        } else {
+            throw error(token, "expected items: category, upc, group, everything or a description keyword");
+        }
+    }
+
+    private void keyword(Selector selector, Token token, String keyword) {
+        if (keyword.isBlank()) {
+            throw error(token, "empty keyword");
+        }
+        String upper = keyword.toUpperCase();
+        selector.keywords.add(upper);
+        selector.labels.add(upper);
+    }
+
+    private int positiveInt() {
+        Token token = expect(Token.Type.NUMBER, "a whole number");
+        try {
+            int value = Integer.parseInt(token.text);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw error(token, "expected a whole number above zero");
+    }
+
+    private long money() {
+        Token token = expect(Token.Type.NUMBER, "an amount");
+        try {
+            return new BigDecimal(token.text).movePointRight(2).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw error(token, "expected an amount in dollars and cents");
+        }
+    }
+
+    // Explicit name, or the rule text in upper snake case: 20% off category FOOD -> 20_OFF_CATEGORY_FOOD
+    private String name(String explicit, int start) {
+        if (explicit != null) {
+            return explicit;
+        }
+        return source(start).toUpperCase().replaceAll("[^A-Z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+
+    private String source(int start) {
+        StringBuilder text = new StringBuilder();
+        for (int i = start; i < position; i++) {
+            Token token = tokens.get(i);
+            boolean attached = token.isSymbol('%') || token.isSymbol(',') || token.isSymbol(':')
+                    || (i > start && tokens.get(i - 1).isSymbol('$'));
+            if (text.length() > 0 && !attached) {
+                text.append(' ');
+            }
+            text.append(token.type == Token.Type.STRING ? '"' + token.text + '"' : token.text);
+        }
+        return text.toString();
+    }
+
+    private Token peek() {
+        return peek(0);
+    }
+
+    private Token peek(int ahead) {
+        int i = Math.min(position + ahead, tokens.size() - 1);
+        return tokens.get(i);
+    }
+
+    private Token next() {
+        Token token = peek();
+        if (position < tokens.size()) {
+            position++;
+        }
+        return token;
+    }
+
+    private Token expect(Token.Type type, String what) {
+        Token token = peek();
+        if (token.type != type) {
+            throw error(token, "expected " + what + " but found " + token);
+        }
+        return next();
+    }
+
+    private void expectWord(String word) {
+        if (!peek().is(word)) {
+            throw error(peek(), "expected '" + word + "' but found " + peek());
+        }
+        next();
+    }
+
+    private void expectSymbol(char symbol) {
+        if (!peek().isSymbol(symbol)) {
+            throw error(peek(), "expected '" + symbol + "' but found " + peek());
+        }
+        next();
+    }
+
+    private static RuleSyntaxException error(Token token, String message) {
+        return new RuleSyntaxException(message, token.line, token.column);
+    }
+}
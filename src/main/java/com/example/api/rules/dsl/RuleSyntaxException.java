@@ -0,0 +1,21 @@
+package com.example.api.rules.dsl;
+
+// A rule definition that doesn't parse; the message says where and why
+public class RuleSyntaxException extends IllegalArgumentException {
+    private final int line;
+    private final int column;
+
+    public RuleSyntaxException(String message, int line, int column) {
+        super("line " + line + ", column " + column + ": " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.api.rules.dsl;
+
+import com.example.api.rules.Categories;
+import com.example.api.rules.KeywordMatcher;
+import java.util.*;
+
+// Which lines a rule applies to: any of some categories, UPCs and description
+// keywords, or everything. Kept as sets so it can both declare itself to the
+// rule index and compile to a LineMatcher.
+final class Selector {
+    final Set<String> categories = new LinkedHashSet<>();
+    final Set<String> upcs = new LinkedHashSet<>();
+    final Set<String> keywords = new LinkedHashSet<>();
+    final List<String> labels = new ArrayList<>();
+    boolean everything;
+
+    void addAll(Selector other) {
+        categories.addAll(other.categories);
+        upcs.addAll(other.upcs);
+        keywords.addAll(other.keywords);
+        everything |= other.everything;
+    }
+
+    String describe() {
+        return everything ? "everything" : String.join(", ", labels);
+    }
+
+    LineMatcher compile() {
+        if (everything) {
+            return LineMatcher.ANY;
+        }
+
+        LineMatcher matcher = null;
+        if (categories.size() == 1) {
+            int id = Categories.register(categories.iterator().next());
+            matcher = (basket, line) -> basket.categoryId(line) == id;
+        } else if (!categories.isEmpty()) {
+            int[] ids = categories.stream().mapToInt(Categories::register).toArray();
+            matcher = (basket, line) -> {
+                int categoryId = basket.categoryId(line);
+                for (int id : ids) {
+                    if (id == categoryId) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        if (!upcs.isEmpty()) {
+            Set<String> upcSet = Set.copyOf(upcs);
+            matcher = or(matcher, (basket, line) -> basket.upc(line) != null && upcSet.contains(basket.upc(line)));
+        }
+
+        if (!keywords.isEmpty()) {
+            KeywordMatcher automaton = KeywordMatcher.of(keywords);
+            matcher = or(matcher, (basket, line) -> {
+                String description = basket.description(line);
+                return description != null && automaton.matchesAny(description);
+            });
+        }
+
+        return matcher != null ? matcher : (basket, line) -> false;
+    }
+
+    private static LineMatcher or(LineMatcher left, LineMatcher right) {
+        return left == null ? right : left.or(right);
+    }
+}
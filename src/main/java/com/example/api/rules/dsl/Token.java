@@ -0,0 +1,30 @@
+package com.example.api.rules.dsl;
+
+final class Token {
+    enum Type { WORD, NUMBER, STRING, SYMBOL, END_OF_STATEMENT }
+
+    final Type type;
+    final String text;
+    final int line;
+    final int column;
+
+    Token(Type type, String text, int line, int column) {
+        this.type = type;
+        this.text = text;
+        this.line = line;
+        this.column = column;
+    }
+
+    boolean is(String keyword) {
+        return type == Type.WORD && text.equalsIgnoreCase(keyword);
+    }
+
+    boolean isSymbol(char symbol) {
+        return type == Type.SYMBOL && text.charAt(0) == symbol;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.END_OF_STATEMENT ? "end of rule" : "'" + text + "'";
+    }
+}
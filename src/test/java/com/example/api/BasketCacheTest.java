@@ -0,0 +1,69 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasketCacheTest {
+
+    private static final BasketItem HOT_DOG =
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "FOOD");
+    private static final BasketItem MONSTER =
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE");
+
+    @Test
+    void testRepeatedBasketIsServedFromCache() {
+        BasketCache cache = new BasketCache(100);
+        DiscountEngine engine = new DiscountEngine(List.of(new BuyOneGetOne("BEVERAGE")), 1);
+
+        DiscountResponse first = cache.price(engine, new DiscountRequest(List.of(HOT_DOG, MONSTER)));
+        DiscountResponse second = cache.price(engine, new DiscountRequest(List.of(HOT_DOG, MONSTER)));
+
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void testMissPricesTheCallersBasket() {
+        BasketCache cache = new BasketCache(100);
+        DiscountEngine engine = new DiscountEngine(List.of(new PercentOff(10, "FOOD", "BEVERAGE")), 1);
+        DiscountRequest scanned = new DiscountRequest(List.of(MONSTER, HOT_DOG));
+
+        DiscountResponse cached = cache.price(engine, scanned);
+        DiscountResponse reordered = cache.price(engine, new DiscountRequest(List.of(HOT_DOG, MONSTER)));
+
+        assertEquals(engine.calculate(scanned).getAppliedDiscounts().get(0).getAffectedItems(),
+                cached.getAppliedDiscounts().get(0).getAffectedItems());
+        assertEquals(List.of("HOT DOG / SSG PREMIUM", "MONSTER ENERGY"),
+                reordered.getAppliedDiscounts().get(0).getAffectedItems());
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    @Test
+    void testNewSnapshotVersionMisses() {
+        BasketCache cache = new BasketCache(100);
+        DiscountRequest request = new DiscountRequest(List.of(MONSTER));
+
+        DiscountResponse before = cache.price(new DiscountEngine(List.of(), 1), request);
+        DiscountResponse after = cache.price(new DiscountEngine(List.of(new BuyOneGetOne("BEVERAGE")), 2), request);
+
+        assertEquals(0.0, before.getTotalDiscount(), 0.01);
+        assertEquals(3.29, after.getTotalDiscount(), 0.01);
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    @Test
+    void testDisabledCachePassesThrough() {
+        BasketCache cache = BasketCache.disabled();
+        DiscountEngine engine = new DiscountEngine(List.of(new BuyOneGetOne("BEVERAGE")), 1);
+
+        DiscountResponse response = cache.price(engine, new DiscountRequest(List.of(MONSTER)));
+
+        assertEquals(3.29, response.getTotalDiscount(), 0.01);
+        assertFalse(cache.isEnabled());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasketFingerprintTest {
+
+    private static final BasketItem HOT_DOG =
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "FOOD");
+    private static final BasketItem POLAR_POP =
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 1, "BEVERAGE");
+
+    private static final List<DiscountRule> RULES = List.of(new PercentOff(10, "FOOD"));
+    private static final DiscountEngine ENGINE = new DiscountEngine(RULES, 1);
+
+    @Test
+    void testSameLinesGiveEqualKeys() {
+        BasketFingerprint a = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(HOT_DOG, POLAR_POP)));
+        BasketFingerprint b = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(HOT_DOG, POLAR_POP)));
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void testScanOrderIsPartOfTheKey() {
+        // Line order decides tie-breaks and the order of affected items
+        BasketFingerprint a = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(HOT_DOG, POLAR_POP)));
+        BasketFingerprint b = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(POLAR_POP, HOT_DOG)));
+
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void testRuleSetIsPartOfTheKey() {
+        DiscountRequest request = new DiscountRequest(List.of(HOT_DOG));
+        BasketFingerprint key = BasketFingerprint.of(ENGINE, request);
+
+        assertEquals(key, BasketFingerprint.of(new DiscountEngine(RULES, 1), request));
+        assertNotEquals(key, BasketFingerprint.of(new DiscountEngine(RULES, 2), request));
+        // Tenant engines of one snapshot share its version but run other rules
+        assertNotEquals(key, BasketFingerprint.of(ENGINE.addRule(new BuyOneGetOne("BEVERAGE")), request));
+    }
+
+    @Test
+    void testPriceAndQuantityArePartOfTheKey() {
+        BasketFingerprint base = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(HOT_DOG)));
+        BasketFingerprint repriced = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(
+                new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.79, 1, "FOOD"))));
+        BasketFingerprint twoDogs = BasketFingerprint.of(ENGINE, new DiscountRequest(List.of(
+                new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 2, "FOOD"))));
+
+        assertNotEquals(base, repriced);
+        assertNotEquals(base, twoDogs);
+    }
+}
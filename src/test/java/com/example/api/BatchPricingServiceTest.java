@@ -0,0 +1,54 @@
+package com.example.api;
+
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchPricingServiceTest {
+
+    @Test
+    void testResponsesKeepRequestOrder() {
+        // Each basket has a different quantity, so each response subtotal is unique
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new BuyOneGetOne("BEVERAGE"));
+        BatchPricingService service = new BatchPricingService(4, 16);
+
+        List<DiscountRequest> requests = new ArrayList<>();
+        for (int qty = 1; qty <= 500; qty++) {
+            requests.add(new DiscountRequest(List.of(
+                    new BasketItem("070847811169", "MONSTER ENERGY", 1.00, qty, "BEVERAGE")
+            )));
+        }
+
+        List<DiscountResponse> responses = service.priceAll(engine, requests);
+        service.shutdown();
+
+        assertEquals(500, responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            int qty = i + 1;
+            assertEquals(qty * 1.00, responses.get(i).getSubtotal(), 0.001);
+            assertEquals((qty / 2) * 1.00, responses.get(i).getTotalDiscount(), 0.001);
+        }
+    }
+
+    @Test
+    void testEmptyBatch() {
+        BatchPricingService service = new BatchPricingService(2, 4);
+
+        assertEquals(0, service.priceAll(new DiscountEngine(), List.of()).size());
+        service.shutdown();
+    }
+
+    @Test
+    void testAddRuleLeavesSharedEngineUntouched() {
+        DiscountEngine base = new DiscountEngine()
+                .addRule(new BuyOneGetOne("BEVERAGE"));
+        DiscountEngine extended = base.addRule(new PercentOff(20, "FOOD"));
+
+        assertEquals(1, base.getRules().size());
+        assertEquals(2, extended.getRules().size());
+    }
+}
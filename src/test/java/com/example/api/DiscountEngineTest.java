@@ -1,9 +1,13 @@
 package com.example.api;
 
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.metrics.PricingMetrics;
 import com.example.api.model.*;
 import com.example.api.rules.*;
 import org.junit.jupiter.api.Test;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 class DiscountEngineTest {
@@ -216,4 +220,204 @@ class DiscountEngineTest {
         double expectedDiscount = 0.89 + 3.29;
         assertEquals(expectedDiscount, response.getTotalDiscount(), 0.01);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLinesSharingDescriptionResolvedByUpc() {
+        // Same description, different UPCs: each line must keep its own winning rule
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new PercentOff(20, "FOOD"))
+                .addRule(new BuyOneGetOne("BEVERAGE"));
+
+        DiscountRequest request = new DiscountRequest(List.of(
+                new BasketItem("000000000001", "COFFEE", 10.00, 1, "FOOD"),
+                new BasketItem("000000000002", "COFFEE", 1.00, 2, "BEVERAGE")
+        ));
+
+        DiscountResponse response = engine.calculate(request);
+
+        // Food line: 20% of $10.00 = $2.00, beverage line: BOGO = $1.00
+        assertEquals(3.00, response.getTotalDiscount(), 0.01);
+        assertEquals(2, response.getAppliedDiscounts().size());
+    }
+
+    @Test
+    void testCentAmountsDoNotDrift() {
+        // Ten 10-cent items: summing doubles would give 0.9999999999999999
+        DiscountEngine engine = new DiscountEngine();
+
+        DiscountRequest request = new DiscountRequest(List.of(
+                new BasketItem("000000000010", "GUM", 0.10, 10, "CANDY")
+        ));
+
+        DiscountResponse response = engine.calculate(request);
+
+        assertEquals(1.00, response.getSubtotal(), 0.0);
+        assertEquals(0.07, response.getTax(), 0.0);
+        assertEquals(1.07, response.getTotal(), 0.0);
+    }
+
+    @Test
+    void testTaxRoundedToWholeCents() {
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new BuyXGetY(2, 1, "POLAR POP"));
+
+        DiscountRequest request = new DiscountRequest(List.of(
+                new BasketItem("999999937551", "Medium Polar Pop", 0.89, 3, "BEVERAGE")
+        ));
+
+        DiscountResponse response = engine.calculate(request);
+
+        // $2.67 - $0.89 = $1.78, 7% tax = $0.1246 -> $0.12
+        assertEquals(0.12, response.getTax(), 0.0);
+        assertEquals(1.90, response.getTotal(), 0.0);
+    }
+
+    @Test
+    void testCheaperRuleKeepsItemsItSavesMostOn() {
+        // 30% off beverages over the whole basket ($7.97) beats BOGO on the Monster
+        // line ($3.29), but BOGO on the Monsters plus 30% on the wine saves more
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new BuyOneGetOne("BEVERAGE"))
+                .addRule(new PercentOff(30, "BEVERAGE"));
+
+        DiscountRequest request = new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE"),
+                new BasketItem("000000000750", "HOUSE RED WINE", 20.00, 1, "BEVERAGE")
+        ));
+
+        DiscountResponse response = engine.calculate(request);
+
+        // BOGO: $3.29, 30% of $20.00: $6.00
+        assertEquals(9.29, response.getTotalDiscount(), 0.0);
+        assertEquals(2, response.getAppliedDiscounts().size());
+    }
+
+    @Test
+    void testOddUnitGoesToNextBestRule() {
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new BuyOneGetOne("BEVERAGE"))
+                .addRule(new PercentOff(30, "BEVERAGE"));
+
+        DiscountRequest request = new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 3, "BEVERAGE")
+        ));
+
+        DiscountResponse response = engine.calculate(request);
+
+        // One pair free ($3.29) and 30% off the third can ($0.987 -> $0.99)
+        assertEquals(4.28, response.getTotalDiscount(), 0.0);
+    }
+
+    @Test
+    void testRecordsRuleMetrics() {
+        Map<String, int[]> evaluated = new HashMap<>();   // rule id -> {evaluations, matches}
+        Map<String, Long> applied = new HashMap<>();
+        int[] baskets = new int[1];
+        PricingMetrics metrics = new PricingMetrics() {
+            public RuleRecorder rule(String ruleId, String ruleName) {
+                evaluated.put(ruleId, new int[2]);
+                return new RuleRecorder() {
+                    public void evaluated(long nanos, boolean matched) {
+                        evaluated.get(ruleId)[0]++;
+                        if (matched) {
+                            evaluated.get(ruleId)[1]++;
+                        }
+                    }
+
+                    public void applied(long discountCents) {
+                        applied.merge(ruleId, discountCents, Long::sum);
+                    }
+                };
+            }
+
+            public void basketPriced(int lines, long nanos) {
+                baskets[0]++;
+            }
+        };
+        DiscountEngine engine = new DiscountEngine(List.of(
+                new BuyOneGetOne("BEVERAGE"),
+                new PercentOff(20, "FOOD"),
+                new PercentOff(20, "SNACKS")), 0, new AllocationSolver(), metrics);
+
+        engine.calculate(new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 1, "BEVERAGE"))));
+        engine.calculate(new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE"))));
+
+        assertEquals(2, baskets[0]);
+        // Evaluated for both baskets, only the second had a pair
+        assertArrayEquals(new int[] { 2, 1 }, evaluated.get("BOGO_BEVERAGE"));
+        assertEquals(329L, (long) applied.get("BOGO_BEVERAGE"));
+        // Never bucketed: no food in either basket
+        assertArrayEquals(new int[] { 0, 0 }, evaluated.get("PERCENT_OFF_20"));
+        // A second rule with the same name is metered on its own
+        assertEquals(3, evaluated.size());
+        assertArrayEquals(new int[] { 0, 0 }, evaluated.get("PERCENT_OFF_20#2"));
+    }
+
+    @Test
+    void testStackablePercentOffCombinesWithBogo() {
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new BuyOneGetOne("BEVERAGE"))
+                .addRule(PrioritizedRule.of(new PercentOff(20, "BEVERAGE"), 0, StackingGroup.STACKABLE));
+
+        DiscountResponse response = engine.calculate(new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")
+        )));
+
+        // BOGO takes $3.29 off $6.58; 20% off applies to the $3.29 left
+        assertEquals(2, response.getAppliedDiscounts().size());
+        assertEquals(3.29, response.getAppliedDiscounts().get(0).getAmount(), 0.001);
+        assertEquals(0.66, response.getAppliedDiscounts().get(1).getAmount(), 0.001);
+        assertEquals(3.95, response.getTotalDiscount(), 0.001);
+    }
+
+    @Test
+    void testExclusiveRuleKeepsItsItemsFromBetterRules() {
+        DiscountEngine engine = new DiscountEngine()
+                .addRule(new BuyOneGetOne("BEVERAGE"))
+                .addRule(PrioritizedRule.of(new PercentOff(10, "BEVERAGE"), 0, StackingGroup.EXCLUSIVE));
+
+        DiscountResponse response = engine.calculate(new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")
+        )));
+
+        assertEquals(1, response.getAppliedDiscounts().size());
+        assertEquals("10% off BEVERAGE", response.getAppliedDiscounts().get(0).getDescription());
+        assertEquals(0.66, response.getTotalDiscount(), 0.001);
+    }
+
+    @Test
+    void testAppliedDiscountsFollowPriorityThenRuleOrder() {
+        DiscountEngine engine = new DiscountEngine(List.of(
+                new PercentOff(10, "FOOD"),
+                PrioritizedRule.of(new BuyOneGetOne("BEVERAGE"), 5, StackingGroup.BEST_OF),
+                new PercentOff(5, "SNACKS")
+        ));
+
+        DiscountResponse response = engine.calculate(new DiscountRequest(List.of(
+                new BasketItem("1", "CHIPS", 2.00, 1, "SNACKS"),
+                new BasketItem("2", "HOT DOG", 3.00, 1, "FOOD"),
+                new BasketItem("3", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")
+        )));
+
+        assertEquals(List.of("BOGO_BEVERAGE", "PERCENT_OFF_10", "PERCENT_OFF_5"),
+                response.getAppliedDiscounts().stream().map(AppliedDiscount::getRuleName).toList());
+    }
+
+    @Test
+    void testUnknownCategoriesAreNotInterned() {
+        DiscountEngine engine = new DiscountEngine().addRule(new PercentOff(10, "FOOD"));
+        int registered = Categories.size();
+
+        for (int i = 0; i < 10_000; i++) {
+            DiscountResponse response = engine.calculate(new DiscountRequest(List.of(
+                    new BasketItem("1", "HOT DOG", 3.00, 1, "FOOD"),
+                    new BasketItem("2", "MYSTERY " + i, 1.00, 1, "UNKNOWN-" + i)
+            )));
+            assertEquals(0.30, response.getTotalDiscount(), 0.001);
+        }
+
+        assertEquals(registered, Categories.size());
+    }
+}
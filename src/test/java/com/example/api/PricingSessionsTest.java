@@ -0,0 +1,124 @@
+package com.example.api;
+
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingSessionsTest {
+
+    private static final BasketItem MONSTER =
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 1, "BEVERAGE");
+    private static final BasketItem RED_BULL =
+            new BasketItem("611269991000", "RED BULL 12OZ", 3.99, 1, "BEVERAGE");
+    private static final BasketItem POLAR_POP =
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 1, "BEVERAGE");
+    private static final BasketItem HOT_DOG =
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "FOOD");
+    private static final BasketItem NACHOS =
+            new BasketItem("999999955111", "NACHOS W/ CHEESE", 3.49, 1, "FOOD");
+    private static final BasketItem GUM =
+            new BasketItem("012546011099", "TRIDENT GUM", 1.79, 1, "CANDY");
+
+    private final RuleSnapshots snapshots = new RuleSnapshots(List.of(
+            new BuyXGetY(2, 1, "POLAR POP"),
+            new PercentOff(10, "FOOD"),
+            new MixAndMatchEnergyDrinks(),
+            new BuyOneGetOne("BEVERAGE")
+    ));
+    private final PricingSessions sessions = new PricingSessions(snapshots,
+            new RequestNormalizer(ProductCatalog.empty()), 10_000, 3, Duration.ofMinutes(5));
+
+    @Test
+    void testEveryScanPricesLikeTheWholeBasket() {
+        String id = sessions.open(null, null).getId();
+
+        for (BasketItem item : List.of(POLAR_POP, MONSTER, POLAR_POP, HOT_DOG)) {
+            assertSamePrice(sessions, sessions.add(id, item), id);
+        }
+
+        // The session holds at most 3 lines; voiding the hot dog makes room
+        assertThrows(IllegalStateException.class, () -> sessions.add(id, RED_BULL));
+        assertSamePrice(sessions, sessions.remove(id, HOT_DOG.getUpc(), 1), id);
+
+        for (BasketItem item : List.of(RED_BULL, POLAR_POP, MONSTER)) {
+            assertSamePrice(sessions, sessions.add(id, item), id);
+        }
+        assertSamePrice(sessions, sessions.remove(id, MONSTER.getUpc(), 1), id);
+
+        // Repeated scans add to their line: 3 Polar Pop, 1 Monster, 1 Red Bull
+        List<BasketItem> items = sessions.get(id).getItems();
+        assertEquals(3, items.size());
+        assertEquals(3, items.get(0).getQuantity());
+        assertEquals(1, items.get(1).getQuantity());
+    }
+
+    @Test
+    void testVoidingWholeLinesPricesLikeTheWholeBasket() {
+        PricingSessions wide = new PricingSessions(snapshots,
+                new RequestNormalizer(ProductCatalog.empty()), 10_000, 10, Duration.ofMinutes(5));
+        String id = wide.open(null, null).getId();
+
+        for (BasketItem item : List.of(POLAR_POP, HOT_DOG, MONSTER, POLAR_POP, GUM, RED_BULL, NACHOS, POLAR_POP)) {
+            assertSamePrice(wide, wide.add(id, item), id);
+        }
+
+        // Void lines at the front, middle and end, each followed by a scan that
+        // lands on the renumbered lines
+        assertSamePrice(wide, wide.remove(id, HOT_DOG.getUpc(), 1), id);
+        assertSamePrice(wide, wide.add(id, MONSTER), id);
+        assertSamePrice(wide, wide.remove(id, POLAR_POP.getUpc(), 3), id);
+        assertSamePrice(wide, wide.add(id, NACHOS), id);
+        assertSamePrice(wide, wide.add(id, POLAR_POP), id);
+        assertSamePrice(wide, wide.remove(id, POLAR_POP.getUpc(), 1), id);
+        assertSamePrice(wide, wide.add(id, HOT_DOG), id);
+        for (BasketItem item : List.of(POLAR_POP, POLAR_POP, POLAR_POP, POLAR_POP)) {
+            assertSamePrice(wide, wide.add(id, item), id);
+        }
+        assertSamePrice(wide, wide.remove(id, GUM.getUpc(), 1), id);
+        assertSamePrice(wide, wide.remove(id, MONSTER.getUpc(), 2), id);
+        assertSamePrice(wide, wide.add(id, GUM), id);
+
+        // Partial voids shrink what a line offers: 4 Polar Pops down to 2, then 1
+        assertSamePrice(wide, wide.remove(id, POLAR_POP.getUpc(), 2), id);
+        assertSamePrice(wide, wide.remove(id, POLAR_POP.getUpc(), 1), id);
+    }
+
+    @Test
+    void testPublishedRulesApplyToOpenSessions() {
+        String id = sessions.open(null, null).getId();
+        sessions.add(id, MONSTER);
+        sessions.add(id, MONSTER);
+
+        snapshots.publish(List.of(new PercentOff(50, "BEVERAGE")));
+
+        DiscountResponse totals = sessions.totals(id);
+        assertEquals(3.29, totals.getTotalDiscount(), 0.001);
+        assertEquals(snapshots.current().getVersion(), totals.getRuleSetVersion());
+    }
+
+    @Test
+    void testUnknownSessionsAndItems() {
+        String id = sessions.open(null, null).getId();
+
+        assertThrows(NoSuchElementException.class, () -> sessions.remove(id, MONSTER.getUpc(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> sessions.add(id, new BasketItem("1", "GUM", 1.00, 0, "CANDY")));
+
+        sessions.close(id);
+        assertThrows(NoSuchElementException.class, () -> sessions.totals(id));
+    }
+
+    private void assertSamePrice(PricingSessions sessions, DiscountResponse session, String id) {
+        DiscountResponse full = snapshots.current().calculate(new DiscountRequest(sessions.get(id).getItems()));
+        assertEquals(full.getSubtotal(), session.getSubtotal(), 0.0);
+        assertEquals(full.getTotalDiscount(), session.getTotalDiscount(), 0.0);
+        assertEquals(full.getTotal(), session.getTotal(), 0.0);
+        assertEquals(full.getAppliedDiscounts().size(), session.getAppliedDiscounts().size());
+    }
+}
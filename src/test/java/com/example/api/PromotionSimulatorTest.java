@@ -0,0 +1,69 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.metrics.PricingMetrics;
+import com.example.api.model.SimulationReport;
+import com.example.api.promotions.RuleDefinition;
+import com.example.api.promotions.RuleFactory;
+import com.example.api.rules.DiscountRule;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromotionSimulatorTest {
+
+    // A chain-wide promo, one scoped to store 17 and a happy hour
+    private static final String RULES = """
+            [
+              {"type": "PERCENT_OFF", "parameters": {"percent": "10"}, "categories": ["FOOD"]},
+              {"type": "BOGO", "categories": ["BEVERAGE"], "stores": ["17"]},
+              {"type": "PERCENT_OFF", "parameters": {"percent": "20"}, "categories": ["CANDY"],
+               "startTime": "15:00:00", "endTime": "17:00:00"}
+            ]
+            """;
+    private static final String BASKET = """
+            {"items":[{"upc":"070847811169","description":"MONSTER ENERGY","price":3.29,"quantity":2,"category":"BEVERAGE"},\
+            {"upc":"111","description":"HOT DOG","price":2.00,"quantity":1,"category":"FOOD"},\
+            {"upc":"333","description":"CANDY BAR","price":1.00,"quantity":1,"category":"CANDY"}]}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testCandidateEqualToTheLiveRulesChangesNothing() {
+        // Published outside the happy hour, so the live slice runs only the first rule chain-wide
+        RuleSnapshots snapshots = new RuleSnapshots(
+                RuleFactory.createScoped(objectMapper.readValue(RULES, new TypeReference<List<RuleDefinition>>() {})),
+                new AllocationSolver(), PricingMetrics.NONE,
+                Clock.fixed(Instant.parse("2026-03-02T09:00:00Z"), ZoneOffset.UTC), 16);
+        PromotionSimulator simulator = new PromotionSimulator(snapshots, objectMapper,
+                new RequestNormalizer(ProductCatalog.empty()), 10_000, 1);
+
+        List<DiscountRule> candidate = simulator.rules(stream(RULES));
+        SimulationReport report = simulator.simulate(candidate, stream(BASKET + BASKET));
+
+        assertEquals(2, report.getBaskets());
+        assertEquals(0, report.getBasketsChanged());
+        // Both sides run all three promos: a free Monster, 20 cents off food and off candy
+        assertEquals(2 * (3.29 + 0.20 + 0.20), report.getBaselineDiscount(), 0.001);
+        assertEquals(0.0, report.getDiscountDelta(), 0.001);
+        assertEquals(3, report.getRules().size());
+        for (SimulationReport.RuleDelta rule : report.getRules()) {
+            assertEquals(0.0, rule.getDelta(), 0.001, rule.getRule());
+        }
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
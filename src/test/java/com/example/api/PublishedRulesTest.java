@@ -0,0 +1,55 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.metrics.PricingMetrics;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishedRulesTest {
+
+    private static final DiscountRequest TWO_MONSTERS = new DiscountRequest(List.of(
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")
+    ));
+
+    // BOGO runs in store 17 and the WEST region; 20% off food runs everywhere
+    private final RuleSnapshots snapshots = new RuleSnapshots(new ScopedRules(
+            List.of(new BuyOneGetOne("BEVERAGE"), new PercentOff(20, "FOOD")),
+            List.of(RuleScope.of(Set.of("17"), Set.of("WEST")), RuleScope.CHAIN_WIDE)),
+            new AllocationSolver(), PricingMetrics.NONE);
+
+    @Test
+    void testScopedRuleAppliesOnlyToItsTenants() {
+        assertEquals(3.29, snapshots.current("17", null).calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+        assertEquals(3.29, snapshots.current("42", "WEST").calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+        assertEquals(0.0, snapshots.current("42", "EAST").calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+        assertEquals(0.0, snapshots.current().calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+    }
+
+    @Test
+    void testTenantsWithTheSameRulesShareOneEngine() {
+        // Compiled at publish: chain-wide, and BOGO + 20% off for store 17 and WEST
+        assertEquals(2, snapshots.published().engineCount());
+        DiscountEngine store = snapshots.current("17", "EAST");
+        DiscountEngine region = snapshots.current("42", "WEST");
+
+        assertSame(store, region);
+        assertSame(store, snapshots.current("17", "WEST"));
+        // One version for the whole published set
+        assertEquals(snapshots.current().getVersion(), store.getVersion());
+        assertEquals(2, snapshots.published().engineCount());
+    }
+
+    @Test
+    void testUnknownTenantsFallBackToChainWide() {
+        DiscountEngine chainWide = snapshots.current();
+
+        assertSame(chainWide, snapshots.current("999", "NOWHERE"));
+        assertSame(chainWide, snapshots.current(null, null));
+        assertSame(chainWide, snapshots.current("999", "EAST"));
+        assertEquals(2, snapshots.published().engineCount());
+    }
+}
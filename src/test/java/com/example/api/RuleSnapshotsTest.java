@@ -0,0 +1,117 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.metrics.PricingMetrics;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSnapshotsTest {
+
+    private static final DiscountRequest TWO_MONSTERS = new DiscountRequest(List.of(
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")
+    ));
+
+    @Test
+    void testPublishSwapsSnapshotAndBumpsVersion() {
+        RuleSnapshots snapshots = new RuleSnapshots(List.of());
+        DiscountEngine inFlight = snapshots.current();
+
+        snapshots.publish(List.of(new BuyOneGetOne("BEVERAGE")));
+
+        // A request that already holds the old snapshot keeps pricing with it
+        assertEquals(0.0, inFlight.calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+        assertEquals(1, inFlight.calculate(TWO_MONSTERS).getRuleSetVersion());
+
+        DiscountResponse response = snapshots.current().calculate(TWO_MONSTERS);
+        assertEquals(3.29, response.getTotalDiscount(), 0.01);
+        assertEquals(2, response.getRuleSetVersion());
+    }
+
+    @Test
+    void testListenersSeeEveryPublish() {
+        RuleSnapshots snapshots = new RuleSnapshots(List.of());
+        List<Long> published = new ArrayList<>();
+        snapshots.onPublish(engine -> published.add(engine.getVersion()));
+
+        snapshots.publish(List.of());
+        snapshots.publish(List.of());
+
+        assertEquals(List.of(2L, 3L), published);
+    }
+
+    @Test
+    void testTimedRuleIsSwappedInAtItsBoundary() {
+        MovingClock clock = new MovingClock(Instant.parse("2026-03-02T14:59:00Z"));
+        RuleSnapshots snapshots = happyHourSnapshots(clock);
+        assertEquals(0.0, snapshots.current().calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+        assertFalse(snapshots.advance());
+
+        clock.now = Instant.parse("2026-03-02T15:00:00Z");
+        assertTrue(snapshots.advance());
+        assertEquals(3.29, snapshots.current().calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+
+        // The next day's happy hour reuses the rule set compiled for today's
+        DiscountEngine happyHour = snapshots.current();
+        clock.now = Instant.parse("2026-03-02T17:00:00Z");
+        assertTrue(snapshots.advance());
+        clock.now = Instant.parse("2026-03-03T15:30:00Z");
+        assertTrue(snapshots.advance());
+        assertSame(happyHour, snapshots.current());
+    }
+
+    @Test
+    void testAsOfPricesWithTheRulesActiveThen() {
+        RuleSnapshots snapshots = happyHourSnapshots(new MovingClock(Instant.parse("2026-03-02T09:00:00Z")));
+        DiscountRequest replay = new DiscountRequest(TWO_MONSTERS.getItems());
+        replay.setAsOf(Instant.parse("2026-02-20T16:00:00Z"));
+
+        assertEquals(3.29, snapshots.forRequest(snapshots.published(), replay)
+                .calculate(replay).getTotalDiscount(), 0.01);
+        assertEquals(0.0, snapshots.forRequest(snapshots.published(), TWO_MONSTERS)
+                .calculate(TWO_MONSTERS).getTotalDiscount(), 0.01);
+        assertSame(snapshots.published(replay.getAsOf()), snapshots.published(replay.getAsOf()));
+        // Replays in the same slice reuse it; the next slice has other rules
+        assertSame(snapshots.published(replay.getAsOf()),
+                snapshots.published(Instant.parse("2026-02-20T16:59:00Z")));
+        assertNotSame(snapshots.published(replay.getAsOf()),
+                snapshots.published(Instant.parse("2026-02-20T17:00:00Z")));
+        assertTrue(snapshots.published(Instant.parse("2026-02-20T17:00:00Z")).getRules().isEmpty());
+    }
+
+    // BOGO on beverages every day from 15:00 to 17:00 UTC
+    private static RuleSnapshots happyHourSnapshots(Clock clock) {
+        RuleWindow happyHour = RuleWindow.of(null, null, Set.of(), LocalTime.of(15, 0), LocalTime.of(17, 0));
+        ScopedRules rules = new ScopedRules(List.of(new BuyOneGetOne("BEVERAGE")),
+                List.of(RuleScope.CHAIN_WIDE), List.of(happyHour));
+        return new RuleSnapshots(rules, new AllocationSolver(), PricingMetrics.NONE, clock, 16);
+    }
+
+    private static final class MovingClock extends Clock {
+        Instant now;
+
+        MovingClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.api;
+
+import com.example.api.allocation.AllocationSolver;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    private static final List<DiscountRequest> BASKETS = List.of(
+            new DiscountRequest(List.of(
+                    new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE"),
+                    new BasketItem("111", "HOT DOG", 2.00, 1, "FOOD"))),
+            new DiscountRequest(List.of(
+                    new BasketItem("222", "TAQUITO", 1.50, 2, "FOOD"))),
+            new DiscountRequest(List.of(
+                    new BasketItem("333", "CANDY BAR", 1.00, 1, "CANDY"))));
+
+    @Test
+    void testReportsDeltasPerRuleAndCategory() {
+        List<DiscountRule> baseline = List.of(new PercentOff(10, "FOOD"));
+        List<DiscountRule> candidate = List.of(new PercentOff(20, "FOOD"), new BuyOneGetOne("BEVERAGE"));
+
+        SimulationReport report = new Simulation(baseline, candidate, new AllocationSolver(), 2)
+                .run(BASKETS.iterator(), request -> Basket.of(request.getItems()));
+
+        assertEquals(3, report.getBaskets());
+        assertEquals(2, report.getBasketsChanged());
+        assertEquals(2, report.getBasketsWithMoreDiscount());
+        // Food: 10% then 20% of $5.00; beverage: one free Monster
+        assertEquals(0.50, report.getBaselineDiscount(), 0.001);
+        assertEquals(1.00 + 3.29, report.getCandidateDiscount(), 0.001);
+        assertEquals(-3.79, report.getMarginImpact(), 0.001);
+        assertEquals(3.29 + 0.20, report.getLargestBasketIncrease(), 0.001);
+
+        SimulationReport.RuleDelta bogo = report.getRules().stream()
+                .filter(rule -> rule.getRule().equals(new BuyOneGetOne("BEVERAGE").getName())).findFirst().orElseThrow();
+        assertEquals(0, bogo.getBaselineRedemptions());
+        assertEquals(1, bogo.getCandidateRedemptions());
+        assertEquals(3.29, bogo.getDelta(), 0.001);
+
+        assertEquals("BEVERAGE", report.getCategories().get(0).getCategory());
+        assertEquals(3.29, report.getCategories().get(0).getDelta(), 0.001);
+        assertEquals("FOOD", report.getCategories().get(1).getCategory());
+        assertEquals(0.50, report.getCategories().get(1).getDelta(), 0.001);
+    }
+
+    @Test
+    void testRulesSharingANameKeepSeparateRows() {
+        // Both are named PERCENT_OFF_20
+        List<DiscountRule> rules = List.of(new PercentOff(20, "FOOD"), new PercentOff(20, "CANDY"));
+
+        SimulationReport report = new Simulation(List.of(), rules, new AllocationSolver(), 1)
+                .run(BASKETS.iterator(), request -> Basket.of(request.getItems()));
+
+        assertEquals(List.of("PERCENT_OFF_20", "PERCENT_OFF_20#2"),
+                report.getRules().stream().map(SimulationReport.RuleDelta::getRule).toList());
+        assertEquals(1.00, report.getRules().get(0).getCandidateDiscount(), 0.001);
+        assertEquals(0.20, report.getRules().get(1).getCandidateDiscount(), 0.001);
+    }
+
+    @Test
+    void testTotalsMatchTheEngineOverManyBatches() {
+        List<DiscountRule> rules = List.of(new PercentOff(15, "FOOD"), new BuyOneGetOne("BEVERAGE"));
+        List<DiscountRequest> corpus = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            corpus.add(BASKETS.get(i % BASKETS.size()));
+        }
+        DiscountEngine engine = new DiscountEngine(rules);
+        long expectedCents = 0;
+        for (DiscountRequest request : corpus) {
+            expectedCents += Money.toCents(engine.calculate(request).getTotalDiscount());
+        }
+
+        SimulationReport report = new Simulation(List.of(), rules, new AllocationSolver(), 4)
+                .run(corpus.iterator(), request -> Basket.of(request.getItems()));
+
+        assertEquals(10_000, report.getBaskets());
+        assertEquals(Money.toDollars(expectedCents), report.getCandidateDiscount(), 0.001);
+        assertEquals(0.0, report.getBaselineDiscount(), 0.001);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.api;
+
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.catalog.RequestNormalizer;
+import com.example.api.rules.BuyOneGetOne;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingPricingServiceTest {
+
+    private static final RequestNormalizer NORMALIZER = new RequestNormalizer(ProductCatalog.empty());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testPricesEveryLineInOrder() throws Exception {
+        BatchPricingService pool = new BatchPricingService(4, 16);
+        try {
+            RuleSnapshots snapshots = new RuleSnapshots(List.of(new BuyOneGetOne("BEVERAGE")));
+            // Small batches and a small window so the stream crosses many batch boundaries
+            StreamingPricingService streaming = new StreamingPricingService(snapshots, pool, objectMapper, NORMALIZER, 7, 2);
+
+            StringBuilder in = new StringBuilder();
+            int baskets = 1000;
+            for (int i = 0; i < baskets; i++) {
+                int quantity = 1 + i % 5;
+                in.append("{\"items\":[{\"upc\":\"070847811169\",\"description\":\"MONSTER ENERGY\",")
+                        .append("\"price\":1.00,\"quantity\":").append(quantity)
+                        .append(",\"category\":\"BEVERAGE\"}]}\n");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            long priced = streaming.price(
+                    new ByteArrayInputStream(in.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(baskets, priced);
+            assertEquals(baskets, lines.length);
+            for (int i = 0; i < baskets; i++) {
+                JsonNode response = objectMapper.readTree(lines[i]);
+                int quantity = 1 + i % 5;
+                assertEquals(quantity, response.get("subtotal").asDouble(), 0.0);
+                assertEquals(quantity / 2, response.get("totalDiscount").asDouble(), 0.0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testEmptyInputWritesNothing() throws Exception {
+        BatchPricingService pool = new BatchPricingService(1, 4);
+        try {
+            StreamingPricingService streaming = new StreamingPricingService(
+                    new RuleSnapshots(List.of()), pool, objectMapper, NORMALIZER, 0, 0);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            assertEquals(0, streaming.price(new ByteArrayInputStream(new byte[0]), out));
+            assertEquals(0, out.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.api.allocation;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationSolverTest {
+
+    @Test
+    void testBeatsGreedyWhenBestDensityBlocksTwoOffers() {
+        // The bundle saves the most per unit, but taking it blocks two
+        // single-line offers that together save more
+        List<Offer> offers = List.of(
+                new Offer(0, new int[] { 0, 1 }, new int[] { 1, 1 }, 130, 1),
+                new Offer(1, new int[] { 0 }, new int[] { 1 }, 60, 1),
+                new Offer(2, new int[] { 1 }, new int[] { 2 }, 100, 1)
+        );
+
+        int[] counts = new AllocationSolver().solve(new int[] { 1, 2 }, offers);
+
+        assertArrayEquals(new int[] { 0, 1, 1 }, counts);
+    }
+
+    @Test
+    void testNeverUsesMoreUnitsThanTheLineHas() {
+        List<Offer> offers = List.of(
+                new Offer(0, new int[] { 0 }, new int[] { 2 }, 329, 10),
+                new Offer(1, new int[] { 0 }, new int[] { 1 }, 100, 10)
+        );
+
+        int[] counts = new AllocationSolver().solve(new int[] { 5 }, offers);
+
+        // Two pairs plus the odd unit
+        assertArrayEquals(new int[] { 2, 1 }, counts);
+    }
+
+    @Test
+    void testZeroBudgetFallsBackToGreedy() {
+        List<Offer> offers = List.of(
+                new Offer(0, new int[] { 0, 1 }, new int[] { 1, 1 }, 130, 1),
+                new Offer(1, new int[] { 0 }, new int[] { 1 }, 60, 1),
+                new Offer(2, new int[] { 1 }, new int[] { 2 }, 100, 1)
+        );
+
+        int[] counts = new AllocationSolver(0).solve(new int[] { 1, 2 }, offers);
+
+        // Greedy takes the densest offer and stops; still never double-discounts
+        assertArrayEquals(new int[] { 1, 0, 0 }, counts);
+    }
+
+    @Test
+    void testDropsOffersDominatedByTheSameUnits() {
+        // Three percent-off promos on the same line: only the deepest one applies
+        List<Offer> offers = List.of(
+                new Offer(0, new int[] { 0 }, new int[] { 1 }, 50, 4),
+                new Offer(1, new int[] { 0 }, new int[] { 1 }, 80, 4),
+                new Offer(2, new int[] { 0 }, new int[] { 1 }, 80, 4)
+        );
+
+        int[] counts = new AllocationSolver().solve(new int[] { 4 }, offers);
+
+        // Ties keep the earlier rule
+        assertArrayEquals(new int[] { 0, 4, 0 }, counts);
+    }
+
+    @Test
+    void testReusedWorkspaceGivesTheSameAnswerAsAFreshOne() {
+        AllocationSolver solver = new AllocationSolver();
+        AllocationSolver.Workspace workspace = new AllocationSolver.Workspace();
+        OfferTable table = new OfferTable();
+        int[] counts = new int[8];
+
+        // A bigger basket first, so the smaller one runs on grown, dirty scratch
+        table.add(0, new int[] { 0, 1, 2 }, new int[] { 1, 1, 1 }, 200, 3);
+        table.add(1, 2, 1, 90, 3);
+        table.add(2, 3, 2, 40, 5);
+        solver.solve(new int[] { 3, 3, 3, 10 }, 4, table, counts, workspace);
+
+        table.clear();
+        table.add(0, new int[] { 0, 1 }, new int[] { 1, 1 }, 130, 1);
+        table.add(1, 0, 1, 60, 1);
+        table.add(2, 1, 2, 100, 1);
+        solver.solve(new int[] { 1, 2, 99 }, 2, table, counts, workspace);
+
+        assertArrayEquals(new int[] { 0, 1, 1 }, Arrays.copyOf(counts, 3));
+    }
+
+    @Test
+    void testSearchBudgetCutsOffTheSameWayEveryTime() {
+        // Ten copies of the greedy trap in testBeatsGreedyWhenBestDensityBlocksTwoOffers,
+        // each its own component: the budget runs out part-way through them
+        List<Offer> offers = new ArrayList<>();
+        int[] capacity = new int[20];
+        for (int copy = 0; copy < 10; copy++) {
+            int a = 2 * copy;
+            int b = a + 1;
+            capacity[a] = 1;
+            capacity[b] = 2;
+            offers.add(new Offer(3 * copy, new int[] { a, b }, new int[] { 1, 1 }, 130, 1));
+            offers.add(new Offer(3 * copy + 1, new int[] { a }, new int[] { 1 }, 60, 1));
+            offers.add(new Offer(3 * copy + 2, new int[] { b }, new int[] { 2 }, 100, 1));
+        }
+        AllocationSolver solver = new AllocationSolver(20);
+
+        int[] first = solver.solve(capacity, offers);
+        for (int run = 0; run < 500; run++) {
+            assertArrayEquals(first, solver.solve(capacity, offers));
+        }
+
+        long saved = 0;
+        for (int k = 0; k < offers.size(); k++) {
+            saved += first[k] * offers.get(k).getSaving();
+        }
+        // Better than greedy on the first copies, greedy on the rest
+        assertTrue(saved > 10 * 130 && saved < 10 * 160, "saved " + saved);
+    }
+}
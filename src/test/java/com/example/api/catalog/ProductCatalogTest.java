@@ -0,0 +1,102 @@
+package com.example.api.catalog;
+
+import com.example.api.model.*;
+import com.example.api.rules.Categories;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogTest {
+
+    @TempDir
+    Path dir;
+
+    private ProductCatalog build(String csv) throws IOException {
+        Path items = Files.writeString(dir.resolve("items.csv"), csv);
+        Path catalog = dir.resolve("catalog.bin");
+        CatalogWriter.write(items, catalog);
+        return ProductCatalog.open(catalog);
+    }
+
+    @Test
+    void testLooksUpPriceCategoryAndPromoGroups() throws IOException {
+        ProductCatalog catalog = build("""
+                upc,price,category,promo_groups
+                070847811169,3.29,BEVERAGE,12|40
+                999999955678,2.69,FOOD,
+                000000000010,0.10,,
+                """);
+
+        assertEquals(3, catalog.size());
+
+        int monster = catalog.find("070847811169");
+        assertEquals(329, catalog.priceCents(monster));
+        assertEquals(Categories.lookup("BEVERAGE"), catalog.categoryId(monster));
+        assertEquals(2, catalog.promoGroupCount(monster));
+        assertEquals(12, catalog.promoGroup(monster, 0));
+        assertEquals(40, catalog.promoGroup(monster, 1));
+
+        int hotDog = catalog.find("999999955678");
+        assertEquals("FOOD", catalog.categoryName(hotDog));
+        assertEquals(0, catalog.promoGroupCount(hotDog));
+
+        assertEquals(Categories.NONE, catalog.categoryId(catalog.find("10")));
+    }
+
+    @Test
+    void testUnknownAndMalformedUpcsAreNotFound() throws IOException {
+        ProductCatalog catalog = build("070847811169,3.29,BEVERAGE\n");
+
+        assertEquals(-1, catalog.find("070847811170"));
+        assertEquals(-1, catalog.find("ABC"));
+        assertEquals(-1, catalog.find(""));
+        assertEquals(-1, catalog.find(null));
+        // EAN-13 form of the same UPC-A
+        assertTrue(catalog.find("0070847811169") >= 0);
+    }
+
+    @Test
+    void testLaterRowWins() throws IOException {
+        ProductCatalog catalog = build("070847811169,3.29,BEVERAGE\n070847811169,2.99,BEVERAGE\n");
+
+        assertEquals(1, catalog.size());
+        assertEquals(299, catalog.priceCents(catalog.find("070847811169")));
+    }
+
+    @Test
+    void testRejectsFileThatIsNotACatalog() throws IOException {
+        Path junk = Files.writeString(dir.resolve("junk.bin"), "not a catalog at all");
+
+        assertThrows(IOException.class, () -> ProductCatalog.open(junk));
+    }
+
+    @Test
+    void testNormalizerOverridesLaneValues() throws IOException {
+        RequestNormalizer normalizer = new RequestNormalizer(build("070847811169,3.29,BEVERAGE\n"));
+        BasketItem stale = new BasketItem("070847811169", "MONSTER ENERGY", 2.99, 2, "GROCERY");
+        BasketItem unknown = new BasketItem("000000000001", "LOCAL ITEM", 1.00, 1, "MISC");
+        DiscountRequest request = new DiscountRequest(List.of(stale, unknown));
+
+        DiscountRequest normalized = normalizer.normalize(request);
+
+        BasketItem fixed = normalized.getItems().get(0);
+        assertEquals(3.29, fixed.getPrice(), 0.0);
+        assertEquals("BEVERAGE", fixed.getCategory());
+        assertSame(unknown, normalized.getItems().get(1));
+        // The caller's request is left alone
+        assertEquals(2.99, stale.getPrice(), 0.0);
+    }
+
+    @Test
+    void testNormalizerReturnsCorrectRequestsUnchanged() throws IOException {
+        RequestNormalizer normalizer = new RequestNormalizer(build("070847811169,3.29,BEVERAGE\n"));
+        DiscountRequest request = new DiscountRequest(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")));
+
+        assertSame(request, normalizer.normalize(request));
+    }
+}
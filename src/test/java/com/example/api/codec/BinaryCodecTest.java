@@ -0,0 +1,93 @@
+package com.example.api.codec;
+
+import com.example.api.DiscountEngine;
+import com.example.api.catalog.CatalogWriter;
+import com.example.api.catalog.ProductCatalog;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    private static final DiscountRequest BASKET = new DiscountRequest(List.of(
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE"),
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "FOOD"),
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 3, "BEVERAGE"),
+            new BasketItem("000000000001", "CAFÉ CON LECHE", 1.99, 1, null)
+    ));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDecodesTheSameBasketAsJson() {
+        Basket expected = Basket.of(BASKET.getItems());
+
+        Basket decoded = new BinaryCodec(ProductCatalog.empty()).decodeBasket(BinaryCodec.encodeRequest(BASKET));
+
+        assertEquals(expected.size(), decoded.size());
+        for (int line = 0; line < expected.size(); line++) {
+            assertEquals(expected.upc(line), decoded.upc(line));
+            assertEquals(expected.description(line), decoded.description(line));
+            assertEquals(expected.priceCents(line), decoded.priceCents(line));
+            assertEquals(expected.quantity(line), decoded.quantity(line));
+            assertEquals(expected.categoryId(line), decoded.categoryId(line));
+        }
+    }
+
+    @Test
+    void testResponseRoundTrip() {
+        DiscountEngine engine = new DiscountEngine(List.of(new BuyOneGetOne("BEVERAGE"), new PercentOff(10, "FOOD")), 7);
+        BinaryCodec codec = new BinaryCodec(ProductCatalog.empty());
+        DiscountResponse response = engine.calculate(codec.decodeBasket(BinaryCodec.encodeRequest(BASKET)));
+
+        DiscountResponse decoded = BinaryCodec.decodeResponse(codec.encodeResponse(response));
+
+        assertEquals(response.getSubtotal(), decoded.getSubtotal(), 0.0);
+        assertEquals(response.getTax(), decoded.getTax(), 0.0);
+        assertEquals(response.getTotal(), decoded.getTotal(), 0.0);
+        assertEquals(response.getTotalDiscount(), decoded.getTotalDiscount(), 0.0);
+        assertEquals(7, decoded.getRuleSetVersion());
+        assertEquals(response.getAppliedDiscounts().size(), decoded.getAppliedDiscounts().size());
+        for (int i = 0; i < response.getAppliedDiscounts().size(); i++) {
+            AppliedDiscount sent = response.getAppliedDiscounts().get(i);
+            AppliedDiscount received = decoded.getAppliedDiscounts().get(i);
+            assertEquals(sent.getRuleName(), received.getRuleName());
+            assertEquals(sent.getDescription(), received.getDescription());
+            assertEquals(sent.getAmount(), received.getAmount(), 0.0);
+            assertEquals(sent.getAffectedItems(), received.getAffectedItems());
+        }
+    }
+
+    @Test
+    void testCatalogOverridesLaneValues() throws IOException {
+        Path items = Files.writeString(dir.resolve("items.csv"), "070847811169,3.49,ENERGY\n");
+        CatalogWriter.write(items, dir.resolve("catalog.bin"));
+        BinaryCodec codec = new BinaryCodec(ProductCatalog.open(dir.resolve("catalog.bin")));
+
+        Basket decoded = codec.decodeBasket(BinaryCodec.encodeRequest(BASKET));
+
+        assertEquals(349, decoded.priceCents(0));
+        assertEquals(Categories.lookup("ENERGY"), decoded.categoryId(0));
+        assertEquals(269, decoded.priceCents(1));
+    }
+
+    @Test
+    void testRejectsMalformedMessages() {
+        BinaryCodec codec = new BinaryCodec(ProductCatalog.empty());
+        byte[] valid = BinaryCodec.encodeRequest(BASKET);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeBasket(Arrays.copyOf(valid, valid.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeBasket(Arrays.copyOf(valid, valid.length + 1)));
+        byte[] wrongVersion = valid.clone();
+        wrongVersion[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeBasket(wrongVersion));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.api.promotions;
+
+import com.example.api.DiscountEngine;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import com.example.api.rules.dsl.CompiledRule;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleFactoryTest {
+
+    @Test
+    void testCreatesEachRuleType() {
+        assertTrue(RuleFactory.create(new RuleDefinition(RuleType.BOGO,
+                Map.of(), Set.of("BEVERAGE"), Set.of(), 0)) instanceof BuyOneGetOne);
+        assertTrue(RuleFactory.create(new RuleDefinition(RuleType.BUY_X_GET_Y,
+                Map.of("buyQty", "2", "freeQty", "1"), Set.of(), Set.of("POLAR POP"), 0)) instanceof BuyXGetY);
+        assertTrue(RuleFactory.create(new RuleDefinition(RuleType.PERCENT_OFF,
+                Map.of("percent", "20"), Set.of("FOOD"), Set.of(), 0)) instanceof PercentOff);
+        assertTrue(RuleFactory.create(new RuleDefinition(RuleType.MIX_MATCH_ENERGY,
+                Map.of(), Set.of(), Set.of(), 0)) instanceof MixAndMatchEnergyDrinks);
+        assertTrue(RuleFactory.create(new RuleDefinition(RuleType.MIX_MATCH,
+                Map.of("bundleSize", "3", "bundlePrice", "5.00"), Set.of(), Set.of("CELSIUS"), 0)) instanceof MixAndMatch);
+        assertTrue(RuleFactory.create(new RuleDefinition(RuleType.DSL,
+                Map.of("expression", "buy 2 POLAR POP get 1 free"), Set.of(), Set.of(), 0)) instanceof CompiledRule);
+    }
+
+    @Test
+    void testMissingParameterIsRejected() {
+        RuleDefinition definition = new RuleDefinition(RuleType.PERCENT_OFF,
+                Map.of(), Set.of("FOOD"), Set.of(), 0);
+
+        assertThrows(IllegalArgumentException.class, () -> RuleFactory.create(definition));
+    }
+
+    @Test
+    void testHigherPriorityLoadsFirst() {
+        List<DiscountRule> rules = RuleFactory.createAll(List.of(
+                new RuleDefinition(RuleType.PERCENT_OFF, Map.of("percent", "20"), Set.of("BEVERAGE"), Set.of(), 1),
+                new RuleDefinition(RuleType.BOGO, Map.of(), Set.of("BEVERAGE"), Set.of(), 5)
+        ));
+
+        assertEquals("BOGO_BEVERAGE", rules.get(0).getName());
+        assertEquals("PERCENT_OFF_20", rules.get(1).getName());
+    }
+
+    @Test
+    void testValidityWindow() {
+        RuleDefinition definition = new RuleDefinition(RuleType.BOGO,
+                Map.of(), Set.of("BEVERAGE"), Set.of(), 0);
+        definition.setValidFrom(Instant.parse("2026-01-01T00:00:00Z"));
+        definition.setValidTo(Instant.parse("2026-02-01T00:00:00Z"));
+
+        assertFalse(definition.isActiveAt(Instant.parse("2025-12-31T23:59:59Z")));
+        assertTrue(definition.isActiveAt(Instant.parse("2026-01-01T00:00:00Z")));
+        assertFalse(definition.isActiveAt(Instant.parse("2026-02-01T00:00:00Z")));
+
+        definition.setEnabled(false);
+        assertFalse(definition.isActiveAt(Instant.parse("2026-01-15T00:00:00Z")));
+    }
+
+    @Test
+    void testDefaultPromotionsPriceLikeBefore() {
+        DiscountEngine engine = new DiscountEngine(RuleFactory.createAll(DefaultPromotions.definitions()));
+
+        DiscountResponse response = engine.calculate(new DiscountRequest(List.of(
+                new BasketItem("999999937551", "Medium Polar Pop", 0.89, 3, "BEVERAGE"),
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE")
+        )));
+
+        assertEquals(0.89 + 3.29, response.getTotalDiscount(), 0.01);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.api.rules;
+
+import org.junit.jupiter.api.Test;
+import java.util.BitSet;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    void testMatchesIgnoringCase() {
+        KeywordMatcher matcher = KeywordMatcher.of(List.of("POLAR POP"));
+
+        assertTrue(matcher.matchesAny("Medium Polar Pop"));
+        assertTrue(matcher.matchesAny("POLAR POP 32OZ"));
+        assertFalse(matcher.matchesAny("POLAR BEAR GUMMIES"));
+        assertFalse(matcher.matchesAny(""));
+    }
+
+    @Test
+    void testReportsOverlappingKeywords() {
+        // Classic Aho-Corasick case: "she" also ends "he", "hers" overlaps "she"
+        KeywordMatcher matcher = KeywordMatcher.of(List.of("he", "she", "his", "hers"));
+        BitSet matches = new BitSet();
+
+        matcher.matchAll("USHERS", matches);
+
+        assertTrue(matches.get(0));
+        assertTrue(matches.get(1));
+        assertFalse(matches.get(2));
+        assertTrue(matches.get(3));
+    }
+
+    @Test
+    void testRecoversAfterPartialMatch() {
+        // "RED BU" is a dead end; matching must resume without rescanning
+        KeywordMatcher matcher = KeywordMatcher.of(List.of("RED BULL", "BUD"));
+        BitSet matches = new BitSet();
+
+        matcher.matchAll("red bud light", matches);
+
+        assertFalse(matches.get(0));
+        assertTrue(matches.get(1));
+    }
+
+    @Test
+    void testEnergyDrinkBrands() {
+        KeywordMatcher matcher = KeywordMatcher.of(List.of(
+                "MONSTER", "RED BULL", "ROCKSTAR", "NOS", "REIGN",
+                "CELSIUS", "BANG", "5 HR", "GHOST ERGY"));
+
+        assertTrue(matcher.matchesAny("Monster Energy Ultra"));
+        assertTrue(matcher.matchesAny("5 hr Energy Berry"));
+        assertTrue(matcher.matchesAny("Ghost Ergy Sour Patch"));
+        assertFalse(matcher.matchesAny("Gatorade Cool Blue"));
+    }
+
+    @Test
+    void testRejectsEmptyKeyword() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordMatcher.of(List.of("")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.api.rules;
+
+import com.example.api.model.BasketItem;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MixAndMatchTest {
+
+    private static final BasketItem MONSTER =
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE");
+    private static final BasketItem RED_BULL =
+            new BasketItem("611269991000", "RED BULL 12OZ", 3.99, 1, "BEVERAGE");
+    private static final BasketItem CELSIUS =
+            new BasketItem("889392000016", "CELSIUS ORANGE", 2.49, 4, "BEVERAGE");
+    private static final BasketItem POLAR_POP =
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 3, "BEVERAGE");
+
+    private final MixAndMatch threeForFive =
+            new MixAndMatch(3, 500, Set.of("MONSTER", "RED BULL", "CELSIUS"), Set.of());
+
+    @Test
+    void testMostExpensiveUnitsAreBundledFirst() {
+        Basket basket = Basket.of(List.of(CELSIUS, POLAR_POP, MONSTER, RED_BULL));
+
+        BundlePlan plan = threeForFive.plan(basket, basket.allLines());
+
+        // Red Bull + 2 Monster = $10.57 for $5.00, then 3 Celsius = $7.47 for $5.00;
+        // the fourth Celsius, the cheapest unit, is left over
+        assertEquals(2, plan.getBundles());
+        assertEquals(557 + 247, plan.getSavingCents());
+        assertEquals(3, plan.bundledUnits(0));
+        assertEquals(0, plan.bundledUnits(1));
+        assertEquals(2, plan.bundledUnits(2));
+        assertEquals(1, plan.bundledUnits(3));
+        assertArrayEquals(new int[] { 0, 2, 3 }, plan.getBundledLines());
+        assertEquals("3 for $5.00 on CELSIUS, MONSTER, RED BULL", threeForFive.getDescription());
+    }
+
+    @Test
+    void testStopsBeforeABundleThatSavesNothing() {
+        // 2 Monster save $1.58; Red Bull + Celsius ($6.48) would only cost more
+        MixAndMatch twoForFive = new MixAndMatch("TWO_FOR_FIVE", "Energy", 2, 500,
+                Set.of("MONSTER", "CELSIUS", "RED BULL"), Set.of());
+        Basket basket = Basket.of(List.of(MONSTER,
+                new BasketItem("611269991000", "RED BULL 8OZ", 2.49, 1, "BEVERAGE"),
+                new BasketItem("889392000016", "CELSIUS ORANGE", 2.49, 1, "BEVERAGE")));
+
+        DiscountResult result = twoForFive.apply(basket, basket.allLines());
+
+        assertEquals(158, result.getAmountCents());
+        assertArrayEquals(new int[] { 0 }, result.getAffectedLines());
+    }
+
+    @Test
+    void testIdenticalBundlesAreOfferedOnce() {
+        MixAndMatch byCategory = new MixAndMatch(2, 500, Set.of(), Set.of("BEVERAGE"));
+        Basket basket = Basket.of(List.of(
+                new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 1001, "BEVERAGE"),
+                new BasketItem("611269991000", "RED BULL 12OZ", 3.99, 1, "BEVERAGE")));
+
+        List<long[]> offers = new ArrayList<>();
+        byCategory.offers(basket, basket.allLines(), basket.size(),
+                (lines, units, saving, max) -> offers.add(new long[] { lines.length, saving, max }));
+
+        // Red Bull + Monster once, then the remaining 1000 Monster as one run of 500 pairs
+        assertEquals(2, offers.size());
+        assertArrayEquals(new long[] { 2, 228 * Money.SUB_CENTS, 1 }, offers.get(0));
+        assertArrayEquals(new long[] { 1, 158 * Money.SUB_CENTS, 500 }, offers.get(1));
+    }
+
+    @Test
+    void testEnergyDrinkPresetKeepsItsName() {
+        MixAndMatchEnergyDrinks preset = new MixAndMatchEnergyDrinks();
+        Basket basket = Basket.of(List.of(MONSTER, POLAR_POP, RED_BULL));
+
+        DiscountResult result = preset.apply(basket, basket.allLines());
+
+        assertEquals("MIX_MATCH_ENERGY_2FOR6", preset.getName());
+        assertEquals("2 for $6.00 on Energy Drinks", preset.getDescription());
+        // Red Bull + one Monster = $7.28 for $6.00; the second Monster has no partner
+        assertEquals(128, result.getAmountCents());
+        assertArrayEquals(new int[] { 0, 2 }, result.getAffectedLines());
+    }
+}
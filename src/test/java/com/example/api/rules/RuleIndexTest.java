@@ -0,0 +1,69 @@
+package com.example.api.rules;
+
+import com.example.api.model.BasketItem;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.SortedMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleIndexTest {
+
+    private static final BasketItem MONSTER =
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE");
+    private static final BasketItem POLAR_POP =
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 3, "BEVERAGE");
+    private static final BasketItem HOT_DOG =
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "FOOD");
+
+    @Test
+    void testBucketsByCategoryAndKeyword() {
+        RuleIndex index = new RuleIndex(List.of(
+                new BuyOneGetOne("BEVERAGE"),     // 0
+                new BuyXGetY(2, 1, "POLAR POP"),  // 1
+                new PercentOff(20, "FOOD")        // 2
+        ));
+
+        SortedMap<Integer, int[]> buckets = index.bucket(Basket.of(List.of(MONSTER, POLAR_POP, HOT_DOG)));
+
+        assertArrayEquals(new int[] { 0, 1 }, buckets.get(0));
+        assertArrayEquals(new int[] { 1 }, buckets.get(1));
+        assertArrayEquals(new int[] { 2 }, buckets.get(2));
+    }
+
+    @Test
+    void testRulesWithoutMatchesAreSkipped() {
+        RuleIndex index = new RuleIndex(List.of(
+                new BuyOneGetOne("TOBACCO"),
+                new BuyXGetY(2, 1, "POLAR POP"),
+                new MixAndMatchEnergyDrinks()
+        ));
+
+        SortedMap<Integer, int[]> buckets = index.bucket(Basket.of(List.of(MONSTER)));
+
+        assertEquals(1, buckets.size());
+        assertArrayEquals(new int[] { 0 }, buckets.get(2));
+    }
+
+    @Test
+    void testUndeclaredRuleSeesEveryLine() {
+        RuleIndex index = new RuleIndex(List.of(new PercentOff(5)));
+
+        SortedMap<Integer, int[]> buckets = index.bucket(Basket.of(List.of(MONSTER, HOT_DOG)));
+
+        assertArrayEquals(new int[] { 0, 1 }, buckets.get(0));
+    }
+
+    @Test
+    void testLineMatchingSeveralCriteriaIsBucketedOnce() {
+        DiscountRule rule = new DiscountRule() {
+            public String getName() { return "MULTI"; }
+            public DiscountResult apply(Basket basket, int[] lines) { return DiscountResult.NONE; }
+            public java.util.Set<String> getCategories() { return java.util.Set.of("BEVERAGE"); }
+            public java.util.Set<String> getKeywords() { return java.util.Set.of("MONSTER"); }
+        };
+
+        SortedMap<Integer, int[]> buckets = new RuleIndex(List.of(rule)).bucket(Basket.of(List.of(MONSTER)));
+
+        assertArrayEquals(new int[] { 0 }, buckets.get(0));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.api.rules;
+
+import org.junit.jupiter.api.Test;
+import java.time.*;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleScheduleTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    // A Monday
+    private static final Instant MONDAY = Instant.parse("2026-03-02T00:00:00Z");
+
+    @Test
+    void testOvernightWindowBelongsToTheDayItStarts() {
+        RuleWindow fridayNight = RuleWindow.of(null, null, Set.of(DayOfWeek.FRIDAY),
+                LocalTime.of(22, 0), LocalTime.of(2, 0));
+
+        assertTrue(fridayNight.isActiveAt(Instant.parse("2026-03-06T23:00:00Z"), ZONE));
+        assertTrue(fridayNight.isActiveAt(Instant.parse("2026-03-07T01:59:00Z"), ZONE));
+        assertFalse(fridayNight.isActiveAt(Instant.parse("2026-03-07T02:00:00Z"), ZONE));
+        assertFalse(fridayNight.isActiveAt(Instant.parse("2026-03-06T01:00:00Z"), ZONE));
+        assertFalse(fridayNight.isActiveAt(Instant.parse("2026-03-07T23:00:00Z"), ZONE));
+    }
+
+    @Test
+    void testSlicesChangeOnlyWhereTheActiveSetDoes() {
+        RuleWindow happyHour = RuleWindow.of(null, null, Set.of(), LocalTime.of(15, 0), LocalTime.of(17, 0));
+        RuleWindow weekend = RuleWindow.of(null, null, Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), null, null);
+        RuleSchedule schedule = new RuleSchedule(List.of(RuleWindow.ALWAYS, happyHour, weekend),
+                ZONE, MONDAY, Duration.ofDays(7));
+
+        // The first slice, seven happy hours opening and closing, and the weekend
+        // starting; the midnights in between change nothing and are merged away
+        assertEquals(16, schedule.sliceCount());
+        assertEquals("{0}", schedule.activeAt(MONDAY.plus(Duration.ofHours(12))).toString());
+        assertEquals("{0, 1}", schedule.activeAt(MONDAY.plus(Duration.ofHours(16))).toString());
+        assertEquals("{0, 1, 2}", schedule.activeAt(Instant.parse("2026-03-07T16:00:00Z")).toString());
+        assertEquals(Instant.parse("2026-03-02T15:00:00Z"), schedule.nextChange(MONDAY));
+        // Beyond the horizon the windows are evaluated directly
+        assertEquals("{0, 2}", schedule.activeAt(Instant.parse("2026-03-14T10:00:00Z")).toString());
+    }
+
+    @Test
+    void testSlicesOutsideTheHorizonRunBetweenBoundaries() {
+        RuleWindow happyHour = RuleWindow.of(null, null, Set.of(), LocalTime.of(15, 0), LocalTime.of(17, 0));
+        RuleSchedule schedule = new RuleSchedule(List.of(RuleWindow.ALWAYS, happyHour), ZONE, MONDAY, Duration.ofDays(7));
+
+        RuleSchedule.Slice slice = schedule.sliceAt(Instant.parse("2026-02-20T16:00:00Z"));
+        assertEquals(Instant.parse("2026-02-20T15:00:00Z"), slice.getStart());
+        assertEquals(Instant.parse("2026-02-20T17:00:00Z"), slice.getEnd());
+        assertEquals("{0, 1}", slice.getActive().toString());
+
+        slice = schedule.sliceAt(Instant.parse("2026-02-20T17:00:00Z"));
+        assertEquals(Instant.parse("2026-02-20T17:00:00Z"), slice.getStart());
+        assertEquals("{0}", slice.getActive().toString());
+    }
+
+    @Test
+    void testRejectsHalfADailyWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleWindow.of(null, null, Set.of(), LocalTime.NOON, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleWindow.of(MONDAY, MONDAY, Set.of(), null, null));
+    }
+}
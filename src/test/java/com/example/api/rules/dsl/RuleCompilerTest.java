@@ -0,0 +1,135 @@
+package com.example.api.rules.dsl;
+
+import com.example.api.DiscountEngine;
+import com.example.api.model.*;
+import com.example.api.rules.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTest {
+
+    private static final BasketItem MONSTER =
+            new BasketItem("070847811169", "MONSTER ENERGY", 3.29, 2, "BEVERAGE");
+    private static final BasketItem RED_BULL =
+            new BasketItem("611269991000", "RED BULL 12OZ", 3.99, 1, "BEVERAGE");
+    private static final BasketItem POLAR_POP =
+            new BasketItem("999999937551", "Medium Polar Pop", 0.89, 3, "BEVERAGE");
+    private static final BasketItem HOT_DOG =
+            new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 3, "FOOD");
+
+    @Test
+    void testMatchesHandWrittenRules() {
+        // Each compiled rule must price like the class it stands in for
+        List<BasketItem> basket = List.of(MONSTER, POLAR_POP, HOT_DOG);
+        List<DiscountRule> handWritten = List.of(
+                new BuyXGetY(2, 1, "POLAR POP"),
+                new PercentOff(20, "FOOD"),
+                new BuyOneGetOne("BEVERAGE"));
+        List<DiscountRule> compiled = RuleCompiler.compile("""
+                buy 2 POLAR POP get 1 free
+                20% off category FOOD
+                buy 1 category BEVERAGE get 1 free
+                """);
+
+        for (int i = 0; i < handWritten.size(); i++) {
+            assertEquals(handWritten.get(i).apply(basket).getAmountCents(),
+                    compiled.get(i).apply(basket).getAmountCents(), compiled.get(i).getName());
+        }
+
+        DiscountResponse expected = new DiscountEngine(handWritten).calculate(new DiscountRequest(basket));
+        DiscountResponse actual = new DiscountEngine(compiled).calculate(new DiscountRequest(basket));
+        assertEquals(expected.getTotalDiscount(), actual.getTotalDiscount(), 0.0);
+    }
+
+    @Test
+    void testBuyGetDiscountsEveryMatchingLine() {
+        BasketItem largePolarPop = new BasketItem("999999937568", "Large Polar Pop", 0.99, 3, "BEVERAGE");
+        List<BasketItem> basket = List.of(POLAR_POP, largePolarPop);
+        DiscountRule rule = RuleCompiler.compileOne("buy 2 POLAR POP get 1 free");
+
+        DiscountResult result = rule.apply(basket);
+
+        // One free unit on each line: 89 + 99 cents. BuyXGetY stops at the first line.
+        assertEquals(188, result.getAmountCents());
+        assertArrayEquals(new int[] { 0, 1 }, result.getAffectedLines());
+        assertEquals(89, new BuyXGetY(2, 1, "POLAR POP").apply(basket).getAmountCents());
+        assertEquals(1.88, new DiscountEngine(List.of(rule)).calculate(new DiscountRequest(basket))
+                .getTotalDiscount(), 0.001);
+    }
+
+    @Test
+    void testMixAndMatchGroup() {
+        DiscountRule rule = RuleCompiler.compileOne("""
+                group ENERGY = "MONSTER", "RED BULL", "ROCKSTAR"
+                ENERGY_2FOR6: mix any 2 of group ENERGY for $6.00
+                """);
+
+        DiscountResult result = rule.apply(List.of(MONSTER, RED_BULL, POLAR_POP));
+
+        assertEquals("ENERGY_2FOR6", rule.getName());
+        assertEquals("2 for $6.00 on ENERGY", rule.getDescription());
+        // Red Bull + one Monster = $7.28 for $6.00; the second Monster has no partner
+        assertEquals(128, result.getAmountCents());
+        assertArrayEquals(new int[] { 0, 1 }, result.getAffectedLines());
+        assertEquals(Set.of("MONSTER", "RED BULL", "ROCKSTAR"), rule.getKeywords());
+    }
+
+    @Test
+    void testDeclaresIndexCriteria() {
+        DiscountRule rule = RuleCompiler.compileOne("10% off category FOOD, upc 070847811169 or \"polar pop\"");
+
+        assertEquals(Set.of("FOOD"), rule.getCategories());
+        assertEquals(Set.of("070847811169"), rule.getUpcs());
+        assertEquals(Set.of("POLAR POP"), rule.getKeywords());
+        assertEquals("10_OFF_CATEGORY_FOOD_UPC_070847811169_OR_POLAR_POP", rule.getName());
+
+        DiscountRule everything = RuleCompiler.compileOne("5% off everything");
+        assertTrue(everything.getCategories().isEmpty() && everything.getKeywords().isEmpty());
+        // 5% of $8.07
+        assertEquals(40, everything.apply(List.of(HOT_DOG)).getAmountCents());
+    }
+
+    @Test
+    void testCommentsAndSeparators() {
+        List<DiscountRule> rules = RuleCompiler.compile("""
+                # weekday promos
+                buy 1 category BEVERAGE get 1 free; 20% off category FOOD
+
+                """);
+
+        assertEquals(2, rules.size());
+    }
+
+    @Test
+    void testCategoryNamesAreMatchedAsWritten() {
+        BasketItem mixedCase = new BasketItem("999999955678", "HOT DOG / SSG PREMIUM", 2.69, 1, "Food");
+        DiscountRule rule = RuleCompiler.compileOne("10% off category Food");
+
+        assertEquals(Set.of("Food"), rule.getCategories());
+        // Same as the hand-written rule: 10% of $2.69, and nothing for FOOD
+        assertEquals(new PercentOff(10, "Food").apply(List.of(mixedCase)).getAmountCents(),
+                rule.apply(List.of(mixedCase)).getAmountCents());
+        assertEquals(27, rule.apply(List.of(mixedCase)).getAmountCents());
+        assertEquals(0, rule.apply(List.of(HOT_DOG)).getAmountCents());
+    }
+
+    @Test
+    void testReportsWhereSyntaxIsWrong() {
+        RuleSyntaxException error = assertThrows(RuleSyntaxException.class,
+                () -> RuleCompiler.compile("buy 2 POLAR POP get 1 free\nmix any 2 of group ENERGY for $6"));
+
+        assertEquals(2, error.getLine());
+        assertTrue(error.getMessage().contains("unknown group ENERGY"), error.getMessage());
+
+        assertThrows(RuleSyntaxException.class, () -> RuleCompiler.compile("buy 0 POLAR POP get 1 free"));
+        assertThrows(RuleSyntaxException.class, () -> RuleCompiler.compile("150% off everything"));
+        RuleSyntaxException badNumber = assertThrows(RuleSyntaxException.class,
+                () -> RuleCompiler.compile("buy 2 POLAR POP get 1 free\n 1.2.3% off everything"));
+        assertEquals(2, badNumber.getLine());
+        assertEquals(2, badNumber.getColumn());
+        assertThrows(RuleSyntaxException.class, () -> RuleCompiler.compile("buy 2 POLAR POP get 1"));
+        assertThrows(IllegalArgumentException.class, () -> RuleCompiler.compileOne(""));
+    }
+}